@@ -27,6 +27,8 @@ import com.badlogic.gdx.assets.loaders.resolvers.*;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import edu.cornell.gdiac.audio.*;
 import edu.cornell.gdiac.util.FilmStrip;
+import edu.cornell.gdiac.util.GLResources;
+import edu.cornell.gdiac.util.Trace;
 
 /**
  * An asset manager that uses a JSON file to define its assets.
@@ -41,7 +43,7 @@ import edu.cornell.gdiac.util.FilmStrip;
  * takes an JSON entry in the directory and instructs the appropriate loader how to
  * load that file.  This class has built in parsers for the classes {@link Texture}, 
  * {@link TextureRegion},  {@link BitmapFont}, {@link SoundBuffer}, {@link MusicBuffer}, 
- * and {@link JsonValue}.
+ * {@link ParticleEffect} and {@link JsonValue}.
  *
  * If you wish to add custom assets, you need to add BOTH a custom {@link AssetLoader}
  * and a custom {@link AssetParser} to this manager.  While a type can only have one
@@ -65,6 +67,10 @@ public class AssetDirectory extends AssetManager {
     protected Index contents;
     /** The dedicated loader for the {@link Index} class */
     protected DirectoryLoader topLoader;
+    /** The decoder for decoding textures in parallel */
+    protected PixmapDecoder decoder = new PixmapDecoder();
+    /** Whether the startup trace has an open span for loading this directory */
+    private boolean tracing;
 
     /**
      * This class represents the top level index of an asset directory.
@@ -146,7 +152,7 @@ public class AssetDirectory extends AssetManager {
         setLoader( MusicBuffer.class, new MusicBufferLoader( resolver ) );
 
         setLoader( Pixmap.class, new PixmapLoader( resolver ) );
-        setLoader( Texture.class, new TextureLoader( resolver ) );
+        setLoader( Texture.class, new PixmapTextureLoader( resolver, decoder ) );
         setLoader( TextureAtlas.class, new TextureAtlasLoader( resolver ) );
         setLoader( TextureRegion.class, new TextureRegionLoader( resolver ) );
         setLoader( FilmStrip.class, new FilmStripLoader( resolver ) );
@@ -160,12 +166,14 @@ public class AssetDirectory extends AssetManager {
 
         // And now the default parsers
         topLoader.addParser( new JsonValueParser() );
+        TextureParser.probeCompression();
         topLoader.addParser( new TextureParser() );
         topLoader.addParser( new TextureRegionParser() );
         topLoader.addParser( new FilmStripParser() );
         topLoader.addParser( new FreetypeFontParser() );
         topLoader.addParser( new SoundBufferParser() );
         topLoader.addParser( new MusicBufferParser() );
+        topLoader.addParser( new ParticleEffectParser() );
     }
 
     /**
@@ -188,6 +196,27 @@ public class AssetDirectory extends AssetManager {
         return filename;
     }
 
+    /**
+     * Adds the given asset to the loading queue of this asset manager.
+     *
+     * Textures are also submitted to the {@link PixmapDecoder}, so that their images
+     * are decoded in parallel well before the asset manager gets to them.
+     *
+     * @param fileName  The file name (interpretation depends on the loader)
+     * @param type      The type of the asset
+     * @param parameter The parameters for the loader (may be null)
+     */
+    @Override
+    public synchronized <T> void load(String fileName, Class<T> type, AssetLoaderParameters<T> parameter) {
+        if (type == Texture.class && !isLoaded( fileName )) {
+            TextureLoader.TextureParameter params = (TextureLoader.TextureParameter)parameter;
+            if (params == null || params.textureData == null) {
+                decoder.submit( resolver.resolve( fileName ), params == null ? null : params.format );
+            }
+        }
+        super.load( fileName, type, parameter );
+    }
+
     /**
      * Loads all assets defined by the asset directory
      * 
@@ -201,8 +230,76 @@ public class AssetDirectory extends AssetManager {
         DirectoryLoader.DirectoryLoaderParameters params = new DirectoryLoader.DirectoryLoaderParameters();
         params.loadedCallback = callback;
         load( filename, Index.class, params );
+        if (Trace.get().isActive() && !tracing) {
+            tracing = true;
+            Trace.get().beginAsync( filename );
+        }
+    }
+
+    /**
+     * Updates the asset manager, keeping the GL thread responsive.
+     *
+     * This ends the trace span of {@link #loadAssets} once everything has loaded.
+     * Both {@link #update(int)} and {@link #finishLoading} go through this method.
+     *
+     * @return true if all loading is finished.
+     */
+    @Override
+    public synchronized boolean update() {
+        boolean done = super.update();
+        if (done && tracing) {
+            tracing = false;
+            Trace.get().endAsync( filename );
+        }
+        return done;
+    }
+
+    /**
+     * Adds an asset that has finished loading.
+     *
+     * Textures, and the pages of fonts that own them, are recorded with the
+     * {@link GLResources} registry.  Texture regions, film strips, atlases and skins
+     * load their images as texture dependencies, so this covers every texture in the
+     * directory.
+     *
+     * @param fileName  The file name of the asset
+     * @param type      The type of the asset
+     * @param asset     The loaded asset
+     */
+    @Override
+    public synchronized <T> void addAsset(String fileName, Class<T> type, T asset) {
+        super.addAsset( fileName, type, asset );
+        if (asset instanceof Texture) {
+            GLResources.get().track( (Texture)asset );
+        } else if (asset instanceof BitmapFont && ((BitmapFont)asset).ownsTexture()) {
+            for(TextureRegion region : ((BitmapFont)asset).getRegions()) {
+                GLResources.get().track( region.getTexture() );
+            }
+        }
     }
 
+    /**
+     * Unloads the given asset, disposing it if it is no longer referenced.
+     *
+     * Textures that are about to be disposed are removed from the {@link GLResources}
+     * registry.  Both {@link #clear} and {@link #dispose} go through this method.
+     *
+     * @param fileName  The file name of the asset
+     */
+    @Override
+    public synchronized void unload(String fileName) {
+        if (isLoaded( fileName ) && getReferenceCount( fileName ) == 1) {
+            Object asset = get( fileName, getAssetType( fileName ) );
+            if (asset instanceof Texture) {
+                GLResources.get().release( asset );
+            } else if (asset instanceof BitmapFont && ((BitmapFont)asset).ownsTexture()) {
+                for(TextureRegion region : ((BitmapFont)asset).getRegions()) {
+                    GLResources.get().release( region.getTexture() );
+                }
+            }
+        }
+        super.unload( fileName );
+    }
 
     public void allocateMusic(String file) {
         Music music = get(file, Music.class);
@@ -230,6 +327,18 @@ public class AssetDirectory extends AssetManager {
             }
         }
         contents = null;
+        decoder.clear();
+    }
+
+    /**
+     * Disposes all assets in this manager and stops all asynchronous loading.
+     *
+     * Any images decoded in the background but not yet loaded are disposed as well.
+     */
+    @Override
+    public synchronized void dispose() {
+        super.dispose();
+        decoder.dispose();
     }
     
     /**
@@ -18,6 +18,7 @@ import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.files.FileHandle;
 import edu.cornell.gdiac.audio.*;
 import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.util.Trace;
 
 /**
  * This class is an {@link AssetLoader} to load {@link AudioSource} assets.
@@ -74,7 +75,9 @@ public class AudioSourceLoader extends AsynchronousAssetLoader<AudioSource, Audi
      */
     @Override
     public void loadAsync (AssetManager manager, String fileName, FileHandle file, AudioSourceParameters params) {
+        Trace.get().begin( "open audio", fileName );
         cachedSource = ((AudioEngine)Gdx.audio).newSource(file);
+        Trace.get().end( "open audio" );
     }
 
     /** 
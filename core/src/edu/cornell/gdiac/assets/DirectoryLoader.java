@@ -19,6 +19,7 @@ import com.badlogic.gdx.utils.*;
 import com.badlogic.gdx.assets.*;
 import com.badlogic.gdx.assets.loaders.*;
 import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import edu.cornell.gdiac.util.Trace;
 import com.badlogic.gdx.files.FileHandle;
 
 /**
@@ -124,6 +125,7 @@ public class DirectoryLoader extends AsynchronousAssetLoader<AssetDirectory.Inde
      */
     @Override
     public void loadAsync (AssetManager manager, String fileName, FileHandle file, DirectoryLoaderParameters params) {
+        Trace.get().begin( "parse directory", fileName );
         JsonReader reader = new JsonReader();
         cachedData = new AssetDirectory.Index();
         cachedData.directory = reader.parse(file);
@@ -138,6 +140,7 @@ public class DirectoryLoader extends AsynchronousAssetLoader<AssetDirectory.Inde
                 parser.processNext( manager, keys );
             }
         }
+        Trace.get().end( "parse directory" );
     }
 
     /**
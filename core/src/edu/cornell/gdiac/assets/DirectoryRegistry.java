@@ -0,0 +1,454 @@
+/*
+ * DirectoryRegistry.java
+ *
+ * This module provides a shared registry of asset directories.  Many screens in a game
+ * use the same asset directory (e.g. several menus built from the same JSON file).  If
+ * each screen creates its own AssetDirectory, the same images are decoded and uploaded
+ * once per screen.  This registry makes sure that each directory is loaded only once
+ * and is shared by everyone who needs it.
+ *
+ * Directories are reference counted.  They are loaded asynchronously when first
+ * acquired.  When the last reference is released, a directory is kept around in case
+ * it is needed again, and is only unloaded when the registry goes over its memory
+ * budget (least recently used first).
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.*;
+
+/**
+ * This class provides a singleton for sharing {@link AssetDirectory} objects.
+ *
+ * Directories are keyed by their JSON file.  The first call to {@link #acquire} starts
+ * loading the directory in the background.  Loading is advanced by {@link #update},
+ * which should be called once per animation frame with a time budget (just like
+ * {@link AssetDirectory#update(int)}).  Listeners are notified of progress and when
+ * the directory is ready to use.
+ *
+ * Every call to {@link #acquire} or {@link #obtain} must be paired with a call to
+ * {@link #release}.  When the reference count of a directory reaches zero, it becomes
+ * idle.  Idle directories stay loaded until the (estimated) texture memory of the
+ * registry exceeds the memory budget.  At that point the least recently used idle
+ * directories have all of their assets unloaded and are disposed.  Directories with
+ * active references are never evicted, even if they go over budget.
+ *
+ * Like {@link AssetDirectory}, this class must only be used on the main thread.
+ */
+public class DirectoryRegistry {
+    /**
+     * The interface for a callback invoked as a directory loads.
+     */
+    public interface LoadListener {
+        /**
+         * Called when the given directory has made progress loading.
+         *
+         * @param file      The directory file name
+         * @param progress  The progress in percent of completion
+         */
+        public void onProgress(String file, float progress);
+
+        /**
+         * Called when the given directory has finished loading.
+         *
+         * If the directory was already loaded when the listener was attached, this
+         * method is called immediately.
+         *
+         * @param file      The directory file name
+         * @param directory The loaded asset directory
+         */
+        public void onLoaded(String file, AssetDirectory directory);
+    }
+
+    /**
+     * This class represents a shared directory and its reference count.
+     */
+    private static class Entry {
+        /** The shared asset directory */
+        AssetDirectory directory;
+        /** The number of active references to this directory */
+        int references;
+        /** Whether the directory has finished loading */
+        boolean loaded;
+        /** The estimated texture memory of this directory in bytes */
+        long memory;
+        /** The time stamp of the last use (for least recently used eviction) */
+        long lastUsed;
+        /** The listeners waiting on this directory */
+        Array<LoadListener> listeners = new Array<LoadListener>();
+    }
+
+    /** The default memory budget (in bytes) */
+    public static final long DEFAULT_BUDGET = 256L*1024*1024;
+    /** The estimated size of a texel (textures are assumed to be RGBA8888) */
+    private static final int BYTES_PER_TEXEL = 4;
+
+    /** The singleton instance of this registry */
+    private static DirectoryRegistry instance = null;
+    /** The shared directories, keyed by JSON file */
+    private final ObjectMap<String, Entry> entries = new ObjectMap<String, Entry>();
+    /** The memory budget for texture memory in bytes */
+    private long budget = DEFAULT_BUDGET;
+    /** The logical clock for least recently used eviction */
+    private long clock;
+    /** Scratch space for collecting the textures of a directory */
+    private final Array<Texture> textures = new Array<Texture>();
+    /** Scratch space for the directories that finished loading this update */
+    private final Array<String> finished = new Array<String>();
+    /** Scratch space for the directories that are still loading this update */
+    private final Array<Entry> pending = new Array<Entry>();
+
+    /**
+     * Creates a new, empty directory registry.
+     */
+    private DirectoryRegistry() { }
+
+    /**
+     * Returns the singleton directory registry.
+     *
+     * There is only one registry, so the constructor is not public.  Use this
+     * method to access it.
+     *
+     * @return the singleton directory registry.
+     */
+    public static DirectoryRegistry get() {
+        if (instance == null) {
+            instance = new DirectoryRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Disposes the singleton directory registry.
+     *
+     * All directories in the registry are unloaded, regardless of their reference
+     * count. This method should only be called near the end of the application.
+     */
+    public static void dispose() {
+        if (instance != null) {
+            instance.clear();
+            instance = null;
+        }
+    }
+
+    /**
+     * Acquires a reference to the directory for the given JSON file.
+     *
+     * If this is the first reference, the directory starts loading in the background.
+     * The directory returned may not be loaded yet, so you should not access any
+     * entries until {@link #isLoaded} is true.
+     *
+     * @param file  The directory file name
+     *
+     * @return the (possibly still loading) directory for the given file
+     */
+    public AssetDirectory acquire(String file) {
+        return acquire( file, null );
+    }
+
+    /**
+     * Acquires a reference to the directory for the given JSON file.
+     *
+     * If this is the first reference, the directory starts loading in the background.
+     * The listener (if not null) is notified as the directory loads. If the directory
+     * is already loaded, the listener is notified immediately.
+     *
+     * @param file      The directory file name
+     * @param listener  The listener to notify (may be null)
+     *
+     * @return the (possibly still loading) directory for the given file
+     */
+    public AssetDirectory acquire(String file, LoadListener listener) {
+        Entry entry = fetch( file );
+        entry.references++;
+
+        if (listener != null) {
+            if (entry.loaded) {
+                listener.onProgress( file, 1.0f );
+                listener.onLoaded( file, entry.directory );
+            } else {
+                entry.listeners.add( listener );
+            }
+        }
+        return entry.directory;
+    }
+
+    /**
+     * Acquires a reference to the directory for the given JSON file, ready to use.
+     *
+     * If the directory has not finished loading, this method will block until it
+     * does.  If the directory was acquired earlier (e.g. during a loading screen),
+     * this method returns immediately.
+     *
+     * @param file  The directory file name
+     *
+     * @return the loaded directory for the given file
+     */
+    public AssetDirectory obtain(String file) {
+        AssetDirectory directory = acquire( file );
+        Entry entry = entries.get( file );
+        if (!entry.loaded) {
+            directory.finishLoading();
+            complete( file, entry );
+            trim();
+        }
+        return directory;
+    }
+
+    /**
+     * Starts loading the directory for the given JSON file without acquiring it.
+     *
+     * The directory is loaded in the background as an idle directory.  This is useful
+     * when we can guess that a directory will be needed soon (e.g. when the player
+     * hovers over a menu button).  A later call to {@link #obtain} will then not block.
+     * As with any idle directory, it may be evicted if the registry is over budget.
+     *
+     * @param file  The directory file name
+     */
+    public void prefetch(String file) {
+        fetch( file );
+    }
+
+    /**
+     * Releases a reference to the directory for the given JSON file.
+     *
+     * When the last reference is released, the directory becomes idle.  It will stay
+     * loaded until the registry needs to make room for other directories.
+     *
+     * @param file  The directory file name
+     *
+     * @throws GdxRuntimeException if the directory has no active references
+     */
+    public void release(String file) {
+        Entry entry = entries.get( file );
+        if (entry == null || entry.references <= 0) {
+            throw new GdxRuntimeException( String.format( "Directory '%s' is not active.", file ) );
+        }
+        entry.references--;
+        entry.lastUsed = ++clock;
+        if (entry.references == 0) {
+            entry.listeners.clear();
+            trim();
+        }
+    }
+
+    /**
+     * Returns the memory budget of this registry in bytes.
+     *
+     * The budget applies to the estimated texture memory of all loaded directories.
+     * If the budget is exceeded, idle directories are evicted.
+     *
+     * @return the memory budget of this registry in bytes.
+     */
+    public long getMemoryBudget() {
+        return budget;
+    }
+
+    /**
+     * Sets the memory budget of this registry in bytes.
+     *
+     * The budget applies to the estimated texture memory of all loaded directories.
+     * If the budget is exceeded, idle directories are evicted.
+     *
+     * @param bytes the memory budget of this registry in bytes.
+     */
+    public void setMemoryBudget(long bytes) {
+        budget = bytes;
+        trim();
+    }
+
+    /**
+     * Returns the estimated texture memory of all loaded directories in bytes.
+     *
+     * @return the estimated texture memory of all loaded directories in bytes.
+     */
+    public long getMemoryUsage() {
+        long total = 0;
+        for (Entry entry : entries.values()) {
+            total += entry.memory;
+        }
+        return total;
+    }
+
+    /**
+     * Evicts idle directories until the registry is within its memory budget.
+     *
+     * Directories are evicted least recently used first.  Directories that are still
+     * loading or that have active references are never evicted.
+     */
+    public void trim() {
+        long usage = getMemoryUsage();
+        while (usage > budget) {
+            String victim = null;
+            Entry oldest = null;
+            for (ObjectMap.Entry<String, Entry> item : entries.entries()) {
+                Entry entry = item.value;
+                if (entry.references == 0 && entry.loaded && (oldest == null || entry.lastUsed < oldest.lastUsed)) {
+                    victim = item.key;
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            entries.remove( victim );
+            usage -= oldest.memory;
+            oldest.directory.unloadAssets();
+            oldest.directory.dispose();
+        }
+    }
+
+    /**
+     * Returns true if the directory for the given JSON file is loaded.
+     *
+     * @param file  The directory file name
+     *
+     * @return true if the directory for the given JSON file is loaded.
+     */
+    public boolean isLoaded(String file) {
+        Entry entry = entries.get( file );
+        return entry != null && entry.loaded;
+    }
+
+    /**
+     * Returns the number of active references to the given directory.
+     *
+     * @param file  The directory file name
+     *
+     * @return the number of active references to the given directory.
+     */
+    public int getReferences(String file) {
+        Entry entry = entries.get( file );
+        return entry == null ? 0 : entry.references;
+    }
+
+    /**
+     * Returns the combined progress in percent of completion of all directories.
+     *
+     * @return the combined progress in percent of completion of all directories.
+     */
+    public float getProgress() {
+        if (entries.size == 0) {
+            return 1.0f;
+        }
+        float total = 0;
+        for (Entry entry : entries.values()) {
+            total += entry.loaded ? 1.0f : entry.directory.getProgress();
+        }
+        return total/entries.size;
+    }
+
+    /**
+     * Advances the loading of all directories in the registry.
+     *
+     * This method spends at most the given number of milliseconds loading assets
+     * (though a single asset may overrun the budget).  It notifies listeners of any
+     * progress, and of any directories that finished loading.
+     *
+     * @param millis    The loading budget in milliseconds
+     *
+     * @return true if all directories are loaded
+     */
+    public boolean update(int millis) {
+        boolean done = true;
+        long deadline = TimeUtils.millis()+millis;
+        for (ObjectMap.Entry<String, Entry> item : entries.entries()) {
+            Entry entry = item.value;
+            if (entry.loaded) {
+                continue;
+            }
+
+            int remaining = (int)(deadline-TimeUtils.millis());
+            if (remaining > 0 && entry.directory.update( remaining )) {
+                finished.add( item.key );
+            } else {
+                done = false;
+            }
+        }
+
+        // Notify outside of the loop, as listeners may acquire or release directories
+        for (Entry entry : entries.values()) {
+            if (!entry.loaded) {
+                pending.add( entry );
+            }
+        }
+        for (String file : finished) {
+            Entry entry = entries.get( file );
+            pending.removeValue( entry, true );
+            complete( file, entry );
+        }
+        for (Entry entry : pending) {
+            for (LoadListener listener : entry.listeners) {
+                listener.onProgress( entry.directory.getDirectory(), entry.directory.getProgress() );
+            }
+        }
+        if (finished.size > 0) {
+            trim();
+        }
+        finished.clear();
+        pending.clear();
+        return done;
+    }
+
+    /**
+     * Unloads and disposes all directories in the registry.
+     */
+    public void clear() {
+        for (Entry entry : entries.values()) {
+            entry.listeners.clear();
+            if (!entry.loaded) {
+                entry.directory.finishLoading();
+            }
+            entry.directory.unloadAssets();
+            entry.directory.dispose();
+        }
+        entries.clear();
+    }
+
+    /**
+     * Returns the registry entry for the given file, creating it if necessary.
+     *
+     * A new entry starts loading immediately.  In either case the entry is marked
+     * as most recently used.
+     *
+     * @param file  The directory file name
+     *
+     * @return the registry entry for the given file
+     */
+    private Entry fetch(String file) {
+        Entry entry = entries.get( file );
+        if (entry == null) {
+            entry = new Entry();
+            entry.directory = new AssetDirectory( file );
+            entry.directory.loadAssets();
+            entries.put( file, entry );
+        }
+        entry.lastUsed = ++clock;
+        return entry;
+    }
+
+    /**
+     * Marks a directory as loaded and notifies its listeners.
+     *
+     * This also measures the directory.  It does not evict any directories, so the
+     * caller should call {@link #trim} afterwards.
+     *
+     * @param file  The directory file name
+     * @param entry The registry entry
+     */
+    private void complete(String file, Entry entry) {
+        entry.loaded = true;
+        entry.memory = 0;
+        entry.directory.getAll( Texture.class, textures );
+        for (Texture texture : textures) {
+            entry.memory += (long)texture.getWidth()*texture.getHeight()*BYTES_PER_TEXEL;
+        }
+        textures.clear();
+
+        for (LoadListener listener : entry.listeners) {
+            listener.onProgress( file, 1.0f );
+            listener.onLoaded( file, entry.directory );
+        }
+        entry.listeners.clear();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * ParticleEffectParser.java
+ *
+ * This is an interface for parsing a JSON entry into a ParticleEffect asset. A particle
+ * effect is an emitter definition file plus the images it refers to.  The effect is
+ * loaded once, and is meant to be used as a prototype for pooled copies.
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.ParticleEffectLoader;
+import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * This class parses a JSON entry into a {@link ParticleEffect}.
+ *
+ * An effect may be specified by simply giving the name of the emitter file.  In that
+ * case, the images are loaded from the same directory as the emitter file.  Otherwise,
+ * the entry is an object with the emitter "file" and an optional "images" directory.
+ */
+public class ParticleEffectParser implements AssetParser<ParticleEffect> {
+    /** The current effect entry in the JSON directory */
+    private JsonValue root;
+
+    /**
+     * Returns the asset type generated by this parser
+     *
+     * @return the asset type generated by this parser
+     */
+    public Class<ParticleEffect> getType() {
+        return ParticleEffect.class;
+    }
+
+    /**
+     * Resets the parser iterator for the given directory.
+     *
+     * The value directory is assumed to be the root of a larger JSON structure.
+     * The individual assets are defined by subtrees in this structure.
+     *
+     * @param directory    The JSON representation of the asset directory
+     */
+    public void reset(JsonValue directory) {
+        root = directory;
+        root = root.getChild( "particles" );
+    }
+
+    /**
+     * Returns true if there are still assets left to generate
+     *
+     * @return true if there are still assets left to generate
+     */
+    public boolean hasNext() {
+        return root != null;
+    }
+
+    /**
+     * Processes the next available particle effect, loading it into the asset manager
+     *
+     * This method fails silently if there are no available assets to process.
+     *
+     * @param manager    The asset manager to load an asset
+     * @param keymap    The mapping of JSON keys to asset file names
+     */
+    public void processNext(AssetManager manager, ObjectMap<String,String> keymap) {
+        String file;
+        ParticleEffectLoader.ParticleEffectParameter params = null;
+        if (root.isString()) {
+            file = root.asString();
+        } else {
+            file = root.getString( "file", null );
+            String images = root.getString( "images", null );
+            if (images != null) {
+                params = new ParticleEffectLoader.ParticleEffectParameter();
+                params.imagesDir = Gdx.files.internal( images );
+            }
+        }
+        if (file != null) {
+            keymap.put( root.name(), file );
+            manager.load( file, ParticleEffect.class, params );
+        }
+        root = root.next();
+    }
+
+    /**
+     * Returns true if o is another ParticleEffectParser
+     *
+     * @return true if o is another ParticleEffectParser
+     */
+    public boolean equals(Object o) {
+        return o instanceof ParticleEffectParser;
+    }
+
+}
@@ -0,0 +1,228 @@
+/*
+ * PixmapDecoder.java
+ *
+ * An AssetManager processes one asset at a time.  Even though image decoding happens
+ * off the main thread, only one image is ever decoded at once.  For a directory with
+ * hundreds of large PNG files, that leaves most of the cores on the machine idle.
+ *
+ * This class decodes images on a pool of worker threads as soon as they are queued
+ * in the asset manager.  By the time the asset manager gets around to an image, its
+ * pixels are (hopefully) already decoded, and all that is left is the GL upload on
+ * the main thread.
+ *
+ * Decoding ahead costs memory, as every decoded pixmap stays in memory until it is
+ * uploaded.  So each decoder only runs a small window ahead of the asset manager, and
+ * the rest of the images wait their turn.
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import edu.cornell.gdiac.util.Trace;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.*;
+
+/**
+ * This class decodes {@link Pixmap} objects on a shared pool of worker threads.
+ *
+ * Each asset directory has its own decoder, but all decoders share the same worker
+ * pool, which has one thread per available core (less one for the main thread).
+ * Images are decoded in the order they are submitted, which is also the order the
+ * asset manager loads them in.
+ *
+ * At most {@link #DECODE_AHEAD} images per decoder are decoded (or decoding) and not
+ * yet taken.  The other submitted images are queued until one is taken.
+ *
+ * A decoder owns any pixmap that has been decoded but not yet taken.  These are
+ * disposed when the decoder is cleared.
+ */
+public class PixmapDecoder implements Disposable {
+    /** The most images a decoder may hold decoded (or decoding) before they are taken */
+    public static final int DECODE_AHEAD = 4;
+
+    /** The shared worker pool (created on first use) */
+    private static ExecutorService workers;
+
+    /** An image waiting for a place in the decode window */
+    private static class Request {
+        /** The image file */
+        final FileHandle file;
+        /** The desired pixmap format (may be null) */
+        final Pixmap.Format format;
+
+        Request(FileHandle file, Pixmap.Format format) {
+            this.file = file;
+            this.format = format;
+        }
+    }
+
+    /** The images waiting for a place in the decode window, in submission order */
+    private final LinkedHashMap<String, Request> backlog = new LinkedHashMap<String, Request>();
+    /** The decodes in the window, keyed by file path */
+    private final ConcurrentHashMap<String, Future<Pixmap>> pending = new ConcurrentHashMap<String, Future<Pixmap>>();
+
+    /**
+     * Returns the shared worker pool, creating it if necessary.
+     *
+     * @return the shared worker pool
+     */
+    private static synchronized ExecutorService getWorkers() {
+        if (workers == null) {
+            int threads = Math.max( 1, Runtime.getRuntime().availableProcessors()-1 );
+            workers = Executors.newFixedThreadPool( threads, new ThreadFactory() {
+                private int count = 0;
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread( r, "PixmapDecoder-" + (count++) );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        }
+        return workers;
+    }
+
+    /**
+     * Returns true if this decoder can decode the given file.
+     *
+     * Compressed texture formats (such as ETC1 or KTX) are not decoded into pixmaps,
+     * so they are left to the default loader.
+     *
+     * @param file  The image file
+     *
+     * @return true if this decoder can decode the given file.
+     */
+    public static boolean canDecode(FileHandle file) {
+        String ext = file.extension().toLowerCase();
+        return ext.equals( "png" ) || ext.equals( "jpg" ) || ext.equals( "jpeg" ) || ext.equals( "bmp" );
+    }
+
+    /**
+     * Queues the given image file for decoding on a worker thread.
+     *
+     * If format is not null, the pixmap is converted to that format on the worker as
+     * well.  Submitting a file that is already queued does nothing.  The decode starts
+     * once there is a place in the decode window.
+     *
+     * @param file      The image file
+     * @param format    The desired pixmap format (may be null)
+     */
+    public synchronized void submit(FileHandle file, Pixmap.Format format) {
+        String path = file.path();
+        if (pending.containsKey( path ) || backlog.containsKey( path ) || !canDecode( file )) {
+            return;
+        }
+        backlog.put( path, new Request( file, format ) );
+        pump();
+    }
+
+    /**
+     * Starts decoding queued images until the decode window is full.
+     */
+    private synchronized void pump() {
+        Iterator<Request> it = backlog.values().iterator();
+        while (pending.size() < DECODE_AHEAD && it.hasNext()) {
+            Request request = it.next();
+            it.remove();
+            pending.put( request.file.path(), getWorkers().submit( decode( request.file, request.format ) ) );
+        }
+    }
+
+    /**
+     * Returns a task to decode the given image file
+     *
+     * @param file      The image file
+     * @param format    The desired pixmap format (may be null)
+     *
+     * @return a task to decode the given image file
+     */
+    private static Callable<Pixmap> decode(final FileHandle file, final Pixmap.Format format) {
+        return new Callable<Pixmap>() {
+            @Override
+            public Pixmap call() {
+                Trace.get().begin( "decode image", file.path() );
+                try {
+                    Pixmap pixmap = new Pixmap( file );
+                    if (format != null && pixmap.getFormat() != format) {
+                        Pixmap converted = new Pixmap( pixmap.getWidth(), pixmap.getHeight(), format );
+                        converted.setBlending( Pixmap.Blending.None );
+                        converted.drawPixmap( pixmap, 0, 0 );
+                        pixmap.dispose();
+                        pixmap = converted;
+                    }
+                    return pixmap;
+                } finally {
+                    Trace.get().end( "decode image" );
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the decoded pixmap for the given file, waiting if necessary.
+     *
+     * Ownership of the pixmap passes to the caller, which should dispose it as soon as
+     * it is uploaded.  Taking a pixmap frees its place in the decode window.
+     *
+     * If the file was never submitted, or is still waiting for a place in the window,
+     * this method returns null and the caller should decode the file itself.  So the
+     * caller never waits on a decode that has not started.
+     *
+     * @param file  The image file
+     *
+     * @return the decoded pixmap for the given file (or null if not decoding)
+     */
+    public Pixmap take(FileHandle file) {
+        Future<Pixmap> task;
+        synchronized (this) {
+            if (backlog.remove( file.path() ) != null) {
+                return null;
+            }
+            task = pending.remove( file.path() );
+            if (task == null) {
+                return null;
+            }
+            pump();
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GdxRuntimeException( "Interrupted while decoding " + file, e );
+        } catch (ExecutionException e) {
+            throw new GdxRuntimeException( "Couldn't decode " + file, e.getCause() );
+        }
+    }
+
+    /**
+     * Discards all pending decodes, disposing any pixmaps that were never taken.
+     */
+    public synchronized void clear() {
+        backlog.clear();
+        Iterator<Future<Pixmap>> it = pending.values().iterator();
+        while (it.hasNext()) {
+            Future<Pixmap> task = it.next();
+            it.remove();
+            if (!task.cancel( false )) {
+                try {
+                    task.get().dispose();
+                } catch (Exception e) {
+                    // The decode failed, so there is nothing to dispose
+                }
+            }
+        }
+    }
+
+    /**
+     * Disposes this decoder, discarding all pending decodes.
+     */
+    @Override
+    public void dispose() {
+        clear();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * PixmapTextureLoader.java
+ *
+ * This is a replacement for the default texture loader that takes its pixels from a
+ * PixmapDecoder.  The decoder works on a pool of threads, so the asynchronous part of
+ * this loader usually has nothing left to do.  The synchronous part (the GL upload) is
+ * the same as the default loader, and is still limited by the asset manager budget.
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.assets.*;
+import com.badlogic.gdx.assets.loaders.*;
+import com.badlogic.gdx.assets.loaders.resolvers.*;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.util.Trace;
+
+/**
+ * This class is an {@link AssetLoader} to load {@link Texture} assets from decoded pixmaps.
+ *
+ * This loader uses the same parameters as {@link TextureLoader}.  If the file was
+ * submitted to the {@link PixmapDecoder}, the decoded pixmap is used.  Otherwise, the
+ * file is decoded exactly as {@link TextureLoader} would.
+ */
+public class PixmapTextureLoader extends AsynchronousAssetLoader<Texture, TextureLoader.TextureParameter> {
+    /** The decoder providing the pixmaps */
+    protected PixmapDecoder decoder;
+    /** The asynchronously prepared texture data */
+    private TextureData cachedData;
+
+    /**
+     * Creates a new PixmapTextureLoader with an internal file resolver
+     *
+     * @param decoder   The decoder providing the pixmaps
+     */
+    public PixmapTextureLoader(PixmapDecoder decoder) {
+        this( new InternalFileHandleResolver(), decoder );
+    }
+
+    /**
+     * Creates a new PixmapTextureLoader with the given file resolver
+     *
+     * @param resolver  The file resolver
+     * @param decoder   The decoder providing the pixmaps
+     */
+    public PixmapTextureLoader(FileHandleResolver resolver, PixmapDecoder decoder) {
+        super( resolver );
+        this.decoder = decoder;
+    }
+
+    /**
+     * Loads thread-safe part of the asset and injects any dependencies into the AssetManager.
+     *
+     * This is used to load non-OpenGL parts of the asset that do not require the context
+     * of the main thread.
+     *
+     * @param manager   The asset manager
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params    The parameters to use for loading the asset
+     */
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, TextureLoader.TextureParameter params) {
+        Trace.get().begin( "prepare texture", fileName );
+        if (params != null && params.textureData != null) {
+            cachedData = params.textureData;
+        } else {
+            Pixmap.Format format = params == null ? null : params.format;
+            boolean mipmaps = params != null && params.genMipMaps;
+            Pixmap pixmap = decoder.take( file );
+            if (pixmap != null) {
+                // The texture data disposes the pixmap as soon as it is uploaded
+                cachedData = new PixmapTextureData( pixmap, format, mipmaps, true );
+            } else {
+                cachedData = TextureData.Factory.loadFromFile( file, format, mipmaps );
+            }
+        }
+        if (!cachedData.isPrepared()) {
+            cachedData.prepare();
+        }
+        Trace.get().end( "prepare texture" );
+    }
+
+    /**
+     * Loads the main thread part of the asset.
+     *
+     * This is used to load OpenGL parts of the asset that require the context of the
+     * main thread.
+     *
+     * @param manager   The asset manager
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params    The parameters to use for loading the asset
+     */
+    @Override
+    public Texture loadSync(AssetManager manager, String fileName, FileHandle file, TextureLoader.TextureParameter params) {
+        TextureData data = cachedData;
+        cachedData = null;
+        if (data == null) {
+            return null;
+        }
+
+        Trace.get().begin( "upload texture", fileName );
+        Texture texture = params == null ? null : params.texture;
+        if (texture != null) {
+            texture.load( data );
+        } else {
+            texture = new Texture( data );
+        }
+        Trace.get().end( "upload texture" );
+        if (params != null) {
+            texture.setFilter( params.minFilter, params.magFilter );
+            texture.setWrap( params.wrapU, params.wrapV );
+        }
+        return texture;
+    }
+
+    /**
+     * Returns the other assets this asset requires to be loaded first.
+     *
+     * Textures have no dependencies.
+     *
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params parameters for loading the asset
+     *
+     * @return null, as textures have no dependencies
+     */
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, TextureLoader.TextureParameter params) {
+        return null;
+    }
+}
@@ -11,8 +11,10 @@
  */
 package edu.cornell.gdiac.assets;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.utils.JsonValue;
@@ -27,11 +29,44 @@ import com.badlogic.gdx.utils.ObjectMap;
  * used on loading.
  * 
  * all properties) are stored in the file.
+ *
+ * If the GPU supports S3TC compression, an image with a block compressed KTX file
+ * beside it (made by the desktop TextureCompressor build step) is loaded from that
+ * file instead.  The texture takes a quarter or an eighth of the video memory, and
+ * the image never has to be decoded.  Without the KTX file (as in development runs),
+ * or without GPU support, the image itself is loaded as before.
  */
 public class TextureParser implements AssetParser<Texture> {
+    /** The extension for S3TC compressed textures */
+    private static final String S3TC_EXTENSION = "GL_EXT_texture_compression_s3tc";
+    /** The file extension of compressed textures */
+    private static final String KTX_SUFFIX = ".ktx";
+
+    /** Whether the GPU can use compressed textures (set by {@link #probeCompression}) */
+    private static volatile boolean compression = false;
+
     /** The current font entry in the JSON directory */
     private JsonValue root;
 
+    /**
+     * Checks whether the GPU supports compressed textures.
+     *
+     * Parsers run on the asset thread, which has no GL context, so this must be called
+     * on the GL thread before any textures are parsed.
+     */
+    public static void probeCompression() {
+        compression = Gdx.graphics != null && Gdx.graphics.supportsExtension( S3TC_EXTENSION );
+    }
+
+    /**
+     * Returns true if textures may be loaded from compressed files
+     *
+     * @return true if textures may be loaded from compressed files
+     */
+    public static boolean hasCompression() {
+        return compression;
+    }
+
     /**
      * Returns the asset type generated by this parser
      *
@@ -87,7 +122,7 @@ public class TextureParser implements AssetParser<Texture> {
             params.wrapU = Texture.TextureWrap.ClampToEdge;
             params.wrapV = Texture.TextureWrap.ClampToEdge;
             params.format = Pixmap.Format.RGBA8888;
-            String file = root.asString();
+            String file = resolve( manager, root.asString(), params );
             keymap.put(root.name(),file);
             manager.load( file,Texture.class, params );
 		} else {
@@ -99,6 +134,7 @@ public class TextureParser implements AssetParser<Texture> {
             params.format = root.getBoolean( "alpha",true ) ? Pixmap.Format.RGBA8888 : Pixmap.Format.RGB888;
             String file = root.getString( "file", null );
             if (file != null) {
+                file = resolve( manager, file, params );
                 keymap.put(root.name(),file);
                 manager.load( file,Texture.class, params );
             }
@@ -106,6 +142,29 @@ public class TextureParser implements AssetParser<Texture> {
         root = root.next();
     }
 
+    /**
+     * Returns the file to load the given texture from
+     *
+     * This is the compressed KTX file beside the image if there is one and the GPU can
+     * use it.  Compressed files have no mipmaps, so textures that need them always use
+     * the image.
+     *
+     * @param manager   The asset manager to load an asset
+     * @param file      The image file name
+     * @param params    The texture parameters
+     *
+     * @return the file to load the given texture from
+     */
+    private static String resolve(AssetManager manager, String file, TextureLoader.TextureParameter params) {
+        if (!compression || params.genMipMaps) {
+            return file;
+        }
+        int dot = file.lastIndexOf( '.' );
+        String ktx = (dot < 0 ? file : file.substring( 0, dot ))+KTX_SUFFIX;
+        FileHandle handle = manager.getFileHandleResolver().resolve( ktx );
+        return handle != null && handle.exists() ? ktx : file;
+    }
+
     /**
      * Returns true if o is another TextureParser
      *
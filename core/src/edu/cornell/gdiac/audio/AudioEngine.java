@@ -38,6 +38,17 @@ public interface AudioEngine extends Audio {
      * {@link MusicBuffer}, and {@link AudioDevice}.
      */
     public int getCapacity();
+
+    /**
+     * Returns the health statistics for this audio engine.
+     *
+     * These statistics include buffer underruns and queue depth per source, decode 
+     * time per refill, active voices, and decode throughput. Collection is disabled
+     * by default; call {@link AudioMetrics#setEnabled} to turn it on.
+     *
+     * @return the health statistics for this audio engine.
+     */
+    public AudioMetrics getMetrics();
     
     /**
      * Creates a new {#link AudioSource} from the given file.
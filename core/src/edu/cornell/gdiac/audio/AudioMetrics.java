@@ -0,0 +1,341 @@
+/*
+ * AudioMetrics.java
+ *
+ * This class collects health statistics for an audio engine. It is meant to answer the
+ * question of whether an audio stutter comes from buffer starvation (the device ran out
+ * of queued data) or from decode cost (refilling a buffer took too long).
+ *
+ * The engine writes to this object from the main thread in its update loop.  The values
+ * are only approximate and are intended for debug overlays and benchmark logs.
+ */
+package edu.cornell.gdiac.audio;
+
+/**
+ * This class is a collection of health statistics for an {@link AudioEngine}.
+ *
+ * Statistics are tracked per OpenAL source slot (of which there are
+ * {@link AudioEngine#getCapacity()}) and in aggregate. Per-source values are
+ * buffer underruns and queued buffer depth. Aggregate values are active voices,
+ * decode time per buffer refill, and bytes decoded per second.
+ *
+ * Collection is off by default. Timing a decode is cheap, but querying the queue
+ * depth of every source requires a round trip to the audio driver.
+ */
+public class AudioMetrics {
+    /** The length of the window for computing the decode throughput */
+    private static final long WINDOW_NANOS = 1000000000L;
+
+    /** Whether the engine should collect these metrics */
+    private boolean enabled;
+
+    /** The number of simultaneous sources supported by the engine */
+    private int capacity;
+    /** The number of sources currently playing audio */
+    private int activeVoices;
+    /** The largest number of sources playing at once since the last reset */
+    private int peakVoices;
+
+    /** The number of buffer underruns for each source slot */
+    private int[] underruns;
+    /** The number of queued buffers for each source slot */
+    private int[] queued;
+    /** The total number of buffer underruns across all sources */
+    private long totalUnderruns;
+
+    /** The number of streaming buffer refills */
+    private long refills;
+    /** The cumulative time spent decoding refills in nanoseconds */
+    private long decodeNanos;
+    /** The time spent on the most recent refill in nanoseconds */
+    private long lastDecodeNanos;
+    /** The longest refill since the last reset in nanoseconds */
+    private long maxDecodeNanos;
+    /** The time spent decoding sound effects at load time in nanoseconds */
+    private long loadNanos;
+
+    /** The total number of bytes decoded (streamed and loaded) */
+    private long bytesDecoded;
+    /** The decode throughput over the most recent window */
+    private float bytesPerSecond;
+    /** The start of the current throughput window */
+    private long windowStart;
+    /** The number of bytes decoded in the current throughput window */
+    private long windowBytes;
+
+    /**
+     * Creates a new metrics object for an engine with the given capacity.
+     *
+     * @param capacity  The number of simultaneous sources in the engine
+     */
+    public AudioMetrics(int capacity) {
+        this.capacity = capacity;
+        underruns = new int[capacity];
+        queued = new int[capacity];
+        windowStart = System.nanoTime();
+    }
+
+    /**
+     * Returns true if the engine is collecting these metrics.
+     *
+     * @return true if the engine is collecting these metrics.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the engine is collecting these metrics.
+     *
+     * Enabling collection resets all previous values.
+     *
+     * @param value whether the engine is collecting these metrics.
+     */
+    public void setEnabled(boolean value) {
+        if (value && !enabled) {
+            reset();
+        }
+        enabled = value;
+    }
+
+    /**
+     * Resets all of the statistics to zero.
+     */
+    public void reset() {
+        activeVoices = 0;
+        peakVoices = 0;
+        for (int ii = 0; ii < capacity; ii++) {
+            underruns[ii] = 0;
+            queued[ii] = 0;
+        }
+        totalUnderruns = 0;
+        refills = 0;
+        decodeNanos = 0;
+        lastDecodeNanos = 0;
+        maxDecodeNanos = 0;
+        loadNanos = 0;
+        bytesDecoded = 0;
+        bytesPerSecond = 0;
+        windowStart = System.nanoTime();
+        windowBytes = 0;
+    }
+
+    // #mark Queries
+    /**
+     * Returns the number of simultaneous sources supported by the engine.
+     *
+     * @return the number of simultaneous sources supported by the engine.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of sources currently playing audio.
+     *
+     * @return the number of sources currently playing audio.
+     */
+    public int getActiveVoices() {
+        return activeVoices;
+    }
+
+    /**
+     * Returns the largest number of sources playing at once since the last reset.
+     *
+     * @return the largest number of sources playing at once since the last reset.
+     */
+    public int getPeakVoices() {
+        return peakVoices;
+    }
+
+    /**
+     * Returns the number of buffer underruns for the given source slot.
+     *
+     * An underrun is when a streaming source runs out of queued data and the audio
+     * device stops it.  The slot is an index between 0 and {@link #getCapacity()}.
+     *
+     * @param slot  The source slot
+     *
+     * @return the number of buffer underruns for the given source slot.
+     */
+    public int getUnderruns(int slot) {
+        return underruns[slot];
+    }
+
+    /**
+     * Returns the total number of buffer underruns across all sources.
+     *
+     * @return the total number of buffer underruns across all sources.
+     */
+    public long getTotalUnderruns() {
+        return totalUnderruns;
+    }
+
+    /**
+     * Returns the number of buffers queued on the given source slot.
+     *
+     * This value is only updated for sources that are currently playing.
+     *
+     * @param slot  The source slot
+     *
+     * @return the number of buffers queued on the given source slot.
+     */
+    public int getQueuedBuffers(int slot) {
+        return queued[slot];
+    }
+
+    /**
+     * Returns the number of streaming buffer refills since the last reset.
+     *
+     * @return the number of streaming buffer refills since the last reset.
+     */
+    public long getRefills() {
+        return refills;
+    }
+
+    /**
+     * Returns the average decode time per buffer refill in milliseconds.
+     *
+     * @return the average decode time per buffer refill in milliseconds.
+     */
+    public float getAverageDecodeMillis() {
+        return refills == 0 ? 0 : decodeNanos/(refills*1000000.0f);
+    }
+
+    /**
+     * Returns the decode time of the most recent buffer refill in milliseconds.
+     *
+     * @return the decode time of the most recent buffer refill in milliseconds.
+     */
+    public float getLastDecodeMillis() {
+        return lastDecodeNanos/1000000.0f;
+    }
+
+    /**
+     * Returns the longest decode time of a buffer refill in milliseconds.
+     *
+     * @return the longest decode time of a buffer refill in milliseconds.
+     */
+    public float getMaxDecodeMillis() {
+        return maxDecodeNanos/1000000.0f;
+    }
+
+    /**
+     * Returns the time spent decoding sound effects at load time in milliseconds.
+     *
+     * @return the time spent decoding sound effects at load time in milliseconds.
+     */
+    public float getLoadDecodeMillis() {
+        return loadNanos/1000000.0f;
+    }
+
+    /**
+     * Returns the total number of bytes decoded since the last reset.
+     *
+     * @return the total number of bytes decoded since the last reset.
+     */
+    public long getBytesDecoded() {
+        return bytesDecoded;
+    }
+
+    /**
+     * Returns the number of bytes decoded per second.
+     *
+     * This value is measured over a one second window, so it lags slightly.
+     *
+     * @return the number of bytes decoded per second.
+     */
+    public float getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    // #mark Recording
+    /**
+     * Records a streaming buffer refill.
+     *
+     * @param bytes The number of bytes decoded
+     * @param nanos The time spent decoding in nanoseconds
+     */
+    public void recordRefill(int bytes, long nanos) {
+        refills++;
+        decodeNanos += nanos;
+        lastDecodeNanos = nanos;
+        if (nanos > maxDecodeNanos) {
+            maxDecodeNanos = nanos;
+        }
+        bytesDecoded += bytes;
+        windowBytes  += bytes;
+    }
+
+    /**
+     * Records the decoding of a sound effect at load time.
+     *
+     * Sound effects are decoded once, so this does not count as a refill.
+     *
+     * @param bytes The number of bytes decoded
+     * @param nanos The time spent decoding in nanoseconds
+     */
+    public void recordLoad(int bytes, long nanos) {
+        loadNanos += nanos;
+        bytesDecoded += bytes;
+        windowBytes  += bytes;
+    }
+
+    /**
+     * Records a buffer underrun on the given source slot.
+     *
+     * @param slot  The source slot
+     */
+    public void recordUnderrun(int slot) {
+        if (slot >= 0 && slot < capacity) {
+            underruns[slot]++;
+        }
+        totalUnderruns++;
+    }
+
+    /**
+     * Records the number of buffers queued on the given source slot.
+     *
+     * @param slot  The source slot
+     * @param depth The number of queued buffers
+     */
+    public void recordQueue(int slot, int depth) {
+        if (slot >= 0 && slot < capacity) {
+            queued[slot] = depth;
+        }
+    }
+
+    /**
+     * Records the number of sources currently playing audio.
+     *
+     * This method also advances the throughput window, so it should be called once
+     * per engine update.
+     *
+     * @param active    The number of sources currently playing audio
+     */
+    public void recordVoices(int active) {
+        activeVoices = active;
+        if (active > peakVoices) {
+            peakVoices = active;
+        }
+
+        long now = System.nanoTime();
+        long elapsed = now-windowStart;
+        if (elapsed >= WINDOW_NANOS) {
+            bytesPerSecond = windowBytes*(WINDOW_NANOS/(float)elapsed);
+            windowBytes = 0;
+            windowStart = now;
+        }
+    }
+
+    /**
+     * Returns a one line summary of these metrics (for debug overlays)
+     *
+     * @return a one line summary of these metrics (for debug overlays)
+     */
+    @Override
+    public String toString() {
+        return String.format("voices %d/%d (peak %d)  underruns %d  decode %.2fms avg %.2fms max  %.0f KB/s",
+                             activeVoices, capacity, peakVoices, totalUnderruns,
+                             getAverageDecodeMillis(), getMaxDecodeMillis(), bytesPerSecond/1024.0f);
+    }
+}
@@ -12,6 +12,8 @@ package edu.cornell.gdiac.audio;
 
 import com.badlogic.gdx.audio.AudioDevice;
 
+import java.nio.ByteBuffer;
+
 /**
  * This class represents a streaming decoder for an audio asset.
  *
@@ -144,6 +146,25 @@ public interface AudioStream {
      */
     public int read(float[] buffer);
     
+    /**
+     * Reads the next page of bytes directly into the given buffer.
+     *
+     * This method decodes straight into the buffer, starting at its current position
+     * and stopping at its limit. The position is advanced by the number of bytes read,
+     * but the buffer is not flipped. This is the preferred way to stream audio, as a 
+     * caller can reuse (or pool) a single direct buffer and hand it to the audio 
+     * device without any intermediate heap arrays.
+     *
+     * Like {@link #read(byte[])}, this method reads raw bytes, which is a platform
+     * specific representation of the audio stream. You should avoid using this 
+     * method unless you know what you are doing.
+     *
+     * @param buffer    The buffer store the audio data
+     *
+     * @return the number of bytes read (<= 0 at the end of the stream)
+     */
+    public int read(ByteBuffer buffer);
+    
     /**
      * Seeks to the given byte position, reading the results into the provided buffer
      *
@@ -222,6 +243,25 @@ public interface AudioStream {
      */
     public int seek(long pos, float[] buffer);
 
+    /**
+     * Seeks to the given byte position, reading the results into the provided buffer
+     *
+     * Provided the position sought is found, the data at that position will be
+     * written to the buffer starting at its current position, which is advanced by
+     * the number of bytes read. The buffer is not flipped. The value returned is the 
+     * number of bytes written to buffer (including this position). So a value of 0 
+     * means that the seek failed.
+     *
+     * This method differs from {@link #seek(long,byte[])} in that it decodes directly
+     * into the buffer, so that no intermediate heap arrays are required.
+     *
+     * @param pos       The position to seek to
+     * @param buffer    The buffer store the audio data
+     *
+     * @return the number of bytes read
+     */
+    public int seek(long pos, ByteBuffer buffer);
+
     /**
      * Resets this audio stream rewinding it to the beginning.
      *
@@ -37,6 +37,8 @@ import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import edu.cornell.gdiac.assets.AssetDirectory;
+import edu.cornell.gdiac.assets.DirectoryRegistry;
+import edu.cornell.gdiac.util.GLResources;
 import edu.cornell.gdiac.util.ScreenListener;
 
 /**
@@ -82,13 +84,11 @@ public class About implements Screen {
 	}
 
 	public About(GameCanvas canvas) {
-		internal = new AssetDirectory( "controls.json" );
-		internal.loadAssets();
-		internal.finishLoading();
+		internal = DirectoryRegistry.get().obtain( "controls.json" );
 
 		table = new Table();
 		camera = new OrthographicCamera(canvas.getWidth(), canvas.getHeight());
-		stage = new Stage(new ScreenViewport(camera));
+		stage = GLResources.get().track(new Stage(new ScreenViewport(camera)));
 		backgroundDrawable = new TextureRegion(internal.getEntry("about_background", Texture.class));
 		arrowDrawable = new TextureRegionDrawable(internal.getEntry("blue_arrow", Texture.class));
 		downArrowDrawable = new TextureRegionDrawable(internal.getEntry("down_arrow", Texture.class));
@@ -136,8 +136,9 @@ public class About implements Screen {
 	 * Called when this screen should release all resources.
 	 */
 	public void dispose() {
-		internal.unloadAssets();
-		internal.dispose();
+		GLResources.get().release(stage);
+		stage.dispose();
+		DirectoryRegistry.get().release( "controls.json" );
 	}
 
 	/**
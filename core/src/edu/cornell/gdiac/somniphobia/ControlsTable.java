@@ -35,6 +35,8 @@ import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import edu.cornell.gdiac.assets.AssetDirectory;
+import edu.cornell.gdiac.assets.DirectoryRegistry;
+import edu.cornell.gdiac.util.GLResources;
 import edu.cornell.gdiac.util.ScreenListener;
 
 /**
@@ -89,11 +91,9 @@ public class ControlsTable implements Screen {
 	}
 
 	public ControlsTable(GameCanvas canvas) {
-		internal = new AssetDirectory( "controls.json" );
-		internal.loadAssets();
-		internal.finishLoading();
+		internal = DirectoryRegistry.get().obtain( "controls.json" );
 
-		stage = new Stage();
+		stage = GLResources.get().track(new Stage());
 		table = new Table();
 		backgroundDrawable = new TextureRegionDrawable(internal.getEntry("background", Texture.class));
 		arrowDrawable = new TextureRegionDrawable(internal.getEntry("blue_arrow", Texture.class));
@@ -170,8 +170,9 @@ public class ControlsTable implements Screen {
 	 * Called when this screen should release all resources.
 	 */
 	public void dispose() {
-		internal.unloadAssets();
-		internal.dispose();
+		GLResources.get().release(stage);
+		stage.dispose();
+		DirectoryRegistry.get().release( "controls.json" );
 	}
 
 	/**
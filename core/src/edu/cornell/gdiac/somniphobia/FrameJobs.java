@@ -0,0 +1,162 @@
+/*
+ * FrameJobs.java
+ *
+ * After each physics step, every obstacle advances its animation and bookkeeping.
+ * This work is independent for each object, and does not touch Box2D, so on a level
+ * with hundreds of animated platforms it can be split across cores.
+ *
+ * This class runs those updates in batches on a shared fork-join pool.  Small worlds
+ * (or single core machines) fall back to a simple sequential loop, since forking is
+ * not free.
+ */
+package edu.cornell.gdiac.somniphobia;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.cornell.gdiac.somniphobia.obstacle.Obstacle;
+
+/**
+ * Class to run the per-object animation updates of a world in parallel.
+ *
+ * The jobs only call {@link Obstacle#animate}, which must not change the Box2D world
+ * or any other object.  Anything that changes a body belongs in {@link Obstacle#update},
+ * which the world controller calls one object at a time after the jobs are done.
+ */
+public class FrameJobs {
+	/** The number of objects in the smallest batch */
+	private static final int BATCH_SIZE = 32;
+	/** The initial capacity of the work array */
+	private static final int INITIAL_CAPACITY = 128;
+
+	/** The shared worker pool (created on first use) */
+	private static ForkJoinPool workers;
+
+	/** Whether to use the worker pool */
+	private boolean parallel;
+	/** The objects to update this frame */
+	private Obstacle[] work;
+	/** The number of objects to update this frame */
+	private int size;
+	/** The time of this frame */
+	private float delta;
+
+	/**
+	 * Returns the shared worker pool, creating it if necessary.
+	 *
+	 * @return the shared worker pool
+	 */
+	private static synchronized ForkJoinPool getWorkers() {
+		if (workers == null) {
+			workers = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		}
+		return workers;
+	}
+
+	/**
+	 * Creates a job system, which is parallel if there is more than one core
+	 */
+	public FrameJobs() {
+		parallel = Runtime.getRuntime().availableProcessors() > 1;
+		work = new Obstacle[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	/**
+	 * Returns true if the updates may run on the worker pool
+	 *
+	 * @return true if the updates may run on the worker pool
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Sets whether the updates may run on the worker pool
+	 *
+	 * If false, every update runs sequentially on the calling thread.
+	 *
+	 * @param value	whether the updates may run on the worker pool
+	 */
+	public void setParallel(boolean value) {
+		parallel = value;
+	}
+
+	/**
+	 * Animates every object in the given list that is not marked for removal.
+	 *
+	 * This returns when all of the objects are done.  If an update throws an exception,
+	 * it is rethrown on the calling thread.
+	 *
+	 * @param objects	The objects to animate
+	 * @param dt		Number of seconds since last animation frame
+	 */
+	public void animate(Iterable<Obstacle> objects, float dt) {
+		size = 0;
+		for(Obstacle obj : objects) {
+			if (!obj.isRemoved()) {
+				if (size == work.length) {
+					Obstacle[] temp = new Obstacle[2*work.length];
+					System.arraycopy(work, 0, temp, 0, size);
+					work = temp;
+				}
+				work[size++] = obj;
+			}
+		}
+		delta = dt;
+
+		if (parallel && size > BATCH_SIZE) {
+			getWorkers().invoke(new Batch(0, size));
+		} else {
+			animate(0, size);
+		}
+
+		for(int ii = 0; ii < size; ii++) {
+			work[ii] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Animates the objects in the given range of the work array
+	 *
+	 * @param start	The first object (inclusive)
+	 * @param end	The last object (exclusive)
+	 */
+	private void animate(int start, int end) {
+		for(int ii = start; ii < end; ii++) {
+			work[ii].animate(delta);
+		}
+	}
+
+	/**
+	 * A range of the work array, split in half until it is a single batch.
+	 */
+	private class Batch extends RecursiveAction {
+		/** The first object (inclusive) */
+		private final int start;
+		/** The last object (exclusive) */
+		private final int end;
+
+		/**
+		 * Creates a job for the given range of the work array
+		 *
+		 * @param start	The first object (inclusive)
+		 * @param end	The last object (exclusive)
+		 */
+		Batch(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end-start <= BATCH_SIZE) {
+				animate(start, end);
+			} else {
+				int middle = (start+end) >>> 1;
+				invokeAll(new Batch(start, middle), new Batch(middle, end));
+			}
+		}
+	}
+}
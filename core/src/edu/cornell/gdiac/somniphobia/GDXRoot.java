@@ -68,9 +68,26 @@ public class GDXRoot extends Game implements ScreenListener {
 	static private final int LEVEL_CONTROLLER_INDEX = 0;
 	static private final int LEVEL_CREATOR_INDEX = 1;
 
+	/** The asset directories shared by the menu screens (loaded while the loading screen is up) */
+	static private final String[] MENU_DIRECTORIES = {
+			"main_screen.json", "world_select.json", "level_select.json", "controls.json"
+	};
+	/** Budget (in milliseconds) for loading menu directories each animation frame */
+	static private final int MENU_LOAD_BUDGET = 4;
+	/** The streaming music tracks (loaded as Music, not decoded up front like sound effects) */
+	static private final String[] MUSIC_TRACKS = {
+			"audio/SomniTrack.mp3", "audio/PhobiaTrack.mp3", "audio/CombinedTrack.mp3", "audio/UITrack.mp3"
+	};
+
 	static private WorldSelect worldSelectMenu;
+	/** The per-world asset bundles (loaded when a world is selected) */
+	static private WorldBundles worldBundles;
+	/** The bundle held for the current level select menu */
+	private String menuBundle;
 	static private MenuScrollable [] menus;
 	static private String[][] levels;
+	/** The level being playtested from the level editor (null if none) */
+	static private JsonValue playLevel;
 //	in the sequence of first row then second row of buttons in the world selector
 	private int [] worldToNumLevels = {5, 7, 8, 2, 4};
 	private boolean [] levelsCompleted;
@@ -97,24 +114,42 @@ public class GDXRoot extends Game implements ScreenListener {
 	 * the asynchronous loader for all other assets.
 	 */
 	public void create() {
+		Trace trace = Trace.get();
+		trace.begin("GDXRoot.create");
+		trace.begin("GameCanvas");
 		canvas  = new GameCanvas();
+		trace.end("GameCanvas");
 		platformController = new PlatformController();
+		trace.begin("LoadingMode");
 		loading = new LoadingMode("assets.json",canvas,1);
-		worldSelectMenu = new WorldSelect(canvas);
+		trace.end("LoadingMode");
+		for (String track : MUSIC_TRACKS) {
+			loading.getAssets().load(track, Music.class);
+		}
 		levelsCompleted = new boolean[totalNumLevels];
 
 		menus = new MenuScrollable[totalNumWorlds];
 		levels = new String[totalNumWorlds][];
 
-		mainMenu = new MainMenu(canvas);
+		// Start decoding the menu screens in the background; they are built once loading is done
+		DirectoryRegistry registry = DirectoryRegistry.get();
+		trace.begin("menu directories");
+		for (String file : MENU_DIRECTORIES) {
+			registry.acquire(file);
+		}
+		trace.end("menu directories");
 
 		// Initialize the Platformer Controller
 		// TODO
 		OrthographicCamera camera = canvas.getCamera();
 
 		controllers = new WorldController[2];
+		trace.begin("LevelController");
 		controllers[LEVEL_CONTROLLER_INDEX] = new LevelController(canvas);
+		trace.end("LevelController");
+		trace.begin("LevelCreator");
 		controllers[LEVEL_CREATOR_INDEX] = new LevelCreator();
+		trace.end("LevelCreator");
 
 		// Constructs a new OrthographicCamera, using the given viewport width and height
 		// Height is multiplied by aspect ratio.
@@ -126,13 +161,52 @@ public class GDXRoot extends Game implements ScreenListener {
 		cam.update();
 
 		Gdx.input.setInputProcessor(loading);
+		Controllers.get().addListener(InputController.getInstance());
 		loading.setScreenListener(this);
 		setScreen(loading);
 
 		preferences = Gdx.app.getPreferences("save_data.json");
-		controlsPage = new Controls(canvas);
-		aboutPage = new About(canvas);
-		controlsPageTwo = new ControlsTable(canvas);
+		SaveData.get().setPreferences(preferences);
+		trace.end("GDXRoot.create");
+	}
+
+	/**
+	 * Called when the Application should render itself.
+	 *
+	 * This advances the background loading of the shared menu directories before
+	 * rendering the current screen.
+	 */
+	public void render() {
+		DirectoryRegistry.get().update(MENU_LOAD_BUDGET);
+		super.render();
+		// Screens may have changed the input processor
+		InputController.getInstance().attach();
+	}
+
+	/**
+	 * Called when the Application is paused.
+	 *
+	 * Held keys are released, as their release events are lost while paused.
+	 */
+	public void pause() {
+		super.pause();
+		InputController.getInstance().release();
+	}
+
+	/**
+	 * Sets the current screen.
+	 *
+	 * Frames spent outside of a level are not attributed to any benchmark section.
+	 * The live GPU resources are reported at each transition (when tracking).
+	 *
+	 * @param screen	The new screen (may be null)
+	 */
+	public void setScreen(Screen screen) {
+		if (!(screen instanceof LevelController)) {
+			FrameStats.get().setSection(null);
+		}
+		GLResources.get().report(screen == null ? "exit" : screen.getClass().getSimpleName());
+		super.setScreen(screen);
 	}
 
 	/** 
@@ -143,13 +217,30 @@ public class GDXRoot extends Game implements ScreenListener {
 	public void dispose() {
 		// Call dispose on our children
 		setScreen(null);
+		Controllers.get().removeListener(InputController.getInstance());
 
 		for(int ii = 0; ii < controllers.length; ii++) {
 			controllers[ii].dispose();
 		}
 
 		canvas.dispose();
-		mainMenu.dispose();
+		if (mainMenu != null) {
+			mainMenu.dispose();
+		}
+		if (worldSelectMenu != null) {
+			worldSelectMenu.dispose();
+			worldSelectMenu = null;
+		}
+		if (controlsPage != null) {
+			controlsPage.dispose();
+			aboutPage.dispose();
+			controlsPageTwo.dispose();
+		}
+		for(int ii = 0; ii < menus.length; ii++) {
+			if (menus[ii] != null) {
+				menus[ii].dispose();
+			}
+		}
 		canvas = null;
 
 		// Unload all of the resources
@@ -158,6 +249,8 @@ public class GDXRoot extends Game implements ScreenListener {
 			directory.dispose();
 			directory = null;
 		}
+		DirectoryRegistry.dispose();
+		SaveData.get().dispose();
 		super.dispose();
 	}
 	
@@ -184,17 +277,64 @@ public class GDXRoot extends Game implements ScreenListener {
 			return false;
 		}
 		lc.setLevel(newLevel);
-		lc.gatherLevelJson(newLevel == 0 ? "playLevel" : levels[worldSelectMenu.currentWorld][newLevel-1]);
+		if (newLevel == 0 && playLevel != null) {
+			lc.setLevelJson("playLevel", playLevel);
+		} else {
+			lc.gatherLevelJson(newLevel == 0 ? "playLevel" : levels[worldSelectMenu.currentWorld][newLevel-1]);
+		}
 		return true;
 	}
 
+	/**
+	 * Sets the level being playtested from the level editor
+	 *
+	 * This level is used for level 0 instead of the copy saved in the preferences.
+	 *
+	 * @param level	The level JSON
+	 */
+	static public void setPlayLevel(JsonValue level) {
+		playLevel = level;
+	}
+
+	/**
+	 * Loads the bundle for the given world and applies its art to the level select menu.
+	 *
+	 * The bundle of the previous world is released, so it may be evicted later if the
+	 * asset registry runs over its memory budget.
+	 *
+	 * @param world	The world index (starting at 0)
+	 */
+	private void prepareLevelSelect(int world) {
+		String bundle = worldBundles.getBundle(world);
+		AssetDirectory art = WorldBundles.swap(menuBundle, bundle);
+		menuBundle = bundle;
+
+		JsonValue worlds = directory.getEntry("worlds", JsonValue.class);
+		JsonValue entry = worlds.get("world" + (world+1));
+		menus[world].setBackground(new TextureRegion(art.getEntry(
+				entry.get("worldMenuBackground").asString(), Texture.class)));
+		menus[world].setDoorImages(new TextureRegionDrawable(art.getEntry(
+				entry.get("worldMenuDoor").asString(), Texture.class)));
+		menus[world].setDoorLockedImage(new TextureRegionDrawable(art.getEntry(
+				entry.get("worldMenuDoorLocked").asString(), Texture.class)));
+	}
+
 	static public Preferences getPreferences() {
 		return preferences;
 	}
 
+	/**
+	 * Sets the preferences and saves them in the background
+	 *
+	 * The write is delayed and coalesced by {@link SaveData}, so this never blocks on
+	 * the disk.
+	 *
+	 * @param prefs	The preferences to save
+	 */
 	static public void setPreferences(Preferences prefs) {
 		preferences = prefs;
-		preferences.flush();
+		SaveData.get().setPreferences(prefs);
+		SaveData.get().save();
 	}
 
 	/**
@@ -218,19 +358,14 @@ public class GDXRoot extends Game implements ScreenListener {
 //		}
 
 		if (screen == loading) {
+			Trace trace = Trace.get();
+			trace.begin("build menus");
 			directory = loading.getAssets();
-			directory.unload("audio/SomniTrack.mp3");
-			directory.load("audio/SomniTrack.mp3", Music.class);
-			directory.unload("audio/PhobiaTrack.mp3");
-			directory.load("audio/PhobiaTrack.mp3", Music.class);
-			directory.unload("audio/CombinedTrack.mp3");
-			directory.load("audio/CombinedTrack.mp3", Music.class);
-			directory.unload("audio/UITrack.mp3");
-			directory.load("audio/UITrack.mp3", Music.class);
-			directory.finishLoading();
 
 			for (int ii = 0; ii < controllers.length; ii++) {
+				trace.begin("gatherAssets");
 				controllers[ii].gatherAssets(directory);
+				trace.end("gatherAssets");
 				//if (ii == LEVEL_CONTROLLER_INDEX) {
 				//	prepareLevelJson(1, false);
 				//}
@@ -241,6 +376,23 @@ public class GDXRoot extends Game implements ScreenListener {
 
 			//load music
 
+			// The menu directories were loaded alongside the game assets, so this does not block
+			trace.begin("MainMenu");
+			mainMenu = new MainMenu(canvas);
+			trace.end("MainMenu");
+			trace.begin("WorldSelect");
+			worldBundles = new WorldBundles(directory.getEntry("worlds", JsonValue.class));
+			worldSelectMenu = new WorldSelect(canvas, worldBundles);
+			trace.end("WorldSelect");
+			trace.begin("Controls");
+			controlsPage = new Controls(canvas);
+			trace.end("Controls");
+			trace.begin("About");
+			aboutPage = new About(canvas);
+			trace.end("About");
+			trace.begin("ControlsTable");
+			controlsPageTwo = new ControlsTable(canvas);
+			trace.end("ControlsTable");
 
 			mainMenu.setScreenListener(this);
 			mainMenu.directory = directory;
@@ -248,33 +400,35 @@ public class GDXRoot extends Game implements ScreenListener {
 
 			// Set up World Select menu
 			JsonValue worlds = directory.getEntry("worlds", JsonValue.class);
+			trace.begin("MenuScrollable");
 			for(int i = 1; i <= menus.length; i++) {
 				JsonValue world = worlds.get("world" + i);
 				String[] levels = world.get("levels").asStringArray();
 				menus[i-1] = new MenuScrollable(canvas, levels.length, levelsCompleted, i-1);
 				this.levels[i-1] = levels;
-				TextureRegion background = new TextureRegion(directory.getEntry(
-						world.get("worldMenuBackground").asString(), Texture.class ));
-				menus[i-1].setBackground(background);
-				TextureRegionDrawable door = new TextureRegionDrawable(directory.getEntry(
-						world.get("worldMenuDoor").asString(), Texture.class ));
-				menus[i-1].setDoorImages(door);
-				TextureRegionDrawable doorLocked = new TextureRegionDrawable(directory.getEntry(
-						world.get("worldMenuDoorLocked").asString(), Texture.class));
-				menus[i-1].setDoorLockedImage(doorLocked);
 			}
+			trace.end("MenuScrollable");
 
 			loading.dispose();
 			loading = null;
+			trace.end("build menus");
+
+			// The main menu is interactive from here, so the startup trace is complete
+			trace.mark("startup complete");
+			trace.stop();
 
 		} else if (exitCode==WorldController.EXIT_MAIN_MENU_ENTER) {
 			mainMenu.setScreenListener(this);
 			setScreen(mainMenu);
 		} else if (exitCode==WorldController.EXIT_WORLD_SELECT_ENTER){
-			worldSelectMenu = new WorldSelect(canvas);
+			// The directory is shared, so the old menu can go without unloading its textures
+			WorldSelect previous = worldSelectMenu;
+			worldSelectMenu = new WorldSelect(canvas, worldBundles);
+			previous.dispose();
 			worldSelectMenu.setScreenListener(this);
 			setScreen(worldSelectMenu);
 		} else if(exitCode==WorldController.EXIT_LEVEL_SELECT_ENTER) {
+			prepareLevelSelect(worldSelectMenu.currentWorld);
 			menus[worldSelectMenu.currentWorld].setScreenListener(this);
 			setScreen(menus[worldSelectMenu.currentWorld]);
 		} else if(exitCode==WorldController.EXIT_NEW_LEVEL) {
@@ -289,6 +443,7 @@ public class GDXRoot extends Game implements ScreenListener {
 				} else {
 					LevelController lc = (LevelController) controllers[current];
 					lc.setGameScreenActive(false);
+					prepareLevelSelect(worldSelectMenu.currentWorld);
 					menus[worldSelectMenu.currentWorld].setScreenListener(this);
 					setScreen(menus[worldSelectMenu.currentWorld]);
 				}
@@ -25,6 +25,7 @@ import com.badlogic.gdx.graphics.glutils.*;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import edu.cornell.gdiac.somniphobia.game.models.CharacterModel;
+import edu.cornell.gdiac.util.GLResources;
 
 /**
  * Primary view class for the game, abstracting the basic graphics calls.
@@ -111,6 +112,11 @@ public class GameCanvas {
 	 */
 	private PolygonSpriteBatch spriteBatch;
 
+	/**
+	 * Drawing context for tiled platforms (one quad per platform)
+	 */
+	private TileBatch tileBatch;
+
 	/**
 	 * Rendering context for the debug outlines
 	 */
@@ -173,7 +179,8 @@ public class GameCanvas {
 	 */
 	public GameCanvas() {
 		active = DrawPass.INACTIVE;
-		spriteBatch = new PolygonSpriteBatch();
+		spriteBatch = GLResources.get().track(new PolygonSpriteBatch());
+		tileBatch = new TileBatch();
 		debugRender = new ShapeRenderer();
 
 		// Set the projection matrix (for proper scaling)
@@ -202,8 +209,11 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot dispose while drawing active", new IllegalStateException());
 			return;
 		}
+		GLResources.get().release(spriteBatch);
 		spriteBatch.dispose();
 		spriteBatch = null;
+		tileBatch.dispose();
+		tileBatch = null;
 		local = null;
 		global = null;
 		vertex = null;
@@ -216,6 +226,7 @@ public class GameCanvas {
 	 * @return the spriteBatch
 	 */
 	public Batch getBatch() {
+		endTiles();
 		return spriteBatch;
 	}
 
@@ -394,6 +405,7 @@ public class GameCanvas {
 		if (state == blend) {
 			return;
 		}
+		endTiles();
 		switch (state) {
 			case NO_PREMULT:
 				spriteBatch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
@@ -473,6 +485,7 @@ public class GameCanvas {
 	 * Ends a drawing sequence, flushing textures to the graphics card.
 	 */
 	public void end() {
+		endTiles();
 		spriteBatch.end();
 		active = DrawPass.INACTIVE;
 	}
@@ -506,9 +519,10 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		// Unlike Lab 1, we can shortcut without a master drawing method
-		spriteBatch.setColor(Color.WHITE);
+		setTint(Color.WHITE);
 		spriteBatch.draw(image, x, y);
 	}
 
@@ -534,9 +548,10 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		// Unlike Lab 1, we can shortcut without a master drawing method
-		spriteBatch.setColor(tint);
+		setTint(tint);
 		spriteBatch.draw(image, x, y, width, height);
 	}
 
@@ -564,6 +579,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		// Call the master drawing method (more efficient that base method)
 		holder.setRegion(image);
@@ -600,6 +616,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		// Call the master drawing method (more efficient that base method)
 		holder.setRegion(image);
@@ -630,6 +647,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		// Call the master drawing method (we have to for transforms)
 		holder.setRegion(image);
@@ -658,9 +676,10 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		// Unlike Lab 1, we can shortcut without a master drawing method
-		spriteBatch.setColor(Color.WHITE);
+		setTint(Color.WHITE);
 		spriteBatch.draw(region, x, y);
 	}
 
@@ -687,9 +706,10 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		// Unlike Lab 1, we can shortcut without a master drawing method
-		spriteBatch.setColor(tint);
+		setTint(tint);
 		spriteBatch.draw(region, x, y, width, height);
 	}
 
@@ -717,9 +737,10 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		// Unlike Lab 1, we can shortcut without a master drawing method
-		spriteBatch.setColor(tint);
+		setTint(tint);
 		spriteBatch.draw(region, x - ox, y - oy, width, height);
 	}
 
@@ -755,12 +776,20 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
+
+		// Most sprites are not rotated, and need no transform at all
+		if (angle == 0) {
+			drawQuad(region, tint, x - ox * sx, y - oy * sy,
+					region.getRegionWidth() * sx, region.getRegionHeight() * sy);
+			return;
+		}
 
 		// BUG: The draw command for texture regions does not work properly.
 		// There is a workaround, but it will break if the bug is fixed.
 		// For now, it is better to set the affine transform directly.
 		computeTransform(ox, oy, x, y, angle, sx, sy);
-		spriteBatch.setColor(tint);
+		setTint(tint);
 		spriteBatch.draw(region, region.getRegionWidth(), region.getRegionHeight(), local);
 	}
 
@@ -788,13 +817,63 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		local.set(affine);
 		local.translate(-ox, -oy);
-		spriteBatch.setColor(tint);
+		setTint(tint);
 		spriteBatch.draw(region, region.getRegionWidth(), region.getRegionHeight(), local);
 	}
 
+	/**
+	 * Draws the tinted region repeated over a rectangle.
+	 * <p>
+	 * The rectangle is drawn as a single quad, no matter how many tiles it has.  The
+	 * region is repeated columns times across and rows times up, and each tile is
+	 * stretched to fit.  The region may be part of a larger texture (such as a film
+	 * strip frame); the tiles wrap inside the region and not the whole texture.
+	 * <p>
+	 * Tiles are drawn by their own batch.  Consecutive tiled draws are sent to the
+	 * graphics card together, and any other draw ends them.
+	 *
+	 * @param region  The texture region to repeat
+	 * @param tint    The color tint
+	 * @param x       The x-coordinate of the rectangle center (on screen)
+	 * @param y       The y-coordinate of the rectangle center (on screen)
+	 * @param width   The rectangle width (on screen)
+	 * @param height  The rectangle height (on screen)
+	 * @param angle   The rotation angle (in radians) about the center.
+	 * @param columns The number of tiles across
+	 * @param rows    The number of tiles up
+	 */
+	public void drawTiled(TextureRegion region, Color tint, float x, float y, float width, float height,
+						  float angle, float columns, float rows) {
+		if (active != DrawPass.STANDARD) {
+			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
+			return;
+		}
+
+		if (!tileBatch.isDrawing()) {
+			// Sprites drawn so far must be underneath the tiles
+			spriteBatch.flush();
+			tileBatch.begin(spriteBatch.getProjectionMatrix(),
+					spriteBatch.getBlendSrcFunc(), spriteBatch.getBlendDstFunc());
+		}
+		tileBatch.draw(region, tint.toFloatBits(), x, y, width, height, angle, columns, rows);
+	}
+
+	/**
+	 * Ends any pending tiled draws, so that the sprite batch may draw again.
+	 * <p>
+	 * The tile batch uses its own shader, so the sprite shader is bound again.
+	 */
+	private void endTiles() {
+		if (tileBatch.isDrawing()) {
+			tileBatch.end();
+			spriteBatch.getShader().bind();
+		}
+	}
+
 	/**
 	 * Draws the polygonal region with the given transformations
 	 * <p>
@@ -820,9 +899,10 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		// Unlike Lab 1, we can shortcut without a master drawing method
-		spriteBatch.setColor(Color.WHITE);
+		setTint(Color.WHITE);
 		spriteBatch.draw(region, x, y);
 	}
 
@@ -854,9 +934,10 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		// Unlike Lab 1, we can shortcut without a master drawing method
-		spriteBatch.setColor(tint);
+		setTint(tint);
 		spriteBatch.draw(region, x, y, width, height);
 	}
 
@@ -890,9 +971,10 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		// Unlike Lab 1, we can shortcut without a master drawing method
-		spriteBatch.setColor(tint);
+		setTint(tint);
 		spriteBatch.draw(region, x - ox, y - oy, width, height);
 	}
 
@@ -928,9 +1010,10 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		TextureRegion bounds = region.getRegion();
-		spriteBatch.setColor(tint);
+		setTint(tint);
 		spriteBatch.draw(region, x, y, ox, oy,
 				bounds.getRegionWidth(), bounds.getRegionHeight(),
 				sx, sy, 180.0f * angle / (float) Math.PI);
@@ -963,12 +1046,13 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		local.set(affine);
 		local.translate(-ox, -oy);
 		computeVertices(local, region.getVertices());
 
-		spriteBatch.setColor(tint);
+		setTint(tint);
 		spriteBatch.draw(region, 0, 0);
 
 		// Invert and restore
@@ -1001,6 +1085,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 		GlyphLayout layout = new GlyphLayout(font, text);
 		font.draw(spriteBatch, layout, x, y);
 	}
@@ -1017,6 +1102,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		GlyphLayout layout = new GlyphLayout(font, text);
 		float x = (getWidth() - layout.width) / 2.0f;
@@ -1029,6 +1115,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endTiles();
 
 		GlyphLayout layout = new GlyphLayout(font, text);
 		float x = cameraX - getWidth() / 5;
@@ -1266,6 +1353,39 @@ public class GameCanvas {
 		debugRender.ellipse(x0 - w, y0 - h, 2 * w, 2 * h, 12);
 	}
 
+	/**
+	 * Draws the tinted region as an axis-aligned rectangle.
+	 * <p>
+	 * The batch writes the four corners directly, so this does not build a transform.
+	 * The batch color is only changed if the tint differs.  A negative width or height
+	 * flips the region.
+	 *
+	 * @param region The texture to draw
+	 * @param tint   The color tint
+	 * @param x      The x-coordinate of the bottom left corner
+	 * @param y      The y-coordinate of the bottom left corner
+	 * @param width  The texture width
+	 * @param height The texture height
+	 */
+	private void drawQuad(TextureRegion region, Color tint, float x, float y, float width, float height) {
+		setTint(tint);
+		spriteBatch.draw(region, x, y, width, height);
+	}
+
+	/**
+	 * Sets the sprite batch color, unless it already has this color.
+	 * <p>
+	 * Changing the batch color unpacks the color again, so it is skipped when the
+	 * packed colors agree.
+	 *
+	 * @param tint The color tint
+	 */
+	private void setTint(Color tint) {
+		if (spriteBatch.getPackedColor() != tint.toFloatBits()) {
+			spriteBatch.setColor(tint);
+		}
+	}
+
 	/**
 	 * Compute the affine transform (and store it in local) for this image.
 	 *
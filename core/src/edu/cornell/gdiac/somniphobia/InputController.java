@@ -7,6 +7,11 @@
  * That way, the main GameEngine does not have to keep track of the current
  * key mapping.
  *
+ * Input is event driven.  Key and controller events are queued (with the time they
+ * arrived) as they happen, and each simulation step consumes the events up to the
+ * start of the step.  A button that is pressed and released within a single frame
+ * still counts as a press, where polling the keyboard once a frame would miss it.
+ *
  * Author: Walker M. White
  * Based on original PhysicsDemo Lab by Don Holden, 2007
  * LibGDX version, 2/6/2015
@@ -14,17 +19,53 @@
 package edu.cornell.gdiac.somniphobia;
 
 import com.badlogic.gdx.*;
+import com.badlogic.gdx.controllers.Controller;
+import com.badlogic.gdx.controllers.ControllerListener;
+import com.badlogic.gdx.controllers.ControllerMapping;
 import com.badlogic.gdx.math.*;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
 
 /**
- * Class for reading player input. 
+ * Class for reading player input.
  *
- * This supports only a keyboard.
+ * This supports a keyboard and XBox controllers.  The controller sits in front of
+ * the input processor of the current screen (see {@link #attach}), so it sees every
+ * key event without the screens having to forward them.
  */
-public class InputController {
+public class InputController implements InputProcessor, ControllerListener {
 	/** The singleton instance of the input controller */
 	private static InputController theController = null;
 
+	// Actions (indices into the action state)
+	private static final int JUMP = 0;
+	private static final int DASH = 1;
+	private static final int HOLD_HANDS = 2;
+	private static final int SWITCH = 3;
+	private static final int RESET = 4;
+	private static final int DEBUG = 5;
+	private static final int SLIDERS = 6;
+	private static final int ESCAPE = 7;
+	private static final int CREATOR = 8;
+	private static final int PREV = 9;
+	private static final int NEXT = 10;
+	private static final int PAUSE = 11;
+	private static final int ENTER = 12;
+	private static final int LEFT = 13;
+	private static final int RIGHT = 14;
+	private static final int UP = 15;
+	private static final int DOWN = 16;
+	private static final int CAMERA_LEFT = 17;
+	private static final int CAMERA_RIGHT = 18;
+	private static final int CAMERA_UP = 19;
+	private static final int CAMERA_DOWN = 20;
+	/** The number of actions */
+	private static final int ACTIONS = 21;
+
+	/** The flag marking a queued event as a press (otherwise it is a release) */
+	private static final int PRESS_FLAG = 0x100;
+	/** How far out the joysticks must be to register */
+	private static final float DEAD_ZONE = 0.2f;
 
 	/** Key mappings */
 	private int jumpKey	= Input.Keys.UP;
@@ -40,8 +81,8 @@ public class InputController {
 	private int rightKey = Input.Keys.RIGHT;
 
 	private int controlScheme;
-	
-	/** 
+
+	/**
 	 * Return the singleton instance of the input controller
 	 *
 	 * @return the singleton instance of the input controller
@@ -53,54 +94,28 @@ public class InputController {
 		}
 		return theController;
 	}
-	
+
+	// Fields to manage the event queue
+	/** The input processor of the current screen, which gets every event after us */
+	private InputProcessor target;
+	/** The queued events (an action, with PRESS_FLAG for presses) */
+	private final IntArray events = new IntArray();
+	/** The time of each queued event (from System.nanoTime) */
+	private final LongArray eventTimes = new LongArray();
+	/** Whether a simulation step has read the input since the last frame */
+	private boolean stepped;
+
 	// Fields to manage buttons
-	/** Whether the enter button was pressed */
-	private boolean enterPressed;
-	private boolean enterPrevious;
-	/** Whether the button to go to the next level was pressed. */
-	private boolean nextPressed;
-	private boolean nextPrevious;
-	/** Whether the button to go to the previous level was pressed. */
-	private boolean prevPressed;
-	private boolean prevPrevious;
-	/** Whether the button to switch to the creator was pressed. */
-	private boolean switchToCreatorPressed;
-	private boolean switchToCreatorPrevious;
-	/** Whether the reset button was pressed. */
-	private boolean resetPressed;
-	private boolean resetPrevious;
-	/** Whether the jump button was pressed. */
-	private boolean jumpPressed;
-	private boolean jumpPrevious;
-	/** Whether the dash button was pressed. */
-	private boolean dashPressed;
-	private boolean dashPrevious;
-	/** Whether the hand holding button was pressed. */
-	private boolean handHoldingPressed;
-	private boolean handHoldingPrevious;
-	/** Whether the switch button was pressed. */
-	private boolean switchPressed;
-	private boolean switchPrevious;
-	/** Whether the debug toggle was pressed. */
-	private boolean debugPressed;
-	private boolean debugPrevious;
-	/** Whether the left or right keys were pressed. */
-	private boolean walkPressed;
-
-	/** Whether the camera WASD keys were pressed. */
-	private boolean wPressed;
-	private boolean aPressed;
-	private boolean sPressed;
-	private boolean dPressed;
-
-	/** Whether the slider toggle was pressed. */
-	private boolean sliderToggled;
-	private boolean sliderToggledPrevious;
-
-	/** Whether the escape button was pressed. */
-	private boolean escapePressed;
-	private boolean escapePrevious;
+	/** The number of keys and buttons holding down each action */
+	private final int[] held = new int[ACTIONS];
+	/** Whether each action was pressed since the previous step */
+	private final boolean[] pressed = new boolean[ACTIONS];
+	/** The time of the latest press of each action (from System.nanoTime) */
+	private final long[] pressTimes = new long[ACTIONS];
+	/** The horizontal position of the controller stick */
+	private float stickX;
+	/** The vertical position of the controller stick */
+	private float stickY;
 
 	/** Whether the teritiary action button was pressed. */
 	private boolean tertiaryPressed;
@@ -121,9 +136,6 @@ public class InputController {
 	/** How much did we move the camera vertically? */
 	private float cameraVertical;
 
-	private boolean pauseClicked;
-	private boolean pauseClickedPrevious;
-
 	/**
 	 * Sets the controlScheme
 	 * @param controlScheme the controlScheme
@@ -133,22 +145,22 @@ public class InputController {
 	}
 
 	/**
-	 * Returns the amount of sideways movement. 
+	 * Returns the amount of sideways movement.
 	 *
 	 * -1 = left, 1 = right, 0 = still
 	 *
-	 * @return the amount of sideways movement. 
+	 * @return the amount of sideways movement.
 	 */
 	public float getHorizontal() {
 		return horizontal;
 	}
-	
+
 	/**
-	 * Returns the amount of vertical movement. 
+	 * Returns the amount of vertical movement.
 	 *
 	 * -1 = down, 1 = up, 0 = still
 	 *
-	 * @return the amount of vertical movement. 
+	 * @return the amount of vertical movement.
 	 */
 	public float getVertical() { return vertical; }
 
@@ -178,7 +190,7 @@ public class InputController {
 	 * @return true if the player wants to go to the next level.
 	 */
 	public boolean didAdvance() {
-		return nextPressed && !nextPrevious;
+		return pressed[NEXT];
 	}
 
 	/**
@@ -187,7 +199,7 @@ public class InputController {
 	 * @return true if the player wants to go to the next level.
 	 */
 	public boolean didPressEnter() {
-		return enterPressed && !enterPrevious;
+		return pressed[ENTER];
 	}
 
 	/**
@@ -196,7 +208,7 @@ public class InputController {
 	 * @return true if the player wants to go to the previous level.
 	 */
 	public boolean didRetreat() {
-		return prevPressed && !prevPrevious;
+		return pressed[PREV];
 	}
 
 
@@ -209,7 +221,7 @@ public class InputController {
 	 * @return true if the jump button was pressed.
 	 */
 	public boolean didJump() {
-		return jumpPressed && !jumpPrevious;
+		return pressed[JUMP];
 	}
 
 	/**
@@ -221,7 +233,7 @@ public class InputController {
 	 * @return true if the dash button was pressed.
 	 */
 	public boolean didDash() {
-		return dashPressed && !dashPrevious;
+		return pressed[DASH];
 	}
 
 	/**
@@ -233,7 +245,7 @@ public class InputController {
 	 * @return true if the dash button was pressed.
 	 */
 	public boolean didHoldHands() {
-		return handHoldingPressed && !handHoldingPrevious;
+		return pressed[HOLD_HANDS];
 	}
 
 	/**
@@ -245,7 +257,7 @@ public class InputController {
 	 * @return true if the dash button was pressed.
 	 */
 	public boolean didSwitch() {
-		return switchPressed && !switchPrevious;
+		return pressed[SWITCH];
 	}
 
 	/**
@@ -254,7 +266,7 @@ public class InputController {
 	 * @return true if the reset button was pressed.
 	 */
 	public boolean didReset() {
-		return resetPressed && !resetPrevious;
+		return pressed[RESET];
 	}
 
 	/**
@@ -263,7 +275,7 @@ public class InputController {
 	 * @return true if the player wants to go toggle the debug mode.
 	 */
 	public boolean didDebug() {
-		return debugPressed && !debugPrevious;
+		return pressed[DEBUG];
 	}
 
 
@@ -273,16 +285,16 @@ public class InputController {
 	 * @return true if the player wants to go toggle the debug mode.
 	 */
 	public boolean didToggleSliders() {
-		return sliderToggled && !sliderToggledPrevious;
+		return pressed[SLIDERS];
 	}
-	
+
 	/**
 	 * Returns true if the escape button was pressed.
 	 *
 	 * @return true if the escape button was pressed.
 	 */
 	public boolean didPressEscape() {
-		return escapePressed && !escapePrevious;
+		return pressed[ESCAPE];
 	}
 
 	/**
@@ -291,11 +303,34 @@ public class InputController {
 	 * @return true if the creator mode button was pressed.
 	 */
 	public boolean didSwitchToCreatorMode() {
-		return switchToCreatorPressed && !switchToCreatorPrevious;
+		return pressed[CREATOR];
 	}
 
-	public boolean didClickPause() { return pauseClicked && !pauseClickedPrevious; }
+	public boolean didClickPause() { return pressed[PAUSE]; }
+
+	/**
+	 * Returns the seconds between the latest jump press and the current step
+	 *
+	 * This is how late the step is in handling the press.  It is only meaningful
+	 * when {@link #didJump} is true.
+	 *
+	 * @return the seconds between the latest jump press and the current step
+	 */
+	public float getJumpLatency() {
+		return latency(JUMP);
+	}
 
+	/**
+	 * Returns the seconds between the latest dash press and the current step
+	 *
+	 * This is how late the step is in handling the press.  It is only meaningful
+	 * when {@link #didDash} is true.
+	 *
+	 * @return the seconds between the latest dash press and the current step
+	 */
+	public float getDashLatency() {
+		return latency(DASH);
+	}
 
 	/**
 	 * Returns the current position of the crosshairs on the screen.
@@ -313,101 +348,239 @@ public class InputController {
 	}
 
 	/**
-	 * Reads the input for the player and converts the result into game logic.
+	 * Places this controller in front of the input processor of the current screen.
+	 *
+	 * Screens replace the input processor whenever they show a new stage, so this
+	 * is called by the root after every frame.  Events are handed on to the screen
+	 * processor unchanged.
+	 *
+	 * If no step read the input this frame (as in the menus), the queued events only
+	 * update the held buttons.  Otherwise a jump pressed in a menu would be replayed
+	 * in the first step of the level.
 	 */
-	public void readInput(Rectangle bounds, Vector2 scale) {
-		// Copy state from last animation frame
-		// Helps us ignore buttons that are held down
-
-		jumpPrevious  			= jumpPressed;
-		dashPrevious 			= dashPressed;
-		handHoldingPrevious 	= handHoldingPressed;
-		switchPrevious 			= switchPressed;
-		resetPrevious  			= resetPressed;
-		debugPrevious  			= debugPressed;
-		sliderToggledPrevious 	= sliderToggled;
-		escapePrevious 			= escapePressed;
-		switchToCreatorPrevious = switchToCreatorPressed;
-		nextPrevious 			= nextPressed;
-		prevPrevious 			= prevPressed;
-		pauseClickedPrevious	= pauseClicked;
-		enterPrevious = enterPressed;
-
-		readKeyboard(bounds,scale);
+	public void attach() {
+		if (!stepped) {
+			consume(System.nanoTime(), false);
+		}
+		stepped = false;
+
+		InputProcessor current = Gdx.input.getInputProcessor();
+		if (current != this) {
+			target = current;
+			Gdx.input.setInputProcessor(this);
+		}
 	}
 
 	/**
-	 * Reads input from the keyboard.
+	 * Releases every held button and discards the queued events.
+	 *
+	 * This is called when the application loses focus, as the release events of
+	 * any held keys will never arrive.
 	 */
-	private void readKeyboard(Rectangle bounds, Vector2 scale) {
-		// Give priority to gamepad results
-		resetPressed			= Gdx.input.isKeyPressed(Input.Keys.R);
-		debugPressed  			= Gdx.input.isKeyPressed(Input.Keys.G);
-		sliderToggled  			= Gdx.input.isKeyPressed(Input.Keys.RIGHT_BRACKET);
-		jumpPressed  			= Gdx.input.isKeyPressed(jumpKey);
-
-		escapePressed   		= Gdx.input.isKeyPressed(Input.Keys.ESCAPE);
-		switchToCreatorPressed 	= Gdx.input.isKeyPressed(Input.Keys.BACKSLASH);
-		prevPressed 			= Gdx.input.isKeyPressed(Input.Keys.P);
-		nextPressed 			= Gdx.input.isKeyPressed(Input.Keys.N);
-		walkPressed 			= Gdx.input.isKeyPressed(leftKey) || Gdx.input.isKeyPressed(rightKey);
-		pauseClicked			= Gdx.input.isKeyPressed(Input.Keys.LEFT_BRACKET);
-		enterPressed 			= Gdx.input.isKeyPressed(Input.Keys.ENTER);
-
-		//Set inputs based on control scheme
-		if (controlScheme == 0) {
-			dashPressed = Gdx.input.isKeyPressed(dashKey);
-			handHoldingPressed = Gdx.input.isKeyPressed(handHoldingKey);
-			switchPressed = Gdx.input.isKeyPressed(switchKey);
-		} else {
-			dashPressed = Gdx.input.isKeyPressed(dashKey2);
-			handHoldingPressed = Gdx.input.isKeyPressed(handHoldingKey2);
-			switchPressed = Gdx.input.isKeyPressed(switchKey2);
+	public void release() {
+		events.clear();
+		eventTimes.clear();
+		for (int ii = 0; ii < ACTIONS; ii++) {
+			held[ii] = 0;
+			pressed[ii] = false;
 		}
+		stickX = 0;
+		stickY = 0;
+	}
 
-		wPressed = (Gdx.input.isKeyPressed(Input.Keys.W));
-		aPressed = (Gdx.input.isKeyPressed(Input.Keys.A));
-		sPressed = (Gdx.input.isKeyPressed(Input.Keys.S));
-		dPressed = (Gdx.input.isKeyPressed(Input.Keys.D));
+	/**
+	 * Reads the input for the player and converts the result into game logic.
+	 *
+	 * This is called once per simulation step, and consumes the events that
+	 * arrived before the step.
+	 */
+	public void readInput(Rectangle bounds, Vector2 scale) {
+		consume(System.nanoTime(), true);
+		stepped = true;
+		readDirections();
 
+		tertiaryPressed = Gdx.input.isButtonPressed(Input.Buttons.LEFT);
+		crosshair.set(Gdx.input.getX(), Gdx.input.getY());
+		crosshair.scl(1/scale.x,-1/scale.y);
+		crosshair.y += bounds.height;
+	}
 
-		// Directional controls
-		horizontal = 0.0f;
-		if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
+	/**
+	 * Applies the queued events up to the given time, in the order they arrived.
+	 *
+	 * Replaying the events (rather than looking at the final state) is what keeps a
+	 * press and release in the same frame from cancelling out.
+	 *
+	 * @param until		The time (from System.nanoTime) of the last event to apply
+	 * @param report	Whether presses should be reported to the next step
+	 */
+	private void consume(long until, boolean report) {
+		for (int ii = 0; ii < ACTIONS; ii++) {
+			pressed[ii] = false;
+		}
+		int consumed = 0;
+		while (consumed < events.size && eventTimes.get(consumed) <= until) {
+			int event = events.get(consumed);
+			int action = event & ~PRESS_FLAG;
+			if ((event & PRESS_FLAG) != 0) {
+				if (held[action] == 0 && report) {
+					pressed[action] = true;
+					pressTimes[action] = eventTimes.get(consumed);
+				}
+				held[action]++;
+			} else if (held[action] > 0) {
+				held[action]--;
+			}
+			consumed++;
+		}
+		if (consumed > 0) {
+			events.removeRange(0, consumed-1);
+			eventTimes.removeRange(0, consumed-1);
+		}
+	}
+
+	/**
+	 * Converts the held directions into movement.
+	 */
+	private void readDirections() {
+		horizontal = stickX;
+		if (held[RIGHT] > 0) {
 			horizontal += 1.0f;
 		}
-		if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
+		if (held[LEFT] > 0) {
 			horizontal -= 1.0f;
 		}
+		horizontal = MathUtils.clamp(horizontal, -1.0f, 1.0f);
 
-		vertical = 0.0f;
-		if (Gdx.input.isKeyPressed(Input.Keys.UP)) {
+		vertical = stickY;
+		if (held[UP] > 0) {
 			vertical += 1.0f;
 		}
-		if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
+		if (held[DOWN] > 0) {
 			vertical -= 1.0f;
 		}
+		vertical = MathUtils.clamp(vertical, -1.0f, 1.0f);
 
 		cameraHorizontal = 0.0f;
-		if (dPressed) {
+		if (held[CAMERA_RIGHT] > 0) {
 			cameraHorizontal += 1.0f;
 		}
-		if (aPressed) {
+		if (held[CAMERA_LEFT] > 0) {
 			cameraHorizontal -= 1.0f;
 		}
 
 		cameraVertical = 0.0f;
-		if (wPressed) {
+		if (held[CAMERA_UP] > 0) {
 			cameraVertical += 1.0f;
 		}
-		if (sPressed) {
+		if (held[CAMERA_DOWN] > 0) {
 			cameraVertical -= 1.0f;
 		}
+	}
 
-		tertiaryPressed = Gdx.input.isButtonPressed(Input.Buttons.LEFT);
-		crosshair.set(Gdx.input.getX(), Gdx.input.getY());
-		crosshair.scl(1/scale.x,-1/scale.y);
-		crosshair.y += bounds.height;
+	/**
+	 * Returns the seconds between the latest press of an action and now
+	 *
+	 * @param action	The action
+	 *
+	 * @return the seconds between the latest press of an action and now
+	 */
+	private float latency(int action) {
+		return (System.nanoTime()-pressTimes[action])/1.0e9f;
+	}
+
+	/**
+	 * Queues a press or release of an action
+	 *
+	 * @param action	The action
+	 * @param down		Whether the action was pressed
+	 */
+	private void queue(int action, boolean down) {
+		events.add(down ? action | PRESS_FLAG : action);
+		eventTimes.add(System.nanoTime());
+	}
+
+	/**
+	 * Queues the actions of a key
+	 *
+	 * A key may have more than one action (the up arrow both jumps and aims).
+	 *
+	 * @param keycode	The key
+	 * @param down		Whether the key was pressed
+	 */
+	private void queueKey(int keycode, boolean down) {
+		if (keycode == jumpKey) {
+			queue(JUMP, down);
+		}
+		if (keycode == (controlScheme == 0 ? dashKey : dashKey2)) {
+			queue(DASH, down);
+		}
+		if (keycode == (controlScheme == 0 ? handHoldingKey : handHoldingKey2)) {
+			queue(HOLD_HANDS, down);
+		}
+		if (keycode == (controlScheme == 0 ? switchKey : switchKey2)) {
+			queue(SWITCH, down);
+		}
+		if (keycode == leftKey) {
+			queue(LEFT, down);
+		}
+		if (keycode == rightKey) {
+			queue(RIGHT, down);
+		}
+		switch (keycode) {
+			case Input.Keys.R:				queue(RESET, down);			break;
+			case Input.Keys.G:				queue(DEBUG, down);			break;
+			case Input.Keys.RIGHT_BRACKET:	queue(SLIDERS, down);		break;
+			case Input.Keys.ESCAPE:			queue(ESCAPE, down);		break;
+			case Input.Keys.BACKSLASH:		queue(CREATOR, down);		break;
+			case Input.Keys.P:				queue(PREV, down);			break;
+			case Input.Keys.N:				queue(NEXT, down);			break;
+			case Input.Keys.LEFT_BRACKET:	queue(PAUSE, down);			break;
+			case Input.Keys.ENTER:			queue(ENTER, down);			break;
+			case Input.Keys.UP:				queue(UP, down);			break;
+			case Input.Keys.DOWN:			queue(DOWN, down);			break;
+			case Input.Keys.W:				queue(CAMERA_UP, down);		break;
+			case Input.Keys.A:				queue(CAMERA_LEFT, down);	break;
+			case Input.Keys.S:				queue(CAMERA_DOWN, down);	break;
+			case Input.Keys.D:				queue(CAMERA_RIGHT, down);	break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Queues the action of a controller button
+	 *
+	 * @param controller	The controller
+	 * @param buttonCode	The button
+	 * @param down			Whether the button was pressed
+	 */
+	private void queueButton(Controller controller, int buttonCode, boolean down) {
+		ControllerMapping mapping = controller.getMapping();
+		if (mapping == null) {
+			return;
+		}
+		if (buttonCode == mapping.buttonA) {
+			queue(JUMP, down);
+		} else if (buttonCode == mapping.buttonX) {
+			queue(DASH, down);
+		} else if (buttonCode == mapping.buttonB) {
+			queue(HOLD_HANDS, down);
+		} else if (buttonCode == mapping.buttonY) {
+			queue(SWITCH, down);
+		} else if (buttonCode == mapping.buttonStart) {
+			queue(ESCAPE, down);
+		} else if (buttonCode == mapping.buttonBack) {
+			queue(RESET, down);
+		} else if (buttonCode == mapping.buttonDpadLeft) {
+			queue(LEFT, down);
+		} else if (buttonCode == mapping.buttonDpadRight) {
+			queue(RIGHT, down);
+		} else if (buttonCode == mapping.buttonDpadUp) {
+			queue(UP, down);
+		} else if (buttonCode == mapping.buttonDpadDown) {
+			queue(DOWN, down);
+		}
 	}
 
 	/**
@@ -422,5 +595,85 @@ public class InputController {
 		return tertiaryPressed;
 	}
 
+	// METHODS FOR INPUT PROCESSOR
 
-}
\ No newline at end of file
+	@Override
+	public boolean keyDown(int keycode) {
+		queueKey(keycode, true);
+		return target != null && target.keyDown(keycode);
+	}
+
+	@Override
+	public boolean keyUp(int keycode) {
+		queueKey(keycode, false);
+		return target != null && target.keyUp(keycode);
+	}
+
+	@Override
+	public boolean keyTyped(char character) {
+		return target != null && target.keyTyped(character);
+	}
+
+	@Override
+	public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+		return target != null && target.touchDown(screenX, screenY, pointer, button);
+	}
+
+	@Override
+	public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+		return target != null && target.touchUp(screenX, screenY, pointer, button);
+	}
+
+	@Override
+	public boolean touchDragged(int screenX, int screenY, int pointer) {
+		return target != null && target.touchDragged(screenX, screenY, pointer);
+	}
+
+	@Override
+	public boolean mouseMoved(int screenX, int screenY) {
+		return target != null && target.mouseMoved(screenX, screenY);
+	}
+
+	@Override
+	public boolean scrolled(float amountX, float amountY) {
+		return target != null && target.scrolled(amountX, amountY);
+	}
+
+	// METHODS FOR CONTROLLER LISTENER
+
+	@Override
+	public void connected(Controller controller) {
+	}
+
+	@Override
+	public void disconnected(Controller controller) {
+		stickX = 0;
+		stickY = 0;
+	}
+
+	@Override
+	public boolean buttonDown(Controller controller, int buttonCode) {
+		queueButton(controller, buttonCode, true);
+		return false;
+	}
+
+	@Override
+	public boolean buttonUp(Controller controller, int buttonCode) {
+		queueButton(controller, buttonCode, false);
+		return false;
+	}
+
+	@Override
+	public boolean axisMoved(Controller controller, int axisCode, float value) {
+		ControllerMapping mapping = controller.getMapping();
+		if (mapping != null) {
+			value = Math.abs(value) > DEAD_ZONE ? MathUtils.clamp(value, -1.0f, 1.0f) : 0;
+			if (axisCode == mapping.axisLeftX) {
+				stickX = value;
+			} else if (axisCode == mapping.axisLeftY) {
+				stickY = value;
+			}
+		}
+		return false;
+	}
+}
@@ -197,9 +197,11 @@ public class LoadingMode implements Screen, InputProcessor, ControllerListener {
 		resize(canvas.getWidth(),canvas.getHeight());
 
 		// We need these files loaded immediately
+		Trace.get().begin("loading.json");
 		internal = new AssetDirectory( "loading.json" );
 		internal.loadAssets();
 		internal.finishLoading();
+		Trace.get().end("loading.json");
 
 		// Load the next two images immediately.
 		playButton = null;
@@ -266,7 +268,8 @@ public class LoadingMode implements Screen, InputProcessor, ControllerListener {
 	private void update(float delta) {
 		if (playButton == null) {
 			assets.update(budget);
-			this.progress = assets.getProgress();
+			// The menu directories are loaded by the registry alongside the game assets
+			this.progress = (assets.getProgress()+DirectoryRegistry.get().getProgress())/2;
 //			if (progress >= 1.0f) {
 //				this.progress = 1.0f;
 //				listener.exitScreen(this, 0);
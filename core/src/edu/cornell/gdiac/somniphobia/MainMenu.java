@@ -41,7 +41,10 @@ import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import edu.cornell.gdiac.assets.AssetDirectory;
+import edu.cornell.gdiac.assets.DirectoryRegistry;
 import edu.cornell.gdiac.audio.MusicController;
+import edu.cornell.gdiac.util.GLResources;
+import edu.cornell.gdiac.util.TextureCache;
 import edu.cornell.gdiac.util.ScreenListener;
 
 /**
@@ -91,17 +94,17 @@ public class MainMenu implements Screen {
 	private TextureRegionDrawable backgroundDrawable;
 	private TextureRegionDrawable exitDrawable;
 	private TextureRegionDrawable underlineOrangeDrawable;
+	/** Textures loaded from a file path rather than an asset directory */
+	private TextureCache textures = new TextureCache();
 
 	public Stage getStage(){
 		return stage;
 	}
 
 	public MainMenu(GameCanvas canvas) {
-		internal = new AssetDirectory( "main_screen.json" );
-		internal.loadAssets();
-		internal.finishLoading();
+		internal = DirectoryRegistry.get().obtain( "main_screen.json" );
 
-		stage = new Stage();
+		stage = GLResources.get().track(new Stage());
 		table = new Table();
 		backgroundDrawable = new TextureRegionDrawable(internal.getEntry("background", Texture.class));
 		titleDrawable = new TextureRegionDrawable(internal.getEntry("title", Texture.class));
@@ -171,13 +174,13 @@ public class MainMenu implements Screen {
 	 * Creating an image button that appears as an image with upFilepath.
 	 */
 	private Button createImageButton(String upFilepath){
-		TextureRegionDrawable buttonDrawable = new TextureRegionDrawable(new Texture(Gdx.files.internal(upFilepath)));
+		TextureRegionDrawable buttonDrawable = new TextureRegionDrawable(textures.get(upFilepath));
 		Button imgButton= new Button(buttonDrawable);
 		return imgButton;
 	}
 
 	private Image createImage(String upFilepath){
-		TextureRegionDrawable drawable = new TextureRegionDrawable(new Texture(Gdx.files.internal(upFilepath)));
+		TextureRegionDrawable drawable = new TextureRegionDrawable(textures.get(upFilepath));
 		Image image = new Image(drawable);
 		return image;
 	}
@@ -187,8 +190,10 @@ public class MainMenu implements Screen {
 	 * Called when this screen should release all resources.
 	 */
 	public void dispose() {
-		internal.unloadAssets();
-		internal.dispose();
+		GLResources.get().release(stage);
+		stage.dispose();
+		textures.dispose();
+		DirectoryRegistry.get().release( "main_screen.json" );
 	}
 
 	/**
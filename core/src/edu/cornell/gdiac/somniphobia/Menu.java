@@ -106,15 +106,19 @@ public class Menu implements Screen {
 
 	private TextureRegionDrawable[] upImages = new TextureRegionDrawable[numLevels];
 	private TextureRegionDrawable[] overImages = new TextureRegionDrawable[numLevels];
+	/** The font of the level numbers */
+	private BitmapFont font;
+	/** Textures loaded from a file path rather than an asset directory */
+	private TextureCache textures = new TextureCache();
 
 	public Stage getStage(){
 		return stage;
 	}
 
 	public Menu(GameCanvas canvas, boolean left, boolean right, int index, int totalLevels) {
-		stage = new Stage();
+		stage = GLResources.get().track(new Stage());
 		table = new Table();
-		table.setBackground(new TextureRegionDrawable(new TextureRegion(new Texture("menu\\background_blue.png"))));
+		table.setBackground(new TextureRegionDrawable(new TextureRegion(textures.get("menu\\background_blue.png"))));
 		table.setFillParent(true);
 		leftExist = left;
 		rightExist = right;
@@ -130,7 +134,7 @@ public class Menu implements Screen {
 		parameter.size = FONT_SIZE;
 		parameter.color = FONT_COLOR;
 		parameter.borderWidth = 2;
-		BitmapFont font = generator.generateFont(parameter);
+		font = generator.generateFont(parameter);
 		generator.dispose();
 
 //		Testing with default style buttons
@@ -142,7 +146,7 @@ public class Menu implements Screen {
 //		TextButton button3 = new TextButton("Level 3", skin);
 //		TextButton button4 = new TextButton("Level 4", skin);
 
-		TextureRegionDrawable titleDrawable = new TextureRegionDrawable(new Texture(Gdx.files.internal("menu\\Dream Selection.png")));
+		TextureRegionDrawable titleDrawable = new TextureRegionDrawable(textures.get("menu\\Dream Selection.png"));
 		Image titleImage = new Image(titleDrawable);
 		table.add(titleImage).colspan(numLevels+2).expandX().height(TITLE_HEIGHT).width(TITLE_WIDTH).padTop(TOP_PADDING);
 		table.row();
@@ -172,8 +176,8 @@ public class Menu implements Screen {
 					buttonsClicked[saved_i%numLevels] = true;
 				}
 			});
-			upImages[currentLevel %numLevels] = new TextureRegionDrawable(new Texture(Gdx.files.internal("menu\\door"+(currentLevel %numLevels+1)+".png")));
-			overImages[currentLevel %numLevels] = new TextureRegionDrawable(new Texture(Gdx.files.internal("menu\\cloud"+(currentLevel %numLevels+1)+".png")));
+			upImages[currentLevel %numLevels] = new TextureRegionDrawable(textures.get("menu\\door"+(currentLevel %numLevels+1)+".png"));
+			overImages[currentLevel %numLevels] = new TextureRegionDrawable(textures.get("menu\\cloud"+(currentLevel %numLevels+1)+".png"));
 		}
 
 		leftButton = createImageButton("menu\\left_arrow.png");
@@ -209,7 +213,7 @@ public class Menu implements Screen {
 
 		table.add(rightButton).size(ARROW_SIZE, ARROW_SIZE);
 
-		TextureRegionDrawable drawable = new TextureRegionDrawable(new Texture(Gdx.files.internal("menu\\cloudline_smaller.png")));
+		TextureRegionDrawable drawable = new TextureRegionDrawable(textures.get("menu\\cloudline_smaller.png"));
 		Image cloudLineImage = new Image(drawable);
 		table.row();
 		table.add(cloudLineImage).colspan(numLevels+2).height(CLOUDLINE_HEIGHT).width(CLOUDLINE_WIDTH);
@@ -247,13 +251,13 @@ public class Menu implements Screen {
 	 * Creating an image button that appears as an image with upFilepath.
 	 */
 	private Button createImageButton(String upFilepath){
-		TextureRegionDrawable buttonDrawable = new TextureRegionDrawable(new Texture(Gdx.files.internal(upFilepath)));
+		TextureRegionDrawable buttonDrawable = new TextureRegionDrawable(textures.get(upFilepath));
 		Button imgButton= new Button(buttonDrawable);
 		return imgButton;
 	}
 
 	private ImageTextButton createImageTextButton(String upFilepath, BitmapFont font, int number){
-		TextureRegionDrawable drawable1 = new TextureRegionDrawable(new Texture(Gdx.files.internal(upFilepath)));
+		TextureRegionDrawable drawable1 = new TextureRegionDrawable(textures.get(upFilepath));
 		ImageTextButton.ImageTextButtonStyle btnStyle1 = new ImageTextButton.ImageTextButtonStyle();
 		btnStyle1.up = drawable1;
 		btnStyle1.font = font;
@@ -280,6 +284,10 @@ public class Menu implements Screen {
 	 * Called when this screen should release all resources.
 	 */
 	public void dispose() {
+		GLResources.get().release(stage);
+		stage.dispose();
+		textures.dispose();
+		font.dispose();
 	}
 //	public Boolean Over(){
 //		return forestImageButton.isOver() && !prevHovered;
@@ -40,6 +40,9 @@ import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import edu.cornell.gdiac.assets.AssetDirectory;
+import edu.cornell.gdiac.assets.DirectoryRegistry;
+import edu.cornell.gdiac.util.GLResources;
+import edu.cornell.gdiac.util.TextureCache;
 import edu.cornell.gdiac.util.ScreenListener;
 
 /**
@@ -140,15 +143,15 @@ public class MenuScrollable implements Screen {
 	private Button cloudLine;
 	private int totalLevels = 9;
 	private int menuIndex;
+	/** Textures loaded from a file path rather than an asset directory */
+	private TextureCache textures = new TextureCache();
 
 	public Stage getStage(){
 		return stage;
 	}
 
 	public MenuScrollable(GameCanvas canvas, int totalNumLevels, boolean[] levelsCompleted, int menuIndex) {
-		internal = new AssetDirectory( "level_select.json" );
-		internal.loadAssets();
-		internal.finishLoading();
+		internal = DirectoryRegistry.get().obtain( "level_select.json" );
 
 		titleTexture = internal.getEntry("title", Texture.class);
 		titleDrawable = new TextureRegionDrawable(titleTexture);
@@ -189,7 +192,7 @@ public class MenuScrollable implements Screen {
 
 		camera = new OrthographicCamera(canvas.getWidth(), canvas.getHeight());
 //		camera.translate(0, camera.viewportHeight / 2, 0);
-		stage = new Stage(new ScreenViewport(camera));
+		stage = GLResources.get().track(new Stage(new ScreenViewport(camera)));
 		//startIndex = index;
 		//levelsCompleted = levels;
 		this.totalNumLevels = totalNumLevels;
@@ -365,7 +368,7 @@ public class MenuScrollable implements Screen {
 	 * Creating an image button that appears as an image with upFilepath.
 	 */
 	private Button createImageButton(String upFilepath){
-		TextureRegionDrawable buttonDrawable = new TextureRegionDrawable(new Texture(Gdx.files.internal(upFilepath)));
+		TextureRegionDrawable buttonDrawable = new TextureRegionDrawable(textures.get(upFilepath));
 		Button imgButton= new Button(buttonDrawable);
 		return imgButton;
 	}
@@ -382,8 +385,14 @@ public class MenuScrollable implements Screen {
 	 * Called when this screen should release all resources.
 	 */
 	public void dispose() {
-		internal.unloadAssets();
-		internal.dispose();
+		GLResources.get().release(stage);
+		stage.dispose();
+		textures.dispose();
+		if (font != null) {
+			font.dispose();
+			font = null;
+		}
+		DirectoryRegistry.get().release( "level_select.json" );
 	}
 
 	/**
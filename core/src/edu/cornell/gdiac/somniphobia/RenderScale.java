@@ -0,0 +1,144 @@
+/*
+ * RenderScale.java
+ *
+ * Offscreen passes (like the realm rifts) are filled at full window resolution,
+ * which is more than an integrated GPU can handle at large window sizes.  This class
+ * picks a resolution scale for those passes.  The scale is either a fixed quality
+ * setting, or is adjusted automatically from the measured frame time.
+ */
+package edu.cornell.gdiac.somniphobia;
+
+/**
+ * Class to choose the resolution scale of offscreen render targets.
+ *
+ * A quality of {@link #AUTOMATIC} adjusts the scale between {@link #MIN_SCALE} and
+ * {@link #MAX_SCALE} in steps.  The scale drops quickly when frames take longer than
+ * the target frame time, and recovers slowly when there is headroom.  If raising the
+ * scale immediately causes slow frames again, the wait before the next raise doubles,
+ * so the scale does not oscillate.
+ *
+ * Any other quality is a fixed scale (clamped to the legal range).
+ */
+public class RenderScale {
+	/** The quality value for automatic scaling */
+	public static final float AUTOMATIC = 0.0f;
+	/** The smallest render scale */
+	public static final float MIN_SCALE = 0.5f;
+	/** The largest render scale */
+	public static final float MAX_SCALE = 1.0f;
+	/** The amount to change the scale by in automatic mode */
+	private static final float SCALE_STEP = 0.125f;
+	/** The default target frame time (60 fps) */
+	private static final float DEFAULT_TARGET = 1.0f/60.0f;
+	/** The weight of a new frame time in the running average */
+	private static final float SMOOTHING = 0.1f;
+	/** Frames slower than the target by this ratio lower the scale */
+	private static final float SLOW_RATIO = 1.15f;
+	/** Frames within this ratio of the target may raise the scale */
+	private static final float FAST_RATIO = 1.05f;
+	/** The number of frames to wait after a change before lowering the scale */
+	private static final int SETTLE_FRAMES = 30;
+	/** The initial number of frames to wait before raising the scale */
+	private static final int RECOVER_FRAMES = 180;
+	/** The largest number of frames to wait before raising the scale */
+	private static final int MAX_RECOVER_FRAMES = 1800;
+
+	/** Whether the scale is adjusted automatically */
+	private boolean automatic;
+	/** The current render scale */
+	private float scale;
+	/** The target frame time in seconds */
+	private float target;
+	/** The running average of the frame time in seconds */
+	private float average;
+	/** The number of frames since the scale last changed */
+	private int settle;
+	/** The number of frames to wait before raising the scale */
+	private int recover;
+	/** Whether the last change raised the scale */
+	private boolean raised;
+
+	/**
+	 * Creates a render scale with the given quality
+	 *
+	 * @param quality	The fixed scale, or {@link #AUTOMATIC}
+	 */
+	public RenderScale(float quality) {
+		target = DEFAULT_TARGET;
+		setQuality(quality);
+	}
+
+	/**
+	 * Sets the quality of this render scale
+	 *
+	 * A quality of {@link #AUTOMATIC} starts at full scale and adjusts from there.
+	 *
+	 * @param quality	The fixed scale, or {@link #AUTOMATIC}
+	 */
+	public void setQuality(float quality) {
+		automatic = quality <= AUTOMATIC;
+		scale = automatic ? MAX_SCALE : Math.max(MIN_SCALE, Math.min(MAX_SCALE, quality));
+		average = target;
+		settle = 0;
+		recover = RECOVER_FRAMES;
+		raised = false;
+	}
+
+	/** Returns true if the scale is adjusted automatically */
+	public boolean isAutomatic() {
+		return automatic;
+	}
+
+	/** Returns the current render scale */
+	public float getScale() {
+		return scale;
+	}
+
+	/** Returns the target frame time in seconds */
+	public float getTargetFrameTime() {
+		return target;
+	}
+
+	/** Sets the target frame time in seconds */
+	public void setTargetFrameTime(float seconds) {
+		target = seconds;
+	}
+
+	/**
+	 * Returns the given size at the current render scale
+	 *
+	 * @param size	The full resolution size in pixels
+	 *
+	 * @return the given size at the current render scale
+	 */
+	public int scaled(int size) {
+		return Math.max(1, Math.round(size*scale));
+	}
+
+	/**
+	 * Records the time of the last frame, adjusting the scale if automatic
+	 *
+	 * @param dt	The time of the last frame in seconds
+	 */
+	public void update(float dt) {
+		if (!automatic) {
+			return;
+		}
+		average += (dt-average)*SMOOTHING;
+		settle++;
+
+		if (settle >= SETTLE_FRAMES && average > target*SLOW_RATIO && scale > MIN_SCALE) {
+			// A raise that made things slow again should wait longer next time
+			if (raised && settle < recover) {
+				recover = Math.min(2*recover, MAX_RECOVER_FRAMES);
+			}
+			scale = Math.max(MIN_SCALE, scale-SCALE_STEP);
+			raised = false;
+			settle = 0;
+		} else if (settle >= recover && average < target*FAST_RATIO && scale < MAX_SCALE) {
+			scale = Math.min(MAX_SCALE, scale+SCALE_STEP);
+			raised = true;
+			settle = 0;
+		}
+	}
+}
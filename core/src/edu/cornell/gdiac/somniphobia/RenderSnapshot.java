@@ -0,0 +1,178 @@
+/*
+ * RenderSnapshot.java
+ *
+ * When the simulation runs on its own thread, the physics bodies change while the
+ * render thread is drawing.  So the simulation publishes a snapshot at the end of
+ * every step, and the render thread draws from the latest snapshot instead.
+ *
+ * A snapshot is allocated once and refilled every step.  It only grows when a level
+ * has more objects than any level before it.
+ */
+package edu.cornell.gdiac.somniphobia;
+
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.somniphobia.obstacle.Obstacle;
+
+/**
+ * Class storing the drawable state of a world at the end of a simulation step.
+ *
+ * The snapshot records the position, angle and animation state of every object, as
+ * well as the membership of each draw list (a world may draw several lists, such as
+ * the light and dark platforms).  The render thread poses the objects from the
+ * snapshot with {@link #apply} and then draws the lists from {@link #getList}.
+ */
+public class RenderSnapshot {
+	/** The initial number of objects in a snapshot */
+	private static final int INITIAL_CAPACITY = 128;
+
+	/** The objects in this snapshot */
+	private Obstacle[] bodies;
+	/** The x-coordinate of each object */
+	private float[] x;
+	/** The y-coordinate of each object */
+	private float[] y;
+	/** The angle of each object */
+	private float[] angle;
+	/** The animation state of each object ({@link Obstacle#ANIMATION_CHANNELS} per object) */
+	private float[] animation;
+	/** The number of objects in this snapshot */
+	private int size;
+	/** The draw lists of this snapshot */
+	private Array<Obstacle>[] lists;
+
+	/**
+	 * Creates an empty snapshot with the given number of draw lists
+	 *
+	 * @param count	The number of draw lists
+	 */
+	@SuppressWarnings("unchecked")
+	public RenderSnapshot(int count) {
+		allocate(INITIAL_CAPACITY);
+		lists = new Array[count];
+		for(int ii = 0; ii < count; ii++) {
+			lists[ii] = new Array<Obstacle>(false, INITIAL_CAPACITY, Obstacle.class);
+		}
+	}
+
+	/**
+	 * Allocates the per-object arrays with the given capacity
+	 *
+	 * @param capacity	The number of objects
+	 */
+	private void allocate(int capacity) {
+		Obstacle[] oldBodies = bodies;
+		float[] oldX = x;
+		float[] oldY = y;
+		float[] oldAngle = angle;
+		float[] oldAnimation = animation;
+
+		bodies = new Obstacle[capacity];
+		x = new float[capacity];
+		y = new float[capacity];
+		angle = new float[capacity];
+		animation = new float[capacity*Obstacle.ANIMATION_CHANNELS];
+		if (oldBodies != null) {
+			System.arraycopy(oldBodies, 0, bodies, 0, size);
+			System.arraycopy(oldX, 0, x, 0, size);
+			System.arraycopy(oldY, 0, y, 0, size);
+			System.arraycopy(oldAngle, 0, angle, 0, size);
+			System.arraycopy(oldAnimation, 0, animation, 0, size*Obstacle.ANIMATION_CHANNELS);
+		}
+	}
+
+	/**
+	 * Removes all objects and list entries from this snapshot
+	 */
+	public void clear() {
+		for(int ii = 0; ii < size; ii++) {
+			bodies[ii] = null;
+		}
+		size = 0;
+		for(int ii = 0; ii < lists.length; ii++) {
+			lists[ii].clear();
+		}
+	}
+
+	/**
+	 * Returns the number of objects in this snapshot
+	 *
+	 * @return the number of objects in this snapshot
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Records the current pose of every object in the given list.
+	 *
+	 * This reads the physics bodies, so it must be called while the world is not
+	 * stepping (on the simulation thread, or while the simulation is idle).
+	 *
+	 * @param objects	The objects to record
+	 */
+	public void record(Iterable<Obstacle> objects) {
+		for(Obstacle obj : objects) {
+			if (size == bodies.length) {
+				allocate(2*bodies.length);
+			}
+			bodies[size] = obj;
+			x[size] = obj.getX();
+			y[size] = obj.getY();
+			angle[size] = obj.getAngle();
+			obj.getAnimationState(animation, size*Obstacle.ANIMATION_CHANNELS);
+			size++;
+		}
+	}
+
+	/**
+	 * Records the membership of a draw list.
+	 *
+	 * The objects in the list should also be recorded with {@link #record}, or they
+	 * will be drawn from their physics bodies.
+	 *
+	 * @param index		The draw list index
+	 * @param objects	The objects in the draw list
+	 */
+	public void recordList(int index, Iterable<Obstacle> objects) {
+		Array<Obstacle> list = lists[index];
+		list.clear();
+		for(Obstacle obj : objects) {
+			list.add(obj);
+		}
+	}
+
+	/**
+	 * Returns the given draw list
+	 *
+	 * This list should only be read on the render thread, and never modified.
+	 *
+	 * @param index		The draw list index
+	 *
+	 * @return the given draw list
+	 */
+	public Array<Obstacle> getList(int index) {
+		return lists[index];
+	}
+
+	/**
+	 * Poses every object in this snapshot for drawing.
+	 *
+	 * This must be called on the render thread.
+	 */
+	public void apply() {
+		for(int ii = 0; ii < size; ii++) {
+			bodies[ii].setPose(x[ii], y[ii], angle[ii], animation, ii*Obstacle.ANIMATION_CHANNELS);
+		}
+	}
+
+	/**
+	 * Clears the pose of every object in this snapshot.
+	 *
+	 * This must be called on the render thread.
+	 */
+	public void release() {
+		for(int ii = 0; ii < size; ii++) {
+			bodies[ii].clearPose();
+		}
+	}
+}
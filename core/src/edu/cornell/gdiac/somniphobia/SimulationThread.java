@@ -0,0 +1,205 @@
+/*
+ * SimulationThread.java
+ *
+ * Normally a world controller reads input, runs the controllers, steps Box2D and
+ * draws, all on the GL thread.  On a multi-core machine, the physics and the drawing
+ * can overlap instead.  This thread steps the world of a controller while the GL
+ * thread draws the snapshot of the previous step.
+ *
+ * Only the step itself runs on this thread.  Input, screen changes and resets still
+ * happen on the GL thread, between steps, so none of them need to be thread-safe.
+ */
+package edu.cornell.gdiac.somniphobia;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Class to step a world controller on its own thread.
+ *
+ * A frame calls {@link #begin} to start a step and {@link #end} to wait for it.  The
+ * step finishes by recording a {@link RenderSnapshot} into the back buffer and
+ * publishing it.  The render thread draws {@link #getSnapshot}, which is always the
+ * last published snapshot.  As the render thread waits for each step before the
+ * next one starts, the snapshot being drawn is never the one being written.
+ */
+public class SimulationThread implements Runnable, Disposable {
+	/** The controller to step */
+	private WorldController controller;
+	/** The thread running the steps */
+	private Thread thread;
+	/** The snapshot being drawn */
+	private RenderSnapshot front;
+	/** The snapshot being written */
+	private RenderSnapshot back;
+	/** Whether the front snapshot matches the current world */
+	private boolean valid;
+
+	/** The time of the requested step */
+	private float delta;
+	/** Whether a step has been requested */
+	private boolean pending;
+	/** Whether a step is in progress */
+	private boolean busy;
+	/** Whether this thread has been disposed */
+	private boolean stopped;
+	/** Any error thrown by the last step */
+	private Throwable error;
+
+	/**
+	 * Creates and starts a simulation thread for the given controller
+	 *
+	 * @param controller	The controller to step
+	 * @param lists			The number of draw lists in a snapshot
+	 */
+	public SimulationThread(WorldController controller, int lists) {
+		this.controller = controller;
+		front = new RenderSnapshot(lists);
+		back  = new RenderSnapshot(lists);
+		valid = false;
+		thread = new Thread(this, "Simulation");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Returns the latest published snapshot
+	 *
+	 * @return the latest published snapshot
+	 */
+	public synchronized RenderSnapshot getSnapshot() {
+		return front;
+	}
+
+	/**
+	 * Returns true if the latest snapshot matches the current world.
+	 *
+	 * The snapshot is invalid before the first step and after the world is reset.
+	 *
+	 * @return true if the latest snapshot matches the current world.
+	 */
+	public synchronized boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * Marks the latest snapshot as out of date.
+	 *
+	 * This should be called whenever objects are created or destroyed outside of a
+	 * step (such as on a reset).
+	 */
+	public synchronized void invalidate() {
+		valid = false;
+	}
+
+	/**
+	 * Records and publishes a snapshot on the calling thread.
+	 *
+	 * This is used when there is no valid snapshot to draw.  It must only be called
+	 * while no step is in progress.
+	 */
+	public void refresh() {
+		publish();
+	}
+
+	/**
+	 * Starts a step of the given length on the simulation thread.
+	 *
+	 * @param dt	Number of seconds since last animation frame
+	 */
+	public synchronized void begin(float dt) {
+		if (stopped) {
+			return;
+		}
+		delta = dt;
+		pending = true;
+		notifyAll();
+	}
+
+	/**
+	 * Waits for the current step (if any) to finish.
+	 *
+	 * An error thrown by the step is rethrown on the calling thread.
+	 */
+	public synchronized void end() {
+		while ((pending || busy) && !stopped) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		if (error != null) {
+			Throwable cause = error;
+			error = null;
+			throw new GdxRuntimeException("Simulation step failed", cause);
+		}
+	}
+
+	/**
+	 * Records the back snapshot and swaps it with the front one.
+	 */
+	private void publish() {
+		back.clear();
+		controller.capture(back);
+		synchronized (this) {
+			RenderSnapshot temp = front;
+			front = back;
+			back = temp;
+			valid = true;
+		}
+	}
+
+	/**
+	 * Runs the steps requested by {@link #begin}.
+	 */
+	public void run() {
+		while (true) {
+			float dt;
+			synchronized (this) {
+				while (!pending && !stopped) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (stopped) {
+					return;
+				}
+				dt = delta;
+				pending = false;
+				busy = true;
+			}
+
+			try {
+				controller.simulate(dt);
+				publish();
+			} catch (Throwable t) {
+				synchronized (this) {
+					error = t;
+				}
+			}
+
+			synchronized (this) {
+				busy = false;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Waits for any step in progress and stops the thread.
+	 */
+	public void dispose() {
+		end();
+		synchronized (this) {
+			stopped = true;
+			notifyAll();
+		}
+		front.release();
+		front.clear();
+		back.clear();
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * TileBatch.java
+ *
+ * A platform is a rectangle of identical tiles.  Drawing it one tile at a time costs
+ * a sprite (and a transform) per tile, which adds up for the large floors in the level
+ * files.  This batch draws the whole rectangle as a single quad instead.  The texture
+ * coordinates of the quad count tiles, and the shader wraps them back into the region
+ * of the current animation frame.  The region is passed with each vertex, so this works
+ * for film strips and atlas-packed textures, where GL_REPEAT would not.
+ *
+ * The vertex format of the libGDX batches cannot carry the region, so this is a small
+ * batch of its own.  GameCanvas switches between it and the sprite batch as needed.
+ */
+package edu.cornell.gdiac.somniphobia;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.*;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import edu.cornell.gdiac.util.GLResources;
+
+/**
+ * Batch that draws repeated texture regions as one quad each.
+ */
+public class TileBatch implements Disposable {
+	/** The attribute holding the frame region (u, v, width, height) */
+	private static final String REGION_ATTRIBUTE = "a_region";
+	/** The number of floats in a vertex (position, color, tile, region) */
+	private static final int VERTEX_SIZE = 2 + 1 + 2 + 4;
+	/** The number of quads that fit in the mesh */
+	private static final int MAX_QUADS = 256;
+	/** The texture unit used by this batch */
+	private static final int TEXTURE_UNIT = 1;
+
+	/** Passes the tile coordinates and the frame region to the fragment shader */
+	private static final String VERTEX_SHADER =
+			"attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+			"attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+			"attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" +
+			"attribute vec4 " + REGION_ATTRIBUTE + ";\n" +
+			"uniform mat4 u_projTrans;\n" +
+			"varying vec4 v_color;\n" +
+			"varying vec2 v_tiles;\n" +
+			"varying vec4 v_region;\n" +
+			"void main() {\n" +
+			"    v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+			"    v_color.a = v_color.a * (255.0/254.0);\n" +
+			"    v_tiles = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" +
+			"    v_region = " + REGION_ATTRIBUTE + ";\n" +
+			"    gl_Position = u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+			"}\n";
+
+	/** Wraps the tile coordinates into the frame region */
+	private static final String FRAGMENT_SHADER =
+			"#ifdef GL_ES\n" +
+			"precision mediump float;\n" +
+			"#endif\n" +
+			"varying vec4 v_color;\n" +
+			"varying vec2 v_tiles;\n" +
+			"varying vec4 v_region;\n" +
+			"uniform sampler2D u_texture;\n" +
+			"void main() {\n" +
+			"    vec2 uv = v_region.xy + fract(v_tiles) * v_region.zw;\n" +
+			"    gl_FragColor = v_color * texture2D(u_texture, uv);\n" +
+			"}\n";
+
+	/** The mesh holding the quads */
+	private Mesh mesh;
+	/** The shader wrapping the tiles */
+	private ShaderProgram shader;
+	/** The vertices of the quads not yet drawn */
+	private float[] vertices;
+	/** The number of floats used in vertices */
+	private int index;
+	/** The texture of the quads not yet drawn */
+	private Texture texture;
+	/** The projection for this pass */
+	private final Matrix4 projection;
+	/** The blend source function for this pass */
+	private int blendSrc;
+	/** The blend destination function for this pass */
+	private int blendDst;
+	/** Whether we are between begin and end */
+	private boolean drawing;
+
+	/**
+	 * Creates a new tile batch, compiling its shader.
+	 */
+	public TileBatch() {
+		mesh = GLResources.get().track(new Mesh(Mesh.VertexDataType.VertexArray, false, 4 * MAX_QUADS, 6 * MAX_QUADS,
+				new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+				new VertexAttribute(Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE),
+				new VertexAttribute(Usage.TextureCoordinates, 2, ShaderProgram.TEXCOORD_ATTRIBUTE + "0"),
+				new VertexAttribute(Usage.Generic, 4, REGION_ATTRIBUTE)));
+
+		short[] indices = new short[6 * MAX_QUADS];
+		for (int ii = 0, vertex = 0; ii < indices.length; ii += 6, vertex += 4) {
+			indices[ii] = (short)vertex;
+			indices[ii + 1] = (short)(vertex + 1);
+			indices[ii + 2] = (short)(vertex + 2);
+			indices[ii + 3] = (short)(vertex + 2);
+			indices[ii + 4] = (short)(vertex + 3);
+			indices[ii + 5] = (short)vertex;
+		}
+		mesh.setIndices(indices);
+
+		shader = GLResources.get().track(new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER));
+		if (!shader.isCompiled()) {
+			throw new GdxRuntimeException("Error compiling tile shader: " + shader.getLog());
+		}
+		vertices = new float[4 * VERTEX_SIZE * MAX_QUADS];
+		projection = new Matrix4();
+		drawing = false;
+	}
+
+	/**
+	 * Returns true if this batch is between begin and end
+	 *
+	 * @return true if this batch is between begin and end
+	 */
+	public boolean isDrawing() {
+		return drawing;
+	}
+
+	/**
+	 * Starts a tile pass with the given projection and blend function
+	 *
+	 * @param projection	The projection matrix
+	 * @param blendSrc		The blend source function
+	 * @param blendDst		The blend destination function
+	 */
+	public void begin(Matrix4 projection, int blendSrc, int blendDst) {
+		if (drawing) {
+			throw new IllegalStateException("TileBatch.end must be called before begin.");
+		}
+		this.projection.set(projection);
+		this.blendSrc = blendSrc;
+		this.blendDst = blendDst;
+		drawing = true;
+	}
+
+	/**
+	 * Draws the region repeated over the given rectangle
+	 *
+	 * The rectangle is rotated about its center.  The region is repeated columns times
+	 * across and rows times up; fractional counts show part of the last tile.
+	 *
+	 * @param region	The texture region to repeat
+	 * @param color		The packed tint color
+	 * @param x			The x-coordinate of the rectangle center
+	 * @param y			The y-coordinate of the rectangle center
+	 * @param width		The rectangle width
+	 * @param height	The rectangle height
+	 * @param angle		The rotation angle (in radians)
+	 * @param columns	The number of tiles across
+	 * @param rows		The number of tiles up
+	 */
+	public void draw(TextureRegion region, float color, float x, float y, float width, float height,
+					 float angle, float columns, float rows) {
+		if (!drawing) {
+			throw new IllegalStateException("TileBatch.begin must be called before draw.");
+		}
+		if (region.getTexture() != texture) {
+			flush();
+			texture = region.getTexture();
+		} else if (index == vertices.length) {
+			flush();
+		}
+
+		float cos = MathUtils.cos(angle);
+		float sin = MathUtils.sin(angle);
+		float hw = width / 2;
+		float hh = height / 2;
+
+		// Texture v runs down the image, so the tiles start from the bottom edge (v2)
+		float u = region.getU();
+		float v = region.getV2();
+		float du = region.getU2() - u;
+		float dv = region.getV() - v;
+
+		vertex(x, y, -hw, -hh, cos, sin, color, 0, 0, u, v, du, dv);
+		vertex(x, y, -hw,  hh, cos, sin, color, 0, rows, u, v, du, dv);
+		vertex(x, y,  hw,  hh, cos, sin, color, columns, rows, u, v, du, dv);
+		vertex(x, y,  hw, -hh, cos, sin, color, columns, 0, u, v, du, dv);
+	}
+
+	/**
+	 * Adds a single vertex to the pending quads
+	 */
+	private void vertex(float x, float y, float dx, float dy, float cos, float sin, float color,
+						float tx, float ty, float u, float v, float du, float dv) {
+		float[] verts = vertices;
+		int idx = index;
+		verts[idx++] = x + dx * cos - dy * sin;
+		verts[idx++] = y + dx * sin + dy * cos;
+		verts[idx++] = color;
+		verts[idx++] = tx;
+		verts[idx++] = ty;
+		verts[idx++] = u;
+		verts[idx++] = v;
+		verts[idx++] = du;
+		verts[idx++] = dv;
+		index = idx;
+	}
+
+	/**
+	 * Draws all pending quads to the graphics card
+	 */
+	public void flush() {
+		if (index == 0) {
+			return;
+		}
+		int quads = index / (4 * VERTEX_SIZE);
+
+		Gdx.gl.glEnable(GL20.GL_BLEND);
+		Gdx.gl.glBlendFunc(blendSrc, blendDst);
+		// A unit of our own, so the sprite batch texture on unit 0 stays bound
+		texture.bind(TEXTURE_UNIT);
+		Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+		shader.bind();
+		shader.setUniformMatrix("u_projTrans", projection);
+		shader.setUniformi("u_texture", TEXTURE_UNIT);
+		mesh.setVertices(vertices, 0, index);
+		mesh.render(shader, GL20.GL_TRIANGLES, 0, 6 * quads);
+		index = 0;
+	}
+
+	/**
+	 * Ends a tile pass, drawing all pending quads
+	 */
+	public void end() {
+		if (!drawing) {
+			throw new IllegalStateException("TileBatch.begin must be called before end.");
+		}
+		flush();
+		texture = null;
+		drawing = false;
+	}
+
+	/**
+	 * Eliminates the mesh and the shader
+	 */
+	public void dispose() {
+		GLResources.get().release(mesh);
+		GLResources.get().release(shader);
+		mesh.dispose();
+		shader.dispose();
+	}
+}
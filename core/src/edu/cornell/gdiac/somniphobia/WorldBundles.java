@@ -0,0 +1,126 @@
+/*
+ * WorldBundles.java
+ *
+ * The art for each world (level backgrounds, level select background and doors) is
+ * too large to keep in memory all at once.  So each world has its own asset bundle,
+ * listed in worlds.json, that is loaded only when the world is needed.  The bundles
+ * are shared through the DirectoryRegistry, which evicts the least recently used
+ * bundles when it goes over its memory budget.
+ *
+ * This class maps worlds and level backgrounds to their bundles.
+ */
+package edu.cornell.gdiac.somniphobia;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonValue;
+import edu.cornell.gdiac.assets.AssetDirectory;
+import edu.cornell.gdiac.assets.DirectoryRegistry;
+
+/**
+ * Class that maps worlds and level backgrounds to their asset bundles.
+ *
+ * Level JSON files refer to a background by index.  Odd indices are the light
+ * background of a world and the following even index is the dark background.
+ * Each world in worlds.json records the index of its light background.
+ *
+ * Users of a bundle should hold it with {@link #swap}, which acquires the new bundle
+ * before releasing the old one (so that a bundle shared by both is never evicted).
+ */
+public class WorldBundles {
+	/** The bundle file for each world */
+	private String[] bundles;
+	/** The light background index of each world */
+	private int[] backgrounds;
+	/** The light background key of each world */
+	private String[] lightKeys;
+	/** The dark background key of each world */
+	private String[] darkKeys;
+
+	/**
+	 * Creates the bundle mapping from the worlds.json directory entry.
+	 *
+	 * @param worlds	The contents of worlds.json
+	 */
+	public WorldBundles(JsonValue worlds) {
+		int size = worlds.size;
+		bundles = new String[size];
+		backgrounds = new int[size];
+		lightKeys = new String[size];
+		darkKeys = new String[size];
+		for(int ii = 0; ii < size; ii++) {
+			JsonValue world = worlds.get("world" + (ii+1));
+			bundles[ii] = world.getString("bundle");
+			backgrounds[ii] = world.getInt("background");
+			lightKeys[ii] = world.getString("backgroundLight");
+			darkKeys[ii] = world.getString("backgroundDark");
+		}
+	}
+
+	/** Returns the number of worlds */
+	public int size() {
+		return bundles.length;
+	}
+
+	/**
+	 * Returns the bundle file for the given world
+	 *
+	 * @param world	The world index (starting at 0)
+	 *
+	 * @return the bundle file for the given world
+	 */
+	public String getBundle(int world) {
+		return bundles[world];
+	}
+
+	/**
+	 * Returns the world that owns the given level background
+	 *
+	 * @param background	The background index from the level JSON (starting at 1)
+	 *
+	 * @return the world that owns the given level background
+	 */
+	public int getBackgroundWorld(int background) {
+		int light = background % 2 == 1 ? background : background-1;
+		for(int ii = 0; ii < backgrounds.length; ii++) {
+			if (backgrounds[ii] == light) {
+				return ii;
+			}
+		}
+		throw new GdxRuntimeException("No world has background "+background);
+	}
+
+	/**
+	 * Returns the given level background from a loaded bundle
+	 *
+	 * @param directory		The bundle for the background's world
+	 * @param background	The background index from the level JSON (starting at 1)
+	 *
+	 * @return the given level background
+	 */
+	public Texture getBackground(AssetDirectory directory, int background) {
+		int world = getBackgroundWorld(background);
+		String key = background % 2 == 1 ? lightKeys[world] : darkKeys[world];
+		return directory.getEntry(key, Texture.class);
+	}
+
+	/**
+	 * Switches a held bundle reference from one bundle to another.
+	 *
+	 * The new bundle is obtained (blocking only if it was never prefetched) before
+	 * the old one is released.  Either bundle may be null.
+	 *
+	 * @param current	The bundle currently held (may be null)
+	 * @param next		The bundle to hold (may be null)
+	 *
+	 * @return the loaded directory for next (or null if next is null)
+	 */
+	public static AssetDirectory swap(String current, String next) {
+		DirectoryRegistry registry = DirectoryRegistry.get();
+		AssetDirectory result = next == null ? null : registry.obtain(next);
+		if (current != null) {
+			registry.release(current);
+		}
+		return result;
+	}
+}
@@ -126,6 +126,10 @@ public abstract class WorldController implements Screen {
 //	private int countdown;
 
 	private boolean pause;
+	/** The jobs animating the objects after each step */
+	protected FrameJobs jobs = new FrameJobs();
+	/** The thread stepping the world (null if the world is stepped on the GL thread) */
+	protected SimulationThread simulation;
 
 	/**
 	 * Returns true if debug mode is active.
@@ -231,6 +235,33 @@ public abstract class WorldController implements Screen {
 		return world;
 	}
 
+	/**
+	 * Returns true if the world is stepped on its own thread
+	 *
+	 * @return true if the world is stepped on its own thread
+	 */
+	public boolean isThreaded() {
+		return simulation != null;
+	}
+
+	/**
+	 * Sets whether the world is stepped on its own thread
+	 *
+	 * In threaded mode, the simulation step (see {@link #simulate}) overlaps with
+	 * drawing the snapshot of the previous step.  This must only be changed between
+	 * frames.
+	 *
+	 * @param value	whether the world is stepped on its own thread
+	 */
+	public void setThreaded(boolean value) {
+		if (value && simulation == null) {
+			simulation = new SimulationThread(this, getDrawListCount());
+		} else if (!value && simulation != null) {
+			simulation.dispose();
+			simulation = null;
+		}
+	}
+
 	/**
 	 * Returns true if this is the active screen
 	 *
@@ -340,6 +371,7 @@ public abstract class WorldController implements Screen {
 	 * Dispose of all (non-static) resources allocated to this mode.
 	 */
 	public void dispose() {
+		setThreaded(false);
 		for(Obstacle obj : objects) {
 			obj.deactivatePhysics(world);
 		}
@@ -435,7 +467,7 @@ public abstract class WorldController implements Screen {
 
 		// Toggle debug
 		if (input.didDebug()) {
-			debug = !debug;
+			setDebug(!debug);
 		}
 
 //		// Toggle sliders
@@ -506,6 +538,9 @@ public abstract class WorldController implements Screen {
 		// Turn the physics engine crank.
 		world.step(WORLD_STEP,WORLD_VELOC,WORLD_POSIT);
 
+		// Advance animations (in parallel batches), as these never touch the world.
+		jobs.animate(objects, dt);
+
 		// Garbage collect the deleted objects.
 		// Note how we use the linked list nodes to delete O(1) in place.
 		// This is O(n) without copying.
@@ -517,12 +552,77 @@ public abstract class WorldController implements Screen {
 				obj.deactivatePhysics(world);
 				entry.remove();
 			} else {
-				// Note that update is called last!
+				// Note that update is called last, one object at a time!
 				obj.update(dt);
 			}
 		}
 	}
 	
+	/**
+	 * Performs one simulation step of this world.
+	 *
+	 * This is the update and the physics step together.  In threaded mode, it is
+	 * called on the simulation thread, so it must not draw, change screens or touch
+	 * anything else owned by the GL thread.
+	 *
+	 * @param dt	Number of seconds since last animation frame
+	 */
+	public void simulate(float dt) {
+		update(dt);
+		if (!(pauseMenuActive() || isFailure() || isComplete())) {
+			postUpdate(dt);
+		}
+	}
+
+	/**
+	 * Applies the results of a simulation step to the GL thread state.
+	 *
+	 * In threaded mode, this is called on the GL thread after each step has finished.
+	 * Subclasses should move any presentation work (e.g. choosing animations or moving
+	 * the camera) out of {@link #update} and into this method when threaded.
+	 *
+	 * @param dt	Number of seconds since last animation frame
+	 */
+	public void present(float dt) {
+	}
+
+	/**
+	 * Returns the number of draw lists in a render snapshot
+	 *
+	 * @return the number of draw lists in a render snapshot
+	 */
+	protected int getDrawListCount() {
+		return 1;
+	}
+
+	/**
+	 * Records the drawable state of this world into a snapshot.
+	 *
+	 * This is called at the end of each simulation step.  The default records every
+	 * object, with all of them in draw list 0.
+	 *
+	 * @param snapshot	The snapshot to record into
+	 */
+	public void capture(RenderSnapshot snapshot) {
+		snapshot.record(objects);
+		snapshot.recordList(0, objects);
+	}
+
+	/**
+	 * Returns the objects to draw for the given draw list.
+	 *
+	 * In threaded mode, this is the list from the latest snapshot.  Otherwise it is
+	 * the live list.
+	 *
+	 * @param index	The draw list index in the snapshot
+	 * @param live	The live list of objects
+	 *
+	 * @return the objects to draw for the given draw list.
+	 */
+	protected Iterable<Obstacle> getDrawList(int index, PooledList<Obstacle> live) {
+		return simulation == null ? live : simulation.getSnapshot().getList(index);
+	}
+
 	/**
 	 * Draw the physics objects to the canvas
 	 *
@@ -537,7 +637,7 @@ public abstract class WorldController implements Screen {
 		canvas.clear();
 
 		canvas.begin();
-		for (Obstacle obj : objects) {
+		for (Obstacle obj : getDrawList(0, objects)) {
 			obj.draw(canvas);
 		}
 		canvas.end();
@@ -628,13 +728,58 @@ public abstract class WorldController implements Screen {
 	 */
 	public void render(float delta) {
 		if (active) {
+			AllocationStats allocation = AllocationStats.get();
+			allocation.begin(AllocationStats.RENDER);
+			if (simulation != null) {
+				renderThreaded(delta);
+				allocation.end(AllocationStats.RENDER);
+				return;
+			}
+			allocation.begin(AllocationStats.UPDATE);
 			if (preUpdate(delta)) {
 				update(delta); // This is the one that must be defined
 				if (!(pauseMenuActive() || isFailure() || isComplete())) {
 					postUpdate(delta);
 				}
 			}
+			allocation.end(AllocationStats.UPDATE);
+			allocation.begin(AllocationStats.DRAW);
 			draw(delta);
+			allocation.end(AllocationStats.DRAW);
+			allocation.end(AllocationStats.RENDER);
+		}
+	}
+
+	/**
+	 * Renders a frame with the simulation on its own thread.
+	 *
+	 * Input is read on the GL thread while the simulation is idle.  The next step then
+	 * runs while the snapshot of the previous step is drawn.  The step is always
+	 * finished before this method returns, so nothing outside of render (audio, screen
+	 * changes, resets) ever runs at the same time as the simulation.
+	 *
+	 * @param delta Number of seconds since last animation frame
+	 */
+	private void renderThreaded(float delta) {
+		boolean stepping = preUpdate(delta) && !(pauseMenuActive() || isFailure() || isComplete());
+		if (!simulation.isValid()) {
+			simulation.refresh();
+		}
+		simulation.getSnapshot().apply();
+
+		if (stepping) {
+			simulation.begin(delta);
+			if (debug) {
+				// Physics outlines read the bodies, so they cannot overlap the step
+				simulation.end();
+			}
+		}
+		AllocationStats.get().begin(AllocationStats.DRAW);
+		draw(delta);
+		AllocationStats.get().end(AllocationStats.DRAW);
+		if (stepping) {
+			simulation.end();
+			present(delta);
 		}
 	}
 
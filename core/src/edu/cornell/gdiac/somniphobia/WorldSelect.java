@@ -27,6 +27,7 @@ import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Button;
@@ -35,6 +36,8 @@ import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import edu.cornell.gdiac.assets.AssetDirectory;
+import edu.cornell.gdiac.assets.DirectoryRegistry;
+import edu.cornell.gdiac.util.GLResources;
 import edu.cornell.gdiac.util.ScreenListener;
 
 /**
@@ -57,6 +60,8 @@ public class WorldSelect implements Screen {
 	private ScreenListener listener;
 	/** Internal assets for this menu screen */
 	private AssetDirectory internal;
+	/** The per-world asset bundles (prefetched when a world is hovered) */
+	private WorldBundles bundles;
 	/** Whether or not this player mode is still active */
 	private boolean active;
 	private Stage stage;
@@ -91,12 +96,11 @@ public class WorldSelect implements Screen {
 		return stage;
 	}
 
-	public WorldSelect(GameCanvas canvas) {
-		internal = new AssetDirectory( "world_select.json" );
-		internal.loadAssets();
-		internal.finishLoading();
+	public WorldSelect(GameCanvas canvas, WorldBundles bundles) {
+		internal = DirectoryRegistry.get().obtain( "world_select.json" );
+		this.bundles = bundles;
 
-		stage = new Stage();
+		stage = GLResources.get().track(new Stage());
 		table = new Table();
 		backgroundDrawable = new TextureRegionDrawable(internal.getEntry("background", Texture.class));
 		titleDrawable = new TextureRegionDrawable(internal.getEntry("title", Texture.class));
@@ -122,6 +126,12 @@ public class WorldSelect implements Screen {
 				public void clicked(InputEvent event, float x, float y) {
 					worldsClicked[saved_i] = true;
 				}
+
+				public void enter(InputEvent event, float x, float y, int pointer, Actor fromActor) {
+					super.enter(event, x, y, pointer, fromActor);
+					// Start decoding the world art before it is clicked
+					DirectoryRegistry.get().prefetch(WorldSelect.this.bundles.getBundle(saved_i));
+				}
 			});
 		}
 
@@ -179,8 +189,9 @@ public class WorldSelect implements Screen {
 	 * Called when this screen should release all resources.
 	 */
 	public void dispose() {
-		internal.unloadAssets();
-		internal.dispose();
+		GLResources.get().release(stage);
+		stage.dispose();
+		DirectoryRegistry.get().release( "world_select.json" );
 	}
 
 	/**
@@ -13,6 +13,8 @@ package edu.cornell.gdiac.somniphobia.game.controllers;
 import com.badlogic.gdx.Preferences;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import edu.cornell.gdiac.audio.AudioEngine;
+import edu.cornell.gdiac.audio.AudioMetrics;
 import edu.cornell.gdiac.audio.MusicController;
 import edu.cornell.gdiac.audio.SoundController;
 
@@ -41,7 +43,9 @@ import edu.cornell.gdiac.assets.AssetDirectory;
 import edu.cornell.gdiac.audio.SoundBuffer;
 import edu.cornell.gdiac.somniphobia.game.models.CharacterModel;
 import edu.cornell.gdiac.somniphobia.game.models.DoorModel;
+import edu.cornell.gdiac.somniphobia.game.models.ParticleModel;
 import edu.cornell.gdiac.somniphobia.game.models.PlatformModel;
+import edu.cornell.gdiac.somniphobia.game.models.PlatformPath;
 import edu.cornell.gdiac.util.*;
 import edu.cornell.gdiac.somniphobia.*;
 import edu.cornell.gdiac.somniphobia.obstacle.*;
@@ -176,8 +180,10 @@ public class LevelController extends WorldController {
 	private TextureRegion backgroundLightTexture;
 	/** Texture asset for level's dark background*/
 	private TextureRegion backgroundDarkTexture;
-	/** Texture assets for backgrounds */
-	private TextureRegion[] backgrounds;
+	/** The per-world asset bundles holding the level backgrounds */
+	private WorldBundles bundles;
+	/** The bundle holding the current level's backgrounds */
+	private String backgroundBundle;
 
 	/** Texture asset for tutorial signs */
 	private TextureRegion[] tutorial_signs;
@@ -215,10 +221,12 @@ public class LevelController extends WorldController {
 	private Vector2 maskOrigin = new Vector2();
 	/** Texture for masking */
 	private TextureRegion circle_mask;
-	/** Texture to cover screen to produce mask effect*/
+	/** Texture to cover screen to produce mask effect (a single texel stretched over the screen) */
 	private Texture alpha_background;
 	/** Buffer used to apply 2 blends to one texture*/
 	private FrameBuffer fbo;
+	/** The resolution scale of the frame buffer (upscaled when composited) */
+	private RenderScale renderScale = new RenderScale(RenderScale.AUTOMATIC);
 	/** Color used for holding hand fade in effect */
 	private Color alphaWhite = new Color(Color.WHITE);
 	/** Alpha value used for `alphaWhite` */
@@ -258,6 +266,15 @@ public class LevelController extends WorldController {
 
 	private MovementController movementController;
 
+	/** The snapshot draw list of the light platforms */
+	private static final int DRAW_LIGHT = 0;
+	/** The snapshot draw list of the dark platforms */
+	private static final int DRAW_DARK = 1;
+	/** The snapshot draw list of the shared objects */
+	private static final int DRAW_SHARED = 2;
+	/** The number of snapshot draw lists */
+	private static final int DRAW_LIST_COUNT = 3;
+
 	/** The current level being played */
 	private int level;
 
@@ -266,6 +283,15 @@ public class LevelController extends WorldController {
 	private JsonValue constants;
 	/** Level constants for initialization */
 	private JsonValue levelAssets;
+	/** The name of the level JSON, used to label benchmark reports */
+	private String levelName;
+	/** The platforms of earlier levels, reused instead of constructed */
+	private final Pool<PlatformModel> platformPool = new Pool<PlatformModel>() {
+		@Override
+		protected PlatformModel newObject() {
+			return new PlatformModel();
+		}
+	};
 	/** Reference to Somni DudeModel*/
 	private CharacterModel somni;
 	/** Reference to Phobia DudeModel*/
@@ -314,6 +340,10 @@ public class LevelController extends WorldController {
 	float maskOffset = 1000;
 	/** Whether or not the mask is in the process of switching*/
 	boolean switching;
+	/** The lead character as of the last step (what draw shows) */
+	private CharacterModel drawLead;
+	/** The avatar as of the last step (what draw shows) */
+	private CharacterModel drawAvatar;
 	/** The character to perform the mask effect from */
 	CharacterModel maskLeader;
 
@@ -352,10 +382,10 @@ public class LevelController extends WorldController {
 	private boolean resumeClicked;
 	private boolean restartClicked;
 	private boolean advanceClicked;
-	private Stage pauseMenuStage = new Stage();
-	private Stage failMenuStage = new Stage();
-	private Stage winMenuStage = new Stage();
-	private Stage pauseButtonStage = new Stage();
+	private Stage pauseMenuStage = GLResources.get().track(new Stage());
+	private Stage failMenuStage = GLResources.get().track(new Stage());
+	private Stage winMenuStage = GLResources.get().track(new Stage());
+	private Stage pauseButtonStage = GLResources.get().track(new Stage());
 	private boolean gameScreenActive = true;
 
 	//END JENNA
@@ -398,6 +428,10 @@ public class LevelController extends WorldController {
 	private TextureRegion blurBackground;
 	private TextureRegionDrawable levelCloudDrawable;
 	private BitmapFont font;
+	/** Title image of the fail window (loaded once) */
+	private Texture failTexture;
+	/** Title image of the win window (loaded once) */
+	private Texture winTexture;
 
 	/** constants for positioning pause menu and pause button */
 	private final int PAUSE_BUTTON_OFFSETX = 400;
@@ -413,6 +447,10 @@ public class LevelController extends WorldController {
 	private final int PAUSE_MENU_POSITION_SCALE = 4;
 	private boolean firstPosition=false;
 	private final int FONT_SIZE = 20;
+	/** Offset of the debug statistics from the top left corner of the screen */
+	private final int DEBUG_TEXT_OFFSET = 20;
+	/** Font scale for the debug statistics */
+	private final float DEBUG_TEXT_SCALE = 0.3f;
 	private final Color BORDER_COLOR = new Color(255f/255f, 176f/255f, 111f/255f, 151f/255f);
 
 	Label.LabelStyle labelStyle;
@@ -428,7 +466,7 @@ public class LevelController extends WorldController {
 
 	private Vector2 cameraCenter;
 	private int cameraDelay = 0;
-	private Stage stage=new Stage();
+	private Stage stage = GLResources.get().track(new Stage());
 
 	/// VARIABLES FOR DRAWING AND ANIMATION OF BACKGROUNDS
 	/** CURRENT image for this background. May change over time. */
@@ -606,7 +644,10 @@ public class LevelController extends WorldController {
 		failMenu.setBackground(blueRectangle);
 		failMenu.setFillParent(true);
 
-		TextureRegionDrawable drawable1 = new TextureRegionDrawable(new Texture(Gdx.files.internal("pause_menu\\dreamfailed.png")));
+		if (failTexture == null) {
+			failTexture = GLResources.get().track(new Texture(Gdx.files.internal("pause_menu\\dreamfailed.png")));
+		}
+		TextureRegionDrawable drawable1 = new TextureRegionDrawable(failTexture);
 		Image img = new Image (drawable1);
 
 		exitButtonFail = new Button(blueExit);
@@ -652,7 +693,10 @@ public class LevelController extends WorldController {
 		winMenu.setBackground(blueRectangle);
 		winMenu.setFillParent(true);
 
-		TextureRegionDrawable drawable1 = new TextureRegionDrawable(new Texture(Gdx.files.internal("pause_menu\\dreamcomplete.png")));
+		if (winTexture == null) {
+			winTexture = GLResources.get().track(new Texture(Gdx.files.internal("pause_menu\\dreamcomplete.png")));
+		}
+		TextureRegionDrawable drawable1 = new TextureRegionDrawable(winTexture);
 		Image img = new Image (drawable1);
 
 		exitButtonWin = new Button(blueExit);
@@ -949,16 +993,18 @@ public class LevelController extends WorldController {
 		Table table = new Table();
 		gameScreenActive = true;
 //		pauseButtonStage = new Stage(new ScreenViewport(camera));
-		//		Creating bmp font from ttf
-		FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal("menu\\Comfortaa.ttf"));
-		FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
-		parameter.size = FONT_SIZE;
-		parameter.color = Color.WHITE;
-		parameter.borderWidth = 5;
-		parameter.borderStraight = false;
-		parameter.borderColor = BORDER_COLOR;
-		font = generator.generateFont(parameter);
-		generator.dispose();
+		//		Creating bmp font from ttf (once, as the font owns its page textures)
+		if (font == null) {
+			FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal("menu\\Comfortaa.ttf"));
+			FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
+			parameter.size = FONT_SIZE;
+			parameter.color = Color.WHITE;
+			parameter.borderWidth = 5;
+			parameter.borderStraight = false;
+			parameter.borderColor = BORDER_COLOR;
+			font = generator.generateFont(parameter);
+			generator.dispose();
+		}
 
 		levelCloud = createImageTextButton(levelCloudDrawable, font, getLevel());
 		pauseButton = new Button(bluePauseButton);
@@ -998,6 +1044,7 @@ public class LevelController extends WorldController {
 	public void gatherAssets(AssetDirectory directory) {
 
 		assets = directory;
+		ParticleModel.gatherAssets(directory);
 		avatarTexture  = new TextureRegion(directory.getEntry("platform:Somni_Idle",Texture.class));
 		combinedTexture = new TextureRegion(directory.getEntry("platform:somni_phobia_stand",Texture.class));
 
@@ -1081,19 +1128,8 @@ public class LevelController extends WorldController {
 		phobiaHandFrontTexture = new TextureRegion(directory.getEntry("platform:phobia_hand_front",Texture.class));
 		phobiaHandBackTexture = new TextureRegion(directory.getEntry("platform:phobia_hand_back",Texture.class));
 
-		backgrounds = new TextureRegion[] {
-				new TextureRegion(directory.getEntry("platform:background_light_forest", Texture.class)),
-				new TextureRegion(directory.getEntry("platform:background_dark_forest", Texture.class)),
-				new TextureRegion(directory.getEntry("platform:background_light_gear", Texture.class)),
-				new TextureRegion(directory.getEntry("platform:background_dark_gear", Texture.class)),
-				new TextureRegion(directory.getEntry("platform:background_light_dreams", Texture.class)),
-				new TextureRegion(directory.getEntry("platform:background_dark_dreams", Texture.class)),
-				new TextureRegion(directory.getEntry("platform:background_light_house", Texture.class)),
-				new TextureRegion(directory.getEntry("platform:background_dark_house", Texture.class)),
-				new TextureRegion(directory.getEntry("platform:background_light_statues", Texture.class)),
-				new TextureRegion(directory.getEntry("platform:background_dark_statues", Texture.class)),
-
-		};
+		// Level backgrounds live in the per-world bundles and are loaded with the level
+		bundles = new WorldBundles(directory.getEntry("worlds", JsonValue.class));
 
 
 		TextureRegion [] somnis = {somniIdleTexture,somniWalkTexture,somniDashSideTexture,somniDashUpTexture, somniFallTexture, somniDashUpTexture};
@@ -1137,6 +1173,15 @@ public class LevelController extends WorldController {
 
 		constants = directory.getEntry( "constants", JsonValue.class );
 
+		// Render scale of the rift passes (0 is automatic), which the player may override
+		Preferences prefs = GDXRoot.getPreferences();
+		float quality = constants.get("defaults").getFloat("renderScale", RenderScale.AUTOMATIC);
+		renderScale.setQuality(prefs != null && prefs.contains("renderScale") ? prefs.getFloat("renderScale") : quality);
+
+		// Whether to step the simulation on its own thread, which the player may override
+		boolean threaded = constants.get("defaults").getBoolean("threaded", false);
+		setThreaded(prefs != null && prefs.contains("threaded") ? prefs.getBoolean("threaded") : threaded);
+
 
 
 
@@ -1197,6 +1242,7 @@ public class LevelController extends WorldController {
 	 * @param filename	Reference to the level JSON.
 	 */
 	public void gatherLevelJson(String filename) {
+		levelName = filename;
 		if(level == 0) { // Get level editor level
 			Preferences prefs = GDXRoot.getPreferences();
 			if(prefs.contains(filename)) {
@@ -1209,6 +1255,20 @@ public class LevelController extends WorldController {
 		}
 	}
 
+	/**
+	 * Sets the level JSON for this controller directly.
+	 *
+	 * This is used to playtest a level from the level editor without saving and
+	 * reparsing it.
+	 *
+	 * @param name	The level name
+	 * @param json	The level JSON
+	 */
+	public void setLevelJson(String name, JsonValue json) {
+		levelName = name;
+		levelAssets = json;
+	}
+
 	/**
 	 * Gather the level JSON for this controller.
 	 *
@@ -1218,7 +1278,8 @@ public class LevelController extends WorldController {
 	 * @param directory	Reference to global asset manager.
 	 */
 	public void gatherLevelJson(AssetDirectory directory, int world) {
-		levelAssets = directory.getEntry( String.format("level%d", level), JsonValue.class);
+		levelName = String.format("level%d", level);
+		levelAssets = directory.getEntry( levelName, JsonValue.class);
 	}
 
 	/** Returns the current level */
@@ -1251,17 +1312,24 @@ public class LevelController extends WorldController {
 
 		gameScreenActive = true;
 		Vector2 gravity = new Vector2(world.getGravity() );
+		// The world is disposed below, which destroys every body in one native call
 		for(Obstacle obj : objects) {
-			obj.deactivatePhysics(world);
+			discardPhysics(obj);
 		}
 		for(Obstacle obj : sharedObjects) {
-			obj.deactivatePhysics(world);
+			discardPhysics(obj);
 		}
 		for(Obstacle obj : darkObjects) {
-			obj.deactivatePhysics(world);
+			discardPhysics(obj);
 		}
 		for(Obstacle obj : lightObjects) {
-			obj.deactivatePhysics(world);
+			discardPhysics(obj);
+		}
+		// Platforms are recycled by the next level
+		for(Obstacle obj : objects) {
+			if (obj instanceof PlatformModel) {
+				platformPool.free((PlatformModel) obj);
+			}
 		}
 		objects.clear();
 		sharedObjects.clear();
@@ -1273,19 +1341,21 @@ public class LevelController extends WorldController {
 		addQueue.clear();
 		world.dispose();
 		disposeStages();
+		GLResources.get().report("level reset");
 
 		world = new World(gravity,false);
 		setComplete(false);
 		setFailure(false);
 		firstTimeRendered=true;
 		populateLevel();
+		FrameStats.get().setSection(levelName == null ? "level "+level : levelName);
 
 		camera = canvas.getCamera();
-		pauseButtonStage = new Stage(new ScreenViewport(camera));
-		pauseMenuStage = new Stage(new ScreenViewport(camera));
-		stage = new Stage(new ScreenViewport(camera));
-		winMenuStage = new Stage(new ScreenViewport(camera));
-		failMenuStage = new Stage(new ScreenViewport(camera));
+		pauseButtonStage = GLResources.get().track(new Stage(new ScreenViewport(camera)));
+		pauseMenuStage = GLResources.get().track(new Stage(new ScreenViewport(camera)));
+		stage = GLResources.get().track(new Stage(new ScreenViewport(camera)));
+		winMenuStage = GLResources.get().track(new Stage(new ScreenViewport(camera)));
+		failMenuStage = GLResources.get().track(new Stage(new ScreenViewport(camera)));
 
 		Camera camera = canvas.getCamera();
 		Vector2 leadPos = somni.getPosition();
@@ -1323,6 +1393,11 @@ public class LevelController extends WorldController {
 		platformController.setDarkObjects(darkObjects);
 		platformController.setSharedObjects(sharedObjects);
 		platformController.setCurrRainingPlatforms(currRainingPlatforms);
+		// Platforms more than a screen away from the camera and characters may sleep
+		float viewWidth = canvas.getWidth() / canvas.PPM;
+		float viewHeight = canvas.getHeight() / canvas.PPM;
+		platformController.setActiveRadius(Math.max(PlatformController.DEFAULT_ACTIVE_RADIUS,
+				(float) Math.sqrt(viewWidth * viewWidth + viewHeight * viewHeight)));
 
 		maskLeader = phobia;
 		switching = false;
@@ -1351,7 +1426,11 @@ public class LevelController extends WorldController {
 			MusicController.getInstance().setVolume(volume, "phobiaTrack");
 		}
 
-
+		drawLead = movementController.getLead();
+		drawAvatar = movementController.getAvatar();
+		if (simulation != null) {
+			simulation.invalidate();
+		}
 	}
 
 //	public void playMusic() {
@@ -1365,6 +1444,22 @@ public class LevelController extends WorldController {
 //		}
 //	}
 
+	/**
+	 * Drops the body of an object whose world is about to be disposed.
+	 *
+	 * Simple obstacles only forget their bodies, instead of destroying them one native
+	 * call at a time.
+	 *
+	 * @param obj	The object to drop from the world
+	 */
+	private void discardPhysics(Obstacle obj) {
+		if (obj instanceof SimpleObstacle) {
+			((SimpleObstacle) obj).abandonPhysics();
+		} else {
+			obj.deactivatePhysics(world);
+		}
+	}
+
 	/**
 	 * Checks the path of a platform for validity
 	 * @param posX The x position of the platform
@@ -1438,39 +1533,42 @@ public class LevelController extends WorldController {
 			JsonValue platformArgs = obj.get("positions");
 			JsonValue pathsArgs = obj.get("paths");
 
+			// Tutorial signs name their texture by index; everything else is a platform
+			JsonValue assetName = obj.get("assetName");
+			int signIndex = assetName != null && assetName.isNumber() ? assetName.asInt() : -1;
+			if (signIndex >= tutorial_signs.length) {
+				signIndex = -1;
+			}
+
 			for (int j = 0; j < platformArgs.size; j++) {
 				float[] bounds = platformArgs.get(j).asFloatArray();
 				float x = bounds[0], y = bounds[1], width = bounds[2], height = bounds[3];
+				// Platforms never change their regions, so they share the level textures
 				TextureRegion newXTexture;
 				TextureRegion crumbleTexture = null;
 				Texture originalTexture = null;
-				try {
-					// temporary - need to refactor asset directory
-					JsonValue assetName = obj.get("assetName");
-					int assetIndex = assetName.asInt();
-					newXTexture = new TextureRegion(tutorial_signs[assetIndex]);
-				} catch(Exception e) {
+				if (signIndex >= 0) {
+					newXTexture = tutorial_signs[signIndex];
+				} else {
 					int platIdx = platformType-1+(property - 1)*3;
 					int crumbleIdx = platIdx + 3;
-					newXTexture = new TextureRegion(xTexture[platIdx]);
+					newXTexture = xTexture[platIdx];
 					originalTexture = newXTexture.getTexture();
 					// For crumble animation
 					if (platIdx > 5) {
-						crumbleTexture = new TextureRegion(xTexture[crumbleIdx]);
-//						crumbleTexture.setRegion(0, 0, width, height);
+						crumbleTexture = xTexture[crumbleIdx];
 					}
 					// If the platform size is the same as the spritesheet size
 					if (originalTexture.getWidth() > 32 && width%(originalTexture.getWidth()/32) == 0) {
-						newXTexture = new TextureRegion(reducedXTexture[platIdx]);
+						newXTexture = reducedXTexture[platIdx];
 						originalTexture = newXTexture.getTexture();
 						if (platIdx > 5) {
-							crumbleTexture = new TextureRegion(reducedXTexture[crumbleIdx]);
-//							crumbleTexture.setRegion(0, 0, width, height);
+							crumbleTexture = reducedXTexture[crumbleIdx];
 						}
 					}
-//					newXTexture.setRegion(0, 0, width, height);
 				}
-				PlatformModel platformModel  = new PlatformModel(bounds, platformType, property, newXTexture, scale,
+				PlatformModel platformModel = platformPool.obtain();
+				platformModel.set(bounds, platformType, property, newXTexture, scale,
 						defaults.getFloat( "density", 0.0f ), defaults.getFloat( "friction", 0.0f ) ,
 						defaults.getFloat( "restitution", 0.0f ), originalTexture, crumbleTexture);
 				platformModel.setTag(platformType);
@@ -1486,16 +1584,11 @@ public class LevelController extends WorldController {
 					//** Moving platform if > 1 path or different path from starting position
 					if (hasValidPath(x, y, paths)) {
 						platformModel.setBodyType(BodyDef.BodyType.KinematicBody);
-						movingObjects.add(platformModel);
-
-						PooledList<Vector2> pathList = new PooledList<>();
-						for (int k = 0; k < paths.length; k+=2) {
-							pathList.add(new Vector2(paths[k], paths[k+1]));
-						}
 						float velocity = 3;
 
 						platformModel.setGravityScale(0);
-						platformModel.setPaths(pathList);
+						platformModel.setPath(new PlatformPath(platformModel.getLeftX(), platformModel.getBottomY(),
+								paths, velocity));
 						platformModel.setVelocity(velocity);
 
 						movingObjects.add(platformModel);
@@ -1509,8 +1602,11 @@ public class LevelController extends WorldController {
 
 		// Set level background index
 		int backgroundTextureIndex = levelAssets.get("background").asInt();
-		backgroundLightTexture = backgrounds[backgroundTextureIndex - 1];
-		backgroundDarkTexture = backgrounds[backgroundTextureIndex];
+		String bundle = bundles.getBundle(bundles.getBackgroundWorld(backgroundTextureIndex));
+		AssetDirectory backgroundAssets = WorldBundles.swap(backgroundBundle, bundle);
+		backgroundBundle = bundle;
+		backgroundLightTexture = new TextureRegion(bundles.getBackground(backgroundAssets, backgroundTextureIndex));
+		backgroundDarkTexture = new TextureRegion(bundles.getBackground(backgroundAssets, backgroundTextureIndex + 1));
 		backgroundTexture = backgroundLightTexture;
 
 		// Initialize background animations
@@ -1681,6 +1777,17 @@ public class LevelController extends WorldController {
 
 	//END JENNA
 
+	/**
+	 * Keeps the moving platforms near the given character awake, if it is active
+	 *
+	 * @param character	The character
+	 */
+	private void addFocus(CharacterModel character) {
+		if (character.isActive()) {
+			platformController.addFocus(character.getX(), character.getY());
+		}
+	}
+
 	/**
 	 * The core gameplay loop of this world.
 	 *
@@ -1694,10 +1801,30 @@ public class LevelController extends WorldController {
 	public void update(float dt) {
 		if (pauseMenuActive() || isComplete() || isFailure()) return;
 		action = movementController.update();
+		platformController.clearFocus();
+		addFocus(somni);
+		addFocus(phobia);
+		addFocus(combined);
+		platformController.addFocus(camera.position.x / canvas.PPM, camera.position.y / canvas.PPM);
 		platformController.update(dt);
+		if (!isThreaded()) {
+			present(dt);
+		}
+	}
 
+	/**
+	 * Chooses the character animations and moves the camera.
+	 *
+	 * This is the part of the update that only affects drawing.  When threaded, it
+	 * runs on the GL thread after the step, so draw never sees it half done.
+	 *
+	 * @param dt	Number of seconds since last animation frame
+	 */
+	public void present(float dt) {
 		CharacterModel lead = movementController.getLead();
 		CharacterModel avatar = movementController.getAvatar();
+		drawLead = lead;
+		drawAvatar = avatar;
 		holdingHands = movementController.isHoldingHands();
 
 		if (movementController.getSwitchedCharacters()) {
@@ -1845,8 +1972,8 @@ public class LevelController extends WorldController {
 
 	private void updateMaskPosition(float maskWidth, float maskHeight, CharacterModel character) {
 		character = holdingHands ? combined : character;
-		float maskX = character.getX() * canvas.PPM + character.getWidth() / 2 - maskWidth / 2;
-		float maskY = character.getY() * canvas.PPM + character.getHeight() / 2 - maskHeight / 2;
+		float maskX = character.getDrawX() * canvas.PPM + character.getWidth() / 2 - maskWidth / 2;
+		float maskY = character.getDrawY() * canvas.PPM + character.getHeight() / 2 - maskHeight / 2;
 		maskOrigin.set(maskX, maskY);
 	}
 
@@ -1893,7 +2020,8 @@ public class LevelController extends WorldController {
 	 * @param character The character whose platforms are being written
 	 */
 	private void writeCharacterPlatform(CharacterModel character, boolean alpha) {
-		PooledList<Obstacle> objects = character.equals(somni) ? lightObjects : darkObjects;
+		Iterable<Obstacle> objects = character.equals(somni) ? getDrawList(DRAW_LIGHT, lightObjects) :
+				getDrawList(DRAW_DARK, darkObjects);
 		fbo.begin();
 		for(Obstacle obj : objects) {
 			canvas.beginCustom(GameCanvas.BlendState.NO_PREMULT, GameCanvas.ChannelState.ALL);
@@ -1930,18 +2058,47 @@ public class LevelController extends WorldController {
 	}
 
 	/**
-	 * Draws the FrameBuffer's contents
+	 * Draws the FrameBuffer's contents, upscaled to fill the screen
 	 * @param blend The blend state to use when drawing
 	 */
 	private void drawFrameBufferContents(GameCanvas.BlendState blend) {
 		canvas.beginCustom(blend, GameCanvas.ChannelState.ALL);
 		Texture fbo_t = fbo.getColorBufferTexture();
 		float fbo_x = camera.position.x - canvas.getWidth() / 2;
-		float fbo_y = camera.position.y - canvas.getHeight() / 2 + fbo_t.getHeight();
-		canvas.draw(fbo_t, Color.WHITE, fbo_x, fbo_y, fbo_t.getWidth(), -fbo_t.getHeight());
+		float fbo_y = camera.position.y - canvas.getHeight() / 2 + canvas.getHeight();
+		canvas.draw(fbo_t, Color.WHITE, fbo_x, fbo_y, canvas.getWidth(), -canvas.getHeight());
 		canvas.endCustom();
 	}
 
+	/**
+	 * Returns the number of draw lists in a render snapshot
+	 *
+	 * @return the number of draw lists in a render snapshot
+	 */
+	protected int getDrawListCount() {
+		return DRAW_LIST_COUNT;
+	}
+
+	/**
+	 * Records the drawable state of this level into a snapshot.
+	 *
+	 * This records every object, along with the light, dark and shared platforms,
+	 * which the platform controller may change during a step.
+	 *
+	 * @param snapshot	The snapshot to record into
+	 */
+	public void capture(RenderSnapshot snapshot) {
+		snapshot.record(objects);
+		snapshot.recordList(DRAW_LIGHT, lightObjects);
+		snapshot.recordList(DRAW_DARK, darkObjects);
+		snapshot.recordList(DRAW_SHARED, sharedObjects);
+	}
+
+	/** Returns the resolution scale of the rift passes */
+	public RenderScale getRenderScale() {
+		return renderScale;
+	}
+
 
 	/**
 	 * Draws everything necessary for the given `character`
@@ -1991,7 +2148,9 @@ public class LevelController extends WorldController {
 		Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
 		pixmap.setColor(Color.CLEAR);
 		pixmap.fillRectangle(0,0, pixmap.getWidth(), pixmap.getHeight());
-		return new Texture(pixmap);
+		Texture texture = new Texture(pixmap);
+		pixmap.dispose();
+		return texture;
 	}
 
 	//Vector2 maskInset = new Vector2(1500, 1500);
@@ -2015,6 +2174,52 @@ public class LevelController extends WorldController {
 		return coversLeft && coversRight && coversBottom && coversTop;
 	}
 
+	/**
+	 * Sets whether debug mode is active.
+	 *
+	 * Audio metrics are only collected in debug mode, as they query OpenAL every frame.
+	 *
+	 * @param value whether debug mode is active.
+	 */
+	@Override
+	public void setDebug(boolean value) {
+		super.setDebug(value);
+		if (Gdx.audio instanceof AudioEngine) {
+			((AudioEngine) Gdx.audio).getMetrics().setEnabled(value);
+		}
+	}
+
+	/**
+	 * Draws the engine health statistics in the top left corner of the screen
+	 *
+	 * This is only shown in debug mode, which is also when audio metrics are collected.
+	 * The allocation line is the bytes allocated by the game thread in the last frame.
+	 *
+	 * @param cameraX The x-coord for the camera origin
+	 * @param cameraY The y-coord for the camera origin
+	 */
+	private void drawDebugStats(float cameraX, float cameraY) {
+		float x = cameraX + DEBUG_TEXT_OFFSET;
+		float y = cameraY + canvas.getHeight() - DEBUG_TEXT_OFFSET;
+		float scaleX = displayFont.getData().scaleX;
+		float scaleY = displayFont.getData().scaleY;
+		displayFont.getData().setScale(DEBUG_TEXT_SCALE);
+		displayFont.setColor(Color.WHITE);
+
+		canvas.begin();
+		if (Gdx.audio instanceof AudioEngine) {
+			AudioMetrics metrics = ((AudioEngine) Gdx.audio).getMetrics();
+			canvas.drawText("Audio: " + metrics, displayFont, x, y);
+			y -= displayFont.getLineHeight();
+		}
+		if (AllocationStats.get().isActive()) {
+			canvas.drawText("Alloc: " + AllocationStats.get(), displayFont, x, y);
+		}
+		canvas.end();
+
+		displayFont.getData().setScale(scaleX, scaleY);
+	}
+
 	/**
 	 * Draw the physics objects together with foreground and background
 	 *
@@ -2025,15 +2230,23 @@ public class LevelController extends WorldController {
 	public void draw(float dt) {
 
 
-		CharacterModel lead = movementController.getLead();
+		CharacterModel lead = drawLead;
 		canvas.clear();
 
 		float cameraX = camera.position.x - canvas.getWidth() / 2;
 		float cameraY = camera.position.y - canvas.getHeight() / 2;
 
-		// Create the frame buffer if uninitialized
-		if (fbo == null) {
-			fbo = new FrameBuffer(Pixmap.Format.RGBA8888, canvas.getWidth(), canvas.getHeight(), false);
+		// (Re)create the frame buffer if uninitialized, or if the window or render scale changed
+		renderScale.update(dt);
+		int fboWidth = renderScale.scaled(canvas.getWidth());
+		int fboHeight = renderScale.scaled(canvas.getHeight());
+		if (fbo == null || fbo.getWidth() != fboWidth || fbo.getHeight() != fboHeight) {
+			if (fbo != null) {
+				GLResources.get().release(fbo);
+				fbo.dispose();
+			}
+			fbo = GLResources.get().track(new FrameBuffer(Pixmap.Format.RGBA8888, fboWidth, fboHeight, false));
+			fbo.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
 		}
 
 		// Draw background
@@ -2044,9 +2257,9 @@ public class LevelController extends WorldController {
 		canvas.draw(backgroundAnimator, Color.WHITE, cameraX, cameraY, canvas.getWidth(), canvas.getHeight());
 		canvas.endCustom();
 
-		// Create alpha background if uninitialized
+		// Create alpha background if uninitialized (it is one color, so one texel is enough)
 		if (alpha_background == null) {
-			alpha_background = createRectangularTexture(canvas.getWidth(), canvas.getHeight());
+			alpha_background = GLResources.get().track(createRectangularTexture(1, 1));
 		}
 
 		CharacterModel follower = lead.equals(phobia) ? somni : phobia;
@@ -2103,7 +2316,8 @@ public class LevelController extends WorldController {
 				// Draw lead platform
 				if (!holdingHands) {
 					canvas.begin();
-					for (Obstacle obj : lead.equals(somni) ? lightObjects : darkObjects) {
+					for (Obstacle obj : lead.equals(somni) ? getDrawList(DRAW_LIGHT, lightObjects) :
+							getDrawList(DRAW_DARK, darkObjects)) {
 						obj.draw(canvas);
 					}
 					canvas.end();
@@ -2125,7 +2339,8 @@ public class LevelController extends WorldController {
 		// Draw light and dark platforms if holding hands
 		if (holdingHands) {
 			canvas.begin();
-			for (Obstacle obj : lead.equals(somni) ? lightObjects : darkObjects) {
+			for (Obstacle obj : lead.equals(somni) ? getDrawList(DRAW_LIGHT, lightObjects) :
+					getDrawList(DRAW_DARK, darkObjects)) {
 				obj.draw(canvas);
 			}
 			canvas.end();
@@ -2136,7 +2351,8 @@ public class LevelController extends WorldController {
 		}
 		alphaWhite.a = alphaAmount;
 		canvas.begin();
-		for (Obstacle obj : follower.equals(somni) ? lightObjects : darkObjects) {
+		for (Obstacle obj : follower.equals(somni) ? getDrawList(DRAW_LIGHT, lightObjects) :
+				getDrawList(DRAW_DARK, darkObjects)) {
 //			((SimpleObstacle) obj).drawWithTint(canvas, alphaWhite);
 			((PlatformModel) obj).drawWithTint(canvas, alphaWhite);
 		}
@@ -2144,7 +2360,7 @@ public class LevelController extends WorldController {
 
 		// Draw shared platforms
 		canvas.begin();
-		for (Obstacle obj : sharedObjects) {
+		for (Obstacle obj : getDrawList(DRAW_SHARED, sharedObjects)) {
 
 			// Ignore characters which we draw separately
 			if (!(obj instanceof CharacterModel)) {
@@ -2255,7 +2471,7 @@ public class LevelController extends WorldController {
 			createPauseButton();
 			firstTimeRenderedPauseButton = false;
 		} else {
-			if (movementController.getAvatar() == somni || movementController.getLead() == somni) {
+			if (drawAvatar == somni || drawLead == somni) {
 				pauseButton.getStyle().up = bluePauseButton;
 			} else {
 				pauseButton.getStyle().up = orangePauseButton;
@@ -2286,6 +2502,7 @@ public class LevelController extends WorldController {
 			}
 			canvas.endDebug();
 
+			drawDebugStats(cameraX, cameraY);
 		}
 
 		// Draw final message when level ends
@@ -2408,7 +2625,50 @@ public class LevelController extends WorldController {
 		}
 	}
 
+	/**
+	 * Dispose of all (non-static) resources allocated to this mode.
+	 */
+	public void dispose() {
+		setDebug(false);
+		GLResources resources = GLResources.get();
+		if (fbo != null) {
+			resources.release(fbo);
+			fbo.dispose();
+			fbo = null;
+		}
+		if (alpha_background != null) {
+			resources.release(alpha_background);
+			alpha_background.dispose();
+			alpha_background = null;
+		}
+		if (failTexture != null) {
+			resources.release(failTexture);
+			failTexture.dispose();
+			failTexture = null;
+		}
+		if (winTexture != null) {
+			resources.release(winTexture);
+			winTexture.dispose();
+			winTexture = null;
+		}
+		if (font != null) {
+			font.dispose();
+			font = null;
+		}
+		WorldBundles.swap(backgroundBundle, null);
+		backgroundBundle = null;
+		disposeStages();
+		platformPool.clear();
+		super.dispose();
+	}
+
 	public void disposeStages() {
+		GLResources resources = GLResources.get();
+		resources.release(pauseMenuStage);
+		resources.release(pauseButtonStage);
+		resources.release(winMenuStage);
+		resources.release(failMenuStage);
+		resources.release(stage);
 		pauseMenuStage.dispose();
 		pauseButtonStage.dispose();
 		winMenuStage.dispose();
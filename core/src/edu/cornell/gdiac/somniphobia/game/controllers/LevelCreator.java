@@ -14,14 +14,20 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonValue;
 import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.StreamUtils;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import edu.cornell.gdiac.assets.AssetDirectory;
 import edu.cornell.gdiac.somniphobia.GDXRoot;
 import edu.cornell.gdiac.somniphobia.GameCanvas;
 import edu.cornell.gdiac.somniphobia.InputController;
+import edu.cornell.gdiac.somniphobia.WorldBundles;
 import edu.cornell.gdiac.somniphobia.WorldController;
 import edu.cornell.gdiac.somniphobia.game.models.CharacterModel;
 import edu.cornell.gdiac.somniphobia.game.models.PlatformModel;
@@ -29,8 +35,11 @@ import edu.cornell.gdiac.somniphobia.obstacle.BoxObstacle;
 import edu.cornell.gdiac.somniphobia.obstacle.Obstacle;
 import edu.cornell.gdiac.somniphobia.obstacle.ObstacleSelector;
 import edu.cornell.gdiac.somniphobia.obstacle.SimpleObstacle;
+import edu.cornell.gdiac.util.GLResources;
 import edu.cornell.gdiac.util.PooledList;
+import edu.cornell.gdiac.util.SaveData;
 
+import java.io.Writer;
 import java.lang.Math;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -67,8 +76,14 @@ public class LevelCreator extends WorldController {
     private Batch batch;
     private TextField movingVelocity;
 
+    /** The per-world asset bundles holding the level backgrounds */
+    private WorldBundles bundles;
+    /** The bundle holding the current background */
+    private String backgroundBundle;
+    /** The index of the background on screen (currBackground, or the one after it) */
+    private int shownBackground;
+
     /** TextureRegion variables */
-    TextureRegion[] backgrounds;
     TextureRegion[] vertices;
     TextureRegion[] special;
     private TextureRegion backgroundTexture;
@@ -134,6 +149,10 @@ public class LevelCreator extends WorldController {
 
     /** Cache for selected obstacle */
     private Obstacle selectedObstacle;
+    /** The obstacle held by the selector in the last update (null if none) */
+    private Obstacle held;
+    /** The obstacles that moved since the last update, and need to be snapped */
+    private ObjectSet<Obstacle> dirty = new ObjectSet<Obstacle>();
     /** Cache for obstacle x position */
     private int obstacleX;
     /** Cache for obstacle y position */
@@ -152,6 +171,8 @@ public class LevelCreator extends WorldController {
     private boolean loading;
     /** Whether or not the play button was pressed */
     private boolean playtesting;
+    /** The message shown under the save and play buttons (empty for none) */
+    private String statusMessage = "";
 
 
     static class Platform extends BoxObstacle {
@@ -290,7 +311,11 @@ public class LevelCreator extends WorldController {
 
 
     public void initialize() {
-        stage = new Stage(new ScreenViewport(canvas.getCamera()));
+        if (stage != null) {
+            GLResources.get().release(stage);
+            stage.dispose();
+        }
+        stage = GLResources.get().track(new Stage(new ScreenViewport(canvas.getCamera())));
         hideDropdowns();
         createSidebar();
         selector= new ObstacleSelector(world,1 ,1);
@@ -298,7 +323,7 @@ public class LevelCreator extends WorldController {
         selector.setTexture(crosshairTexture);
         selector.setDrawScale(scale);
         currBackground = 0;
-        backgroundTexture = backgrounds[currBackground];
+        backgroundTexture = loadBackground(currBackground);
         if(!loading) {
             // Add Somni
             createPlatform(somniTag, SOMNI_DEFAULT_POS[0], SOMNI_DEFAULT_POS[1], CHARACTER_DIMENSIONS[0],
@@ -558,15 +583,25 @@ public class LevelCreator extends WorldController {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 String fileName = String.format("drafts/%s.json", loadPath.getText());
-                LevelSerializer.serialize(fileName, currBackground + 1, worldWidth, worldHeight, platformList, false);
+                LevelSerializer.serialize(fileName, currBackground + 1, worldWidth, worldHeight, platformList);
             }
         });
 
+        final Label statusLabel = new Label(statusMessage, labelStyle);
         ImageTextButton playButton = new ImageTextButton("Play", buttonStyle);
         playButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                LevelSerializer.serialize(null, currBackground + 1, worldWidth, worldHeight, platformList, true);
+                LevelSerializer.Level level = new LevelSerializer.Level(currBackground + 1, worldWidth, worldHeight, platformList);
+                String missing = level.getMissing();
+                if (missing != null) {
+                    statusMessage = "Place " + missing + " to play";
+                    statusLabel.setText(statusMessage);
+                    return;
+                }
+                statusMessage = "";
+                statusLabel.setText(statusMessage);
+                LevelSerializer.playtest(level);
                 playtesting = true;
             }
         });
@@ -585,7 +620,7 @@ public class LevelCreator extends WorldController {
                     reset();
 
                     currBackground = level.background - 1;
-                    backgroundTexture = backgrounds[currBackground];
+                    backgroundTexture = loadBackground(currBackground);
 
                     worldWidth = level.dimensions[0];
                     worldWidthText.setText(String.valueOf(worldWidth));
@@ -620,8 +655,8 @@ public class LevelCreator extends WorldController {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 currBackground += 2;
-                currBackground %= backgrounds.length;
-                backgroundTexture = backgrounds[currBackground];
+                currBackground %= 2*bundles.size();
+                backgroundTexture = loadBackground(currBackground);
             }
         });
 
@@ -678,6 +713,8 @@ public class LevelCreator extends WorldController {
         menuTable.add(saveButton).pad(0, 0, 20, 0);
         menuTable.add(playButton).pad(0, 0, 20, 0);
         menuTable.row();
+        menuTable.add(statusLabel).colspan(3).center();
+        menuTable.row();
         menuTable.add(loadPath).colspan(3).center();
         menuTable.row();
         menuTable.add(button4).colspan(3).center();
@@ -787,6 +824,8 @@ public class LevelCreator extends WorldController {
         objects.clear();
         addQueue.clear();
         platformList.clear();
+        dirty.clear();
+        held = null;
         world.dispose();
 
         world = new World(gravity,false);
@@ -816,9 +855,8 @@ public class LevelCreator extends WorldController {
         }
 
         if(input.didSwitch()) {
-            int backgroundIndex = backgroundTexture.equals(backgrounds[currBackground]) ? currBackground + 1 :
-                    currBackground;
-            backgroundTexture = backgrounds[backgroundIndex];
+            int backgroundIndex = shownBackground == currBackground ? currBackground + 1 : currBackground;
+            backgroundTexture = loadBackground(backgroundIndex);
         }
 
         if(playtesting) {
@@ -826,55 +864,27 @@ public class LevelCreator extends WorldController {
             getListener().exitScreen(this, EXIT_SWITCH);
         }
 
-        for(Obstacle obj : objects) {
-            // Ignore characters which we draw separately
-            if (!(obj instanceof CharacterModel)) {
-                if (!(selector.isSelected() && obj == selector.getObstacle())){
-                    Vector2 pos = obj.getPosition();
-                    float x;
-                    float y;
-                    if(obj instanceof BoxObstacle &&  ((BoxObstacle) obj).getWidth()%2 == 0 && (pos.x) % 1.0f != 0f){
-                        x = (float) (Math.round(pos.x*1d)/1d);
-                    }else if(obj instanceof BoxObstacle && ((BoxObstacle) obj).getWidth()%2 != 0 && pos.x % 1.0f != 0.5f){
-                        x = (float)(Math.round((pos.x+.5f)*1d)/1d)-.5f;
-                    }else{
-                        x = pos.x;
-                    }
-                    if(obj instanceof BoxObstacle &&  ((BoxObstacle) obj).getHeight()%2 != 0 && (pos.y) % 1.0f != 0f){
-                        y = (float) (Math.round((pos.y+.5f)*1d)/1d)-.5f;
-                    }else if(obj instanceof BoxObstacle && ((BoxObstacle) obj).getHeight()%2 == 0 && pos.y % 1.0f != 0.5f){
-                        y = (float)(Math.round(pos.y*1d)/1d) ;
-                    }else{
-                        y = pos.y;
-                    }
-
-                    obj.setPosition(x, y);
-                    for(Platform platform: platformList) {
-                        if(platform.equals(obj)) {
-                            // Map center origin to bottom left
-                            platform.pos[0] = x - platform.pos[2] / 2;
-                            platform.pos[1] = y - platform.pos[3] / 2;
-                            platform.pos[0] = Math.max(0 ,platform.pos[0]);
-                            platform.pos[1] = Math.max(0, platform.pos[1]);
-                        }
-                    }
-                    obj.setVX(0);
-                    obj.setVY(0);
-                    obj.setLinearVelocity(new Vector2(0, 0));
-                    obj.setMass(10000000f);
-                }
-                else {
-                    obj.resetMass();
-                }
-                if(!selector.isSelected()){
-                    obj.getBody().getFixtureList().get(0).setSensor(false);
-                }else{
-                    if(obj != selector.getObstacle() || obj != selectedObstacle){
-                        obj.getBody().getFixtureList().get(0).setSensor(true);
-                    }
+        // Only snap what moved, unless the selection changed
+        Obstacle grabbed = selector.isSelected() ? selector.getObstacle() : null;
+        if (grabbed != held) {
+            held = grabbed;
+            for(Obstacle obj : objects) {
+                dirty.add(obj);
+            }
+        } else {
+            for(Obstacle obj : objects) {
+                if (obj.getBody() != null && obj.getBody().isAwake()) {
+                    dirty.add(obj);
                 }
             }
         }
+        for(Obstacle obj : dirty) {
+            // Ignore characters which we draw separately
+            if (!(obj instanceof CharacterModel) && !obj.isRemoved()) {
+                snap(obj);
+            }
+        }
+        dirty.clear();
 
 
         float newX = Math.max(canvas.getWidth() / 2, camera.position.x +
@@ -890,6 +900,84 @@ public class LevelCreator extends WorldController {
         camera.update();
     }
 
+    /**
+     * Snaps an obstacle to the grid and pins it in place, or frees it if it is held
+     *
+     * While an obstacle is held, every other obstacle is a sensor so that it is not
+     * pushed around by the one being dragged.
+     *
+     * @param obj The obstacle to snap
+     */
+    private void snap(Obstacle obj) {
+        if (obj != held) {
+            Vector2 pos = obj.getPosition();
+            float x;
+            float y;
+            if(obj instanceof BoxObstacle &&  ((BoxObstacle) obj).getWidth()%2 == 0 && (pos.x) % 1.0f != 0f){
+                x = (float) (Math.round(pos.x*1d)/1d);
+            }else if(obj instanceof BoxObstacle && ((BoxObstacle) obj).getWidth()%2 != 0 && pos.x % 1.0f != 0.5f){
+                x = (float)(Math.round((pos.x+.5f)*1d)/1d)-.5f;
+            }else{
+                x = pos.x;
+            }
+            if(obj instanceof BoxObstacle &&  ((BoxObstacle) obj).getHeight()%2 != 0 && (pos.y) % 1.0f != 0f){
+                y = (float) (Math.round((pos.y+.5f)*1d)/1d)-.5f;
+            }else if(obj instanceof BoxObstacle && ((BoxObstacle) obj).getHeight()%2 == 0 && pos.y % 1.0f != 0.5f){
+                y = (float)(Math.round(pos.y*1d)/1d) ;
+            }else{
+                y = pos.y;
+            }
+
+            obj.setPosition(x, y);
+            // Every editor obstacle is its own platform record
+            if(obj instanceof Platform) {
+                Platform platform = (Platform) obj;
+                // Map center origin to bottom left
+                platform.pos[0] = x - platform.pos[2] / 2;
+                platform.pos[1] = y - platform.pos[3] / 2;
+                platform.pos[0] = Math.max(0 ,platform.pos[0]);
+                platform.pos[1] = Math.max(0, platform.pos[1]);
+            }
+            obj.setVX(0);
+            obj.setVY(0);
+            obj.setMass(10000000f);
+        }
+        else {
+            obj.resetMass();
+        }
+        boolean sensor = held != null && !(obj == held && obj == selectedObstacle);
+        obj.getBody().getFixtureList().get(0).setSensor(sensor);
+    }
+
+    /**
+     * Returns the given background, loading its world bundle if necessary
+     *
+     * @param index The background index (starting at 0)
+     *
+     * @return the given background
+     */
+    private TextureRegion loadBackground(int index) {
+        int background = index + 1;
+        String bundle = bundles.getBundle(bundles.getBackgroundWorld(background));
+        AssetDirectory directory = WorldBundles.swap(backgroundBundle, bundle);
+        backgroundBundle = bundle;
+        shownBackground = index;
+        return new TextureRegion(bundles.getBackground(directory, background));
+    }
+
+    /**
+     * Dispose of all (non-static) resources allocated to this mode.
+     *
+     * This releases the world bundle of the current background, so that the
+     * directory registry can evict it.
+     */
+    @Override
+    public void dispose() {
+        WorldBundles.swap(backgroundBundle, null);
+        backgroundBundle = null;
+        super.dispose();
+    }
+
     public void setCanvas(GameCanvas canvas) {
         this.canvas = canvas;
         this.scale.x = canvas.getWidth()/bounds.getWidth();
@@ -930,18 +1018,8 @@ public class LevelCreator extends WorldController {
         sliderBarTexture = directory.getEntry( "platform:sliderbar", Texture.class);
         sliderKnobTexture = directory.getEntry( "platform:sliderknob", Texture.class);
 
-        backgrounds = new TextureRegion[] {
-                new TextureRegion(directory.getEntry("platform:background_light_forest", Texture.class)),
-                new TextureRegion(directory.getEntry("platform:background_dark_forest", Texture.class)),
-                new TextureRegion(directory.getEntry("platform:background_light_gear", Texture.class)),
-                new TextureRegion(directory.getEntry("platform:background_dark_gear", Texture.class)),
-                new TextureRegion(directory.getEntry("platform:background_light_dreams", Texture.class)),
-                new TextureRegion(directory.getEntry("platform:background_dark_dreams", Texture.class)),
-                new TextureRegion(directory.getEntry("platform:background_light_house", Texture.class)),
-                new TextureRegion(directory.getEntry("platform:background_dark_house", Texture.class)),
-                new TextureRegion(directory.getEntry("platform:background_light_statues", Texture.class)),
-                new TextureRegion(directory.getEntry("platform:background_dark_statues", Texture.class)),
-        };
+        // Backgrounds are loaded from the per-world bundles as they are selected
+        bundles = new WorldBundles(directory.getEntry("worlds", JsonValue.class));
         special = new TextureRegion[]{
                 new TextureRegion(directory.getEntry("shared:lightning_cloud_light_single", Texture.class)),
                 new TextureRegion(directory.getEntry("shared:rain_cloud_light_single", Texture.class)),
@@ -957,8 +1035,7 @@ public class LevelCreator extends WorldController {
     }
 
     public static class LevelSerializer {
-
-        private static String getAssetName(int tag) {
+        static String getAssetName(int tag) {
             String assetName = "";
             switch(tag) {
                 case lightTag:
@@ -1034,43 +1111,28 @@ public class LevelCreator extends WorldController {
             private void createLevel(int background, int width, int height, PooledList<Platform> platforms) {
                 this.background = background;
                 this.dimensions = new int[]{width, height};
+                // The asset name is a function of the type, so (type, property) identifies a group
+                LongMap<LevelObject> groups = new LongMap<LevelObject>();
                 for (Platform platform : platforms) {
                     if (platform.type < somniTag) {
                         // Check to see if the platform belongs to a LevelObject group
-                        String assetName = getAssetName(platform.type);
-                        boolean unique = true;
-                        for (LevelObject object : objects) {
-                            if (object.hasInCommon(platform.type, assetName, platform.property)) {
-                                // If so, add it to that group
-                                object.positions.add(platform.pos);
-                                if(platform.path.size() < 2) {
-                                    float[] pos = new float[2];
-                                    pos[0] = platform.pos[0];
-                                    pos[1] = platform.pos[1];
-                                    object.paths.add(pos);
-                                } else {
-                                    object.paths.add(extractPath(platform.path));
-                                }
-                                unique = false;
-                            }
-                        }
-
-                        if (unique) {
+                        long key = groupKey(platform.type, platform.property);
+                        LevelObject object = groups.get(key);
+                        if (object == null) {
                             // If not, create a new LevelObject group for it
-                            ArrayList<float[]> positions = new ArrayList<>();
-                            positions.add(platform.pos);
-                            ArrayList<float[]> path = new ArrayList<>();
-                            if(platform.path.size() < 2) {
-                                float[] pos = new float[2];
-                                pos[0] = platform.pos[0];
-                                pos[1] = platform.pos[1];
-                                path.add(pos);
-                            } else {
-                                path.add(extractPath(platform.path));
-                            }
-                            LevelObject levelObject = new LevelObject(platform.type, assetName, positions, platform.property,
-                                    path);
-                            objects.add(levelObject);
+                            object = new LevelObject(platform.type, getAssetName(platform.type),
+                                    new ArrayList<float[]>(), platform.property, new ArrayList<float[]>());
+                            groups.put(key, object);
+                            objects.add(object);
+                        }
+                        object.positions.add(platform.pos);
+                        if(platform.path.size() < 2) {
+                            float[] pos = new float[2];
+                            pos[0] = platform.pos[0];
+                            pos[1] = platform.pos[1];
+                            object.paths.add(pos);
+                        } else {
+                            object.paths.add(extractPath(platform.path));
                         }
                     } else {
                         // Set our special platforms
@@ -1089,6 +1151,115 @@ public class LevelCreator extends WorldController {
                 }
             }
 
+            /**
+             * Returns the characters and goal that have not been placed
+             *
+             * A level cannot be played without both characters and the goal.
+             *
+             * @return the missing markers (e.g. "Somni and goal"), or null if none are missing
+             */
+            public String getMissing() {
+                ArrayList<String> missing = new ArrayList<String>();
+                if (somni == null) {
+                    missing.add("Somni");
+                }
+                if (phobia == null) {
+                    missing.add("Phobia");
+                }
+                if (goal == null) {
+                    missing.add("the goal");
+                }
+                if (missing.isEmpty()) {
+                    return null;
+                }
+                String result = missing.get(0);
+                for (int ii = 1; ii < missing.size(); ii++) {
+                    result += (ii == missing.size() - 1 ? " and " : ", ") + missing.get(ii);
+                }
+                return result;
+            }
+
+            /**
+             * Returns this level as a JSON tree, in the same layout as a level file
+             *
+             * The tree has its own copies of every value, so it does not change when the
+             * editor moves a platform afterwards.
+             *
+             * @return this level as a JSON tree
+             */
+            public JsonValue toJsonValue() {
+                String missing = getMissing();
+                if (missing != null) {
+                    throw new GdxRuntimeException("The level has no " + missing);
+                }
+                JsonValue root = new JsonValue(JsonValue.ValueType.object);
+                root.addChild("background", new JsonValue(background));
+                root.addChild("dimensions", toJsonArray(dimensions[0], dimensions[1]));
+                root.addChild("somni", toJsonPosition(somni.pos));
+                root.addChild("phobia", toJsonPosition(phobia.pos));
+                root.addChild("goal", toJsonPosition(goal.pos));
+                JsonValue groups = new JsonValue(JsonValue.ValueType.array);
+                for (LevelObject object : objects) {
+                    JsonValue group = new JsonValue(JsonValue.ValueType.object);
+                    group.addChild("type", new JsonValue(object.type));
+                    group.addChild("assetName", new JsonValue(object.assetName));
+                    JsonValue positions = new JsonValue(JsonValue.ValueType.array);
+                    for (float[] pos : object.positions) {
+                        positions.addChild(toJsonArray(pos));
+                    }
+                    group.addChild("positions", positions);
+                    group.addChild("property", new JsonValue(object.property));
+                    JsonValue paths = new JsonValue(JsonValue.ValueType.array);
+                    for (float[] path : object.paths) {
+                        paths.addChild(toJsonArray(path));
+                    }
+                    group.addChild("paths", paths);
+                    groups.addChild(group);
+                }
+                root.addChild("objects", groups);
+                return root;
+            }
+
+            /**
+             * Returns a JSON object with the given position
+             *
+             * @param pos   The position
+             *
+             * @return a JSON object with the given position
+             */
+            private static JsonValue toJsonPosition(float[] pos) {
+                JsonValue value = new JsonValue(JsonValue.ValueType.object);
+                value.addChild("pos", toJsonArray(pos));
+                return value;
+            }
+
+            /**
+             * Returns a JSON array with the given numbers
+             *
+             * @param values    The numbers
+             *
+             * @return a JSON array with the given numbers
+             */
+            private static JsonValue toJsonArray(float... values) {
+                JsonValue array = new JsonValue(JsonValue.ValueType.array);
+                for (float value : values) {
+                    array.addChild(new JsonValue(value));
+                }
+                return array;
+            }
+
+            /**
+             * Returns the grouping key for platforms of the given type and property
+             *
+             * @param type      The platform type
+             * @param property  The platform property
+             *
+             * @return the grouping key
+             */
+            private static long groupKey(int type, int property) {
+                return ((long) type << 32) | (property & 0xffffffffL);
+            }
+
             private Level() { }
 
             public Level(int background, int width, int height, PooledList<Platform> platforms) {
@@ -1146,29 +1317,40 @@ public class LevelCreator extends WorldController {
                 this.property = property;
                 this.paths = paths;
             }
-
-            private Boolean hasInCommon(int type, String assetName, int property) {
-                return this.type == type &&
-                        this.assetName.equals(assetName) &&
-                        this.property == property;
-            }
         }
 
         public static void serialize(String fileName, int levelBackground, int levelWidth, int levelHeight,
-                                     PooledList<Platform> platforms, boolean isEditor) {
+                                     PooledList<Platform> platforms) {
             Level level = new Level(levelBackground, levelWidth, levelHeight, platforms);
             Json json = new Json();
             json.setOutputType(JsonWriter.OutputType.json);
-            String prettyJson = json.prettyPrint(level);
-            System.out.println(prettyJson);
-            if(isEditor) {
-                GDXRoot.setPreferences(GDXRoot.getPreferences().putString("playLevel", prettyJson));
-            } else {
-                FileHandle file = Gdx.files.local(fileName);
-                file.writeString(prettyJson, false);
+            // Stream straight to the file instead of building the whole text first
+            FileHandle file = Gdx.files.local(fileName);
+            Writer writer = file.writer(false);
+            try {
+                json.toJson(level, Level.class, writer);
+            } finally {
+                StreamUtils.closeQuietly(writer);
             }
         }
 
+        /**
+         * Hands the given level straight to the level controller for a playtest
+         *
+         * The level is also saved to the preferences (so it can be loaded again from the
+         * editor).  The write is coalesced by {@link SaveData}, so this does not block on
+         * the disk.  The level must have both characters and the goal (see
+         * {@link Level#getMissing}).
+         *
+         * @param source    The level to play
+         */
+        public static void playtest(Level source) {
+            JsonValue level = source.toJsonValue();
+            GDXRoot.setPlayLevel(level);
+            GDXRoot.getPreferences().putString("playLevel", level.toJson(JsonWriter.OutputType.json));
+            SaveData.get().save();
+        }
+
         public static Level deserialize(String fileName, boolean isEditor) {
             String text;
             try {
@@ -0,0 +1,297 @@
+package edu.cornell.gdiac.somniphobia.game.controllers;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.StreamUtils;
+import edu.cornell.gdiac.somniphobia.game.models.PlatformModel;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Generates synthetic levels for scaling benchmarks.
+ *
+ * The shipped levels are all small, so they say nothing about how level loading, the
+ * physics step, the platform controller or the rift passes scale.  This class writes
+ * levels of any size in the same layout as the level editor (see
+ * {@link LevelCreator.LevelSerializer}), so the benchmark mode can time them like any
+ * other level.
+ *
+ * The world is divided into a grid of cells, and each platform is placed at a random
+ * spot in a random cell, so platforms never overlap and the density is the same
+ * everywhere.  Moving platforms slide back and forth inside their own cell.  Levels
+ * are seeded, so a preset always produces the same level.
+ */
+public class LevelGenerator {
+    /** The width of a grid cell in tiles */
+    public static final int CELL_WIDTH = 12;
+    /** The height of a grid cell in tiles */
+    public static final int CELL_HEIGHT = 4;
+    /** The fraction of grid cells the presets fill with platforms */
+    public static final float PRESET_DENSITY = 0.5f;
+    /** The width to height ratio of the preset worlds (in cells) */
+    public static final int PRESET_ASPECT = 4;
+    /** The platform counts of the presets */
+    public static final int[] PRESET_SIZES = {100, 500, 1000, 5000, 10000, 50000};
+
+    /** The size of a tile in pixels (level dimensions are in pixels) */
+    private static final int TILE_PIXELS = 32;
+    /** The smallest platform width in tiles */
+    private static final int MIN_WIDTH = 2;
+    /** The largest platform width in tiles */
+    private static final int MAX_WIDTH = 6;
+    /** The width of the starting platform in tiles */
+    private static final int START_WIDTH = 8;
+    /** The distance of the goal door from the top right corner in tiles */
+    private static final int GOAL_INSET = 5;
+
+    /**
+     * The parameters of a generated level.
+     *
+     * The type weights do not have to add up to 1; they are normalized.
+     */
+    public static class Settings {
+        /** The level name (also the file name of the presets) */
+        public String name = "generated";
+        /** The number of platforms (including the starting platform) */
+        public int platforms = 100;
+        /** The relative weight of light platforms */
+        public float light = 1;
+        /** The relative weight of dark platforms */
+        public float dark = 1;
+        /** The relative weight of shared platforms */
+        public float shared = 1;
+        /** The fraction of platforms that crumble */
+        public float crumbling = 0.1f;
+        /** The fraction of platforms that move */
+        public float moving = 0.1f;
+        /** The world width in tiles */
+        public int width = 80;
+        /** The world height in tiles */
+        public int height = 24;
+        /** The background index */
+        public int background = 1;
+        /** The random seed */
+        public long seed = 1;
+
+        /**
+         * Returns settings for a world just large enough for the given platforms
+         *
+         * The world is {@link LevelGenerator#PRESET_ASPECT} times wider than it is tall, and has room
+         * for the platforms at {@link LevelGenerator#PRESET_DENSITY}.
+         *
+         * @param name      The level name
+         * @param platforms The number of platforms
+         *
+         * @return settings for a world just large enough for the given platforms
+         */
+        public static Settings sized(String name, int platforms) {
+            Settings settings = new Settings();
+            settings.name = name;
+            settings.platforms = platforms;
+            int cells = (int)Math.ceil(platforms / PRESET_DENSITY);
+            int rows = Math.max(6, (int)Math.ceil(Math.sqrt(cells / (double)PRESET_ASPECT)));
+            int columns = Math.max(6, (cells + rows - 1) / rows);
+            settings.width = columns * CELL_WIDTH;
+            settings.height = rows * CELL_HEIGHT;
+            return settings;
+        }
+    }
+
+    /** The platforms of one type and property, which become one group in the level file */
+    private static class Group {
+        /** The platform type (light, dark or shared) */
+        int type;
+        /** The platform property (normal or crumbling) */
+        int property;
+        /** The platform bounds, packed as x,y,width,height */
+        IntArray bounds = new IntArray();
+        /** The distance each platform moves to the right (0 if it does not move) */
+        IntArray travel = new IntArray();
+    }
+
+    /**
+     * Returns the settings of the benchmark presets, from smallest to largest
+     *
+     * @return the settings of the benchmark presets, from smallest to largest
+     */
+    public static Array<Settings> presets() {
+        Array<Settings> presets = new Array<Settings>();
+        for (int size : PRESET_SIZES) {
+            presets.add(Settings.sized("scale_" + size, size));
+        }
+        return presets;
+    }
+
+    /**
+     * Writes every benchmark preset to the given directory
+     *
+     * Each preset is written to a file with the preset name.
+     *
+     * @param directory The directory to write to
+     */
+    public static void writePresets(FileHandle directory) {
+        for (Settings settings : presets()) {
+            write(settings, directory.child(settings.name + ".json"));
+        }
+    }
+
+    /**
+     * Writes a level with the given settings to a file
+     *
+     * The level is streamed to the file, so even the largest presets are never held
+     * in memory as text.
+     *
+     * @param settings  The level settings
+     * @param file      The file to write to
+     */
+    public static void write(Settings settings, FileHandle file) {
+        Array<Group> groups = generate(settings);
+        Writer writer = file.writer(false);
+        try {
+            JsonWriter json = new JsonWriter(writer);
+            json.setOutputType(JsonWriter.OutputType.json);
+            json.object();
+            json.set("background", settings.background);
+            json.array("dimensions").value(settings.width * TILE_PIXELS).value(settings.height * TILE_PIXELS).pop();
+            writePosition(json, "somni", 1, 1);
+            writePosition(json, "phobia", 3, 1);
+            writePosition(json, "goal", settings.width - GOAL_INSET, settings.height - GOAL_INSET);
+            json.array("objects");
+            for (Group group : groups) {
+                json.object();
+                json.set("type", group.type);
+                json.set("assetName", LevelCreator.LevelSerializer.getAssetName(group.type));
+                json.array("positions");
+                for (int ii = 0; ii < group.bounds.size; ii += 4) {
+                    json.array();
+                    for (int jj = 0; jj < 4; jj++) {
+                        json.value(group.bounds.get(ii + jj));
+                    }
+                    json.pop();
+                }
+                json.pop();
+                json.set("property", group.property);
+                json.array("paths");
+                for (int ii = 0; ii < group.travel.size; ii++) {
+                    int x = group.bounds.get(4 * ii), y = group.bounds.get(4 * ii + 1);
+                    json.array().value(x).value(y);
+                    if (group.travel.get(ii) > 0) {
+                        json.value(x + group.travel.get(ii)).value(y);
+                    }
+                    json.pop();
+                }
+                json.pop();
+                json.pop();
+            }
+            json.pop();
+            json.pop();
+            json.flush();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not write level " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(writer);
+        }
+    }
+
+    /**
+     * Returns the platforms of a level with the given settings, grouped for the level file
+     *
+     * @param settings  The level settings
+     *
+     * @return the platforms of a level with the given settings
+     */
+    private static Array<Group> generate(Settings settings) {
+        int columns = settings.width / CELL_WIDTH;
+        int rows = settings.height / CELL_HEIGHT;
+        int cells = columns * rows;
+        if (settings.platforms < 1 || settings.platforms > cells) {
+            throw new GdxRuntimeException("Cannot fit " + settings.platforms + " platforms in a " +
+                    settings.width + "x" + settings.height + " world (room for " + cells + ")");
+        }
+        float total = settings.light + settings.dark + settings.shared;
+        if (total <= 0) {
+            throw new GdxRuntimeException("The platform type weights must not all be zero");
+        }
+
+        RandomXS128 random = new RandomXS128(settings.seed);
+        Array<Group> groups = new Array<Group>();
+
+        // The characters start on a shared platform in the bottom left cell
+        add(groups, PlatformModel.shared, PlatformModel.normal, 0, 0, START_WIDTH, 0);
+
+        // Pick the other cells by a partial shuffle (cell 0 is the start)
+        int[] order = new int[cells - 1];
+        for (int ii = 0; ii < order.length; ii++) {
+            order[ii] = ii + 1;
+        }
+        for (int ii = 0; ii < settings.platforms - 1; ii++) {
+            int jj = ii + random.nextInt(order.length - ii);
+            int cell = order[jj];
+            order[jj] = order[ii];
+            order[ii] = cell;
+
+            float pick = random.nextFloat() * total;
+            int type = pick < settings.light ? PlatformModel.light :
+                    pick < settings.light + settings.dark ? PlatformModel.dark : PlatformModel.shared;
+            int property = random.nextFloat() < settings.crumbling ? PlatformModel.crumbling : PlatformModel.normal;
+
+            int width = MIN_WIDTH + random.nextInt(MAX_WIDTH - MIN_WIDTH + 1);
+            int slack = CELL_WIDTH - width;
+            int travel = 0;
+            if (random.nextFloat() < settings.moving) {
+                travel = 1 + random.nextInt(slack);
+                slack -= travel;
+            }
+            int x = (cell % columns) * CELL_WIDTH + random.nextInt(slack + 1);
+            int y = (cell / columns) * CELL_HEIGHT + random.nextInt(CELL_HEIGHT - 1);
+            add(groups, type, property, x, y, width, travel);
+        }
+        return groups;
+    }
+
+    /**
+     * Adds a platform to the group for its type and property
+     *
+     * @param groups    The platform groups
+     * @param type      The platform type
+     * @param property  The platform property
+     * @param x         The left edge in tiles
+     * @param y         The bottom edge in tiles
+     * @param width     The width in tiles
+     * @param travel    The distance the platform moves to the right (0 if it does not move)
+     */
+    private static void add(Array<Group> groups, int type, int property, int x, int y, int width, int travel) {
+        Group group = null;
+        for (Group candidate : groups) {
+            if (candidate.type == type && candidate.property == property) {
+                group = candidate;
+                break;
+            }
+        }
+        if (group == null) {
+            group = new Group();
+            group.type = type;
+            group.property = property;
+            groups.add(group);
+        }
+        group.bounds.add(x, y, width, 1);
+        group.travel.add(travel);
+    }
+
+    /**
+     * Writes a JSON object with the given position
+     *
+     * @param json  The JSON writer
+     * @param name  The object name
+     * @param x     The x-coordinate in tiles
+     * @param y     The y-coordinate in tiles
+     */
+    private static void writePosition(JsonWriter json, String name, int x, int y) throws IOException {
+        json.object(name).array("pos").value(x).value(y).pop().pop();
+    }
+}
@@ -4,6 +4,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Filter;
 import edu.cornell.gdiac.somniphobia.WorldController;
 import edu.cornell.gdiac.somniphobia.game.models.PlatformModel;
+import edu.cornell.gdiac.somniphobia.game.models.PlatformPath;
 import edu.cornell.gdiac.somniphobia.obstacle.*;
 import edu.cornell.gdiac.util.*;
 
@@ -58,7 +59,22 @@ public class PlatformController {
 
     /** Vector2 cache */
     private Vector2 vector;
-    private Vector2 vector2;
+
+    /** The default distance (in world units) within which moving platforms are simulated */
+    public static final float DEFAULT_ACTIVE_RADIUS = 24;
+    /** The extra distance a platform must go past the active radius to fall asleep */
+    private static final float SLEEP_MARGIN = 2;
+    /** The largest number of focus points */
+    private static final int MAX_FOCUS = 4;
+
+    /** The distance (in world units) within which moving platforms are simulated */
+    private float activeRadius = DEFAULT_ACTIVE_RADIUS;
+    /** The points that keep nearby moving platforms awake */
+    private Vector2[] focus;
+    /** The number of focus points this frame */
+    private int focusCount;
+    /** The simulation time, advanced one physics step per update */
+    private float clock;
 
 
     /**
@@ -87,7 +103,10 @@ public class PlatformController {
         Filter [] fs = {lightplatf, darkplatf, allf, somnif, phobiaf, combinedf};
         filters = fs;
         vector = new Vector2();
-        vector2 = new Vector2();
+        focus = new Vector2[MAX_FOCUS];
+        for (int ii = 0; ii < MAX_FOCUS; ii++) {
+            focus[ii] = new Vector2();
+        }
     }
 
 
@@ -153,38 +172,130 @@ public class PlatformController {
         this.movingObjects = movingObjects;
     }
 
+    /**
+     * Sets the distance within which moving platforms are simulated
+     *
+     * @param radius    The active radius in world units
+     */
+    public void setActiveRadius(float radius) {
+        activeRadius = radius;
+    }
+
+    /**
+     * Returns the distance within which moving platforms are simulated
+     *
+     * @return the active radius in world units
+     */
+    public float getActiveRadius() {
+        return activeRadius;
+    }
+
+    /**
+     * Removes all focus points
+     *
+     * With no focus points, every moving platform is simulated.
+     */
+    public void clearFocus() {
+        focusCount = 0;
+    }
+
+    /**
+     * Adds a point that keeps nearby moving platforms awake this frame
+     *
+     * @param x the x-coordinate in world units
+     * @param y the y-coordinate in world units
+     */
+    public void addFocus(float x, float y) {
+        if (focusCount < MAX_FOCUS) {
+            focus[focusCount++].set(x, y);
+        }
+    }
+
+    /**
+     * Returns the distance from the given platform center to the nearest focus point
+     *
+     * The distance is measured to the edge of the platform, not its center.
+     *
+     * @param platform  The platform
+     * @param x         The x-coordinate of the platform center
+     * @param y         The y-coordinate of the platform center
+     *
+     * @return the distance to the nearest focus point
+     */
+    private float focusDistance(PlatformModel platform, float x, float y) {
+        if (focusCount == 0) {
+            return 0;
+        }
+        float best = Float.MAX_VALUE;
+        for (int ii = 0; ii < focusCount; ii++) {
+            best = Math.min(best, focus[ii].dst(x, y));
+        }
+        float extent = 0.5f * Math.max(platform.getWidth(), platform.getHeight());
+        return Math.max(0, best - extent);
+    }
+
+    /**
+     * Updates whether a moving platform is asleep, and returns true if it is awake
+     *
+     * A sleeping platform is only checked against how far it could have moved since
+     * it fell asleep.  Once it could be back in range, it is moved to its position
+     * on the path, and woken up if it really is in range.
+     *
+     * @param platform  The moving platform
+     *
+     * @return true if the platform is awake
+     */
+    private boolean updateSleep(PlatformModel platform) {
+        PlatformPath path = platform.getPath();
+        if (platform.isAsleep()) {
+            // It cannot have moved farther than speed times time
+            float bound = path.getSpeed() * (clock - platform.getSleepTime());
+            if (focusDistance(platform, platform.getSleepX(), platform.getSleepY()) - bound > activeRadius) {
+                return false;
+            }
+            path.getPosition(path.getTime(), vector);
+            platform.setX(vector.x + platform.getWidth()/2);
+            platform.setY(vector.y + platform.getHeight()/2);
+            if (focusDistance(platform, platform.getX(), platform.getY()) > activeRadius) {
+                platform.sleep(clock);
+                return false;
+            } else if (platform.isCurrentlyRaining()) {
+                // Leave it inactive until it respawns
+                return false;
+            }
+            platform.wake();
+        } else if (focusDistance(platform, platform.getX(), platform.getY()) > activeRadius + SLEEP_MARGIN) {
+            platform.sleep(clock);
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Updates platform states
+     *
+     * Moving platforms follow their path exactly.  Each step, the velocity is set so
+     * that the platform lands on its path position at the end of the next physics step.
+     *
+     * Moving platforms farther than the active radius from every focus point are put
+     * to sleep.  A sleeping platform has an inactive body, but its path time still moves
+     * forward, so it is in the right place when it wakes up.
      */
     public void update(float dt){
+        clock += WorldController.WORLD_STEP;
 
         for (Obstacle obstacle : movingObjects) {
             PlatformModel platform = (PlatformModel) obstacle;
-            Vector2 position = vector.set(platform.getLeftX(), platform.getBottomY());;
-            PooledList<Vector2> paths = platform.getPaths();
-            Vector2 nextDestination = paths.getHead();
-
-            //if overshot (destination - position opposite sign as velocity), switch destination
-            if (!obstacle.getLinearVelocity().isZero() && (Math.signum(nextDestination.x - position.x)
-                    != Math.signum(platform.getLinearVelocity().x) ||
-                    Math.signum(nextDestination.y - position.y) != Math.signum(platform.getLinearVelocity().y))) {
-                position.set(nextDestination);
-                platform.setVY(0);
-                platform.setVX(0);
-                platform.setX(position.x + platform.getWidth()/2);
-                platform.setY(position.y + platform.getHeight()/2);
+            PlatformPath path = platform.getPath();
+            boolean awake = updateSleep(platform);
+            path.advance(WorldController.WORLD_STEP);
+            if (!awake) {
+                continue;
             }
 
-            // Switch destination if arrived
-            if (position.equals(nextDestination)) {
-                paths.add(paths.poll());
-                nextDestination = paths.getHead();
-            }
-
-            Vector2 nextPath = vector2.set(nextDestination).sub(position).nor();
-            if (nextPath.isZero()) platform.setVelocity(0);
-            platform.setLinearVelocity(nextPath.scl(platform.getVelocity()));
-
+            Vector2 target = path.getPosition(path.getTime(), vector);
+            target.sub(platform.getLeftX(), platform.getBottomY()).scl(1/WorldController.WORLD_STEP);
+            platform.setLinearVelocity(target);
         }
 
         Iterator<Obstacle> currRainingPlatIt = currRainingPlatforms.iterator();
@@ -229,7 +340,10 @@ public class PlatformController {
                     default:
                         break;
                 }
-                platform.setActive(true);
+                // A sleeping platform stays inactive; updateSleep wakes it when in range
+                if (!platform.isAsleep()) {
+                    platform.setActive(true);
+                }
                 platform.setCurrentlyRaining(false);
                 platform.setRainingCooldown(rainingCooldown);
             } else {
@@ -241,10 +241,8 @@ public class CharacterModel extends CapsuleObstacle {
 //		dashCooldown = 0;
 		setName("dude");
 
-		somniDust = new ParticleModel();
-		somniDust.create();
-		phobiaDust = new ParticleModel();
-		phobiaDust.create("platform/phobiaDustEmitter", "platform/");
+		somniDust = new ParticleModel(ParticleModel.DUST);
+		phobiaDust = new ParticleModel(ParticleModel.PHOBIA_DUST);
 	}
 
 	/**
@@ -791,14 +789,13 @@ public class CharacterModel extends CapsuleObstacle {
 	}
 
 	/**
-	 * Updates the object's physics state (NOT GAME LOGIC).
+	 * Advances the animation frames and cooldowns.
 	 *
-	 * We use this method to reset cooldowns and states.
+	 * This touches nothing but this character, so it may run on a worker thread.
 	 *
 	 * @param dt	Number of seconds since last animation frame
 	 */
-	public void update(float dt) {
-
+	public void animate(float dt) {
 		// Increase animation frame
 		animeframe += animationSpeed;
 		if (animeframe >= numAnimFrames) {
@@ -825,6 +822,17 @@ public class CharacterModel extends CapsuleObstacle {
 		} else {
 			jumpCooldown = Math.max(0, jumpCooldown - 1);
 		}
+	}
+
+	/**
+	 * Updates the object's physics state (NOT GAME LOGIC).
+	 *
+	 * We use this method to damp dashes and reset states.  It runs after
+	 * {@link #animate}, one object at a time, as it changes the body.
+	 *
+	 * @param dt	Number of seconds since last animation frame
+	 */
+	public void update(float dt) {
 
 //		if (isDashing()) {
 //			dashCooldown = jumpLimit;
@@ -862,51 +870,75 @@ public class CharacterModel extends CapsuleObstacle {
 		super.update(dt);
 	}
 
+	/**
+	 * Stores the animation state of this character in a render snapshot.
+	 *
+	 * The channels are the main frame, the second frame, the ring frame and the facing.
+	 *
+	 * @param out		The snapshot animation array
+	 * @param offset	The first index for this object
+	 */
+	public void getAnimationState(float[] out, int offset) {
+		out[offset  ] = animeframe;
+		out[offset+1] = animeFrameTwo;
+		out[offset+2] = animeframeRing;
+		out[offset+3] = faceRight ? 1 : 0;
+	}
+
 	/**
 	 * Draws the physics object.
 	 *
 	 * @param canvas Drawing context
 	 */
 	public void draw(GameCanvas canvas, Color tint) {
-		float effect = faceRight ? -1.0f : 1.0f;
-		animator.setFrame((int)animeframe);
-		canvas.draw(animator, tint, origin.x + xOffset, origin.y + yOffset,getX()*drawScale.x,getY()*drawScale.y,getAngle(),
+		float x = getDrawX()*drawScale.x;
+		float y = getDrawY()*drawScale.y;
+		float rotation = getDrawAngle();
+		float ring = getDrawAnimation(2, animeframeRing);
+		boolean right = getDrawAnimation(3, faceRight ? 1 : 0) != 0;
+		float effect = right ? -1.0f : 1.0f;
+		animator.setFrame((int)getDrawAnimation(0, animeframe));
+		canvas.draw(animator, tint, origin.x + xOffset, origin.y + yOffset,x,y,rotation,
 				effect, 1.0f);
 
 		// for handholding
 		if (textureTwo!=null && textureThree !=null) {
-			animatorTwo.setFrame((int)animeFrameTwo);
+			animatorTwo.setFrame((int)getDrawAnimation(1, animeFrameTwo));
 			// draw the second character
-			canvas.draw(animatorTwo, Color.WHITE, origin2.x+xOffset2, origin2.y+yOffset2,getX()*drawScale.x,getY()*drawScale.y,getAngle(),
+			canvas.draw(animatorTwo, Color.WHITE, origin2.x+xOffset2, origin2.y+yOffset2,x,y,rotation,
 					effect, 1.0f);
 			// draw the hands
-			canvas.draw(textureThree, Color.WHITE, origin.x+ xOffset3, origin.y+ yOffset3, getX()*drawScale.x,getY()*drawScale.y,getAngle(),
+			canvas.draw(textureThree, Color.WHITE, origin.x+ xOffset3, origin.y+ yOffset3, x,y,rotation,
 					effect, 1.0f);
 		}
 
 		// for propelling / dashing
-		if (textureTwo!=null && textureThree ==null && animeframeRing>=0 && animeframeRing <=6) {
-			animatorTwo.setFrame((int)animeframeRing);
+		if (textureTwo!=null && textureThree ==null && ring>=0 && ring <=6) {
+			animatorTwo.setFrame((int)ring);
 			// draw the blue ring animation
-			canvas.draw(animatorTwo, Color.WHITE, origin2.x+xOffset2, origin2.y+yOffset2+60,getX()*drawScale.x,getY()*drawScale.y,angle,
+			canvas.draw(animatorTwo, Color.WHITE, origin2.x+xOffset2, origin2.y+yOffset2+60,x,y,angle,
 					effect, 1.0f);
 		}
 		if (textureTwo==null && textureThree !=null) {
 			// draw the reaching out hand (can-hold-hand indicator)
-			canvas.draw(textureThree, Color.WHITE, origin.x+ xOffset3, origin.y+ yOffset3, getX()*drawScale.x,getY()*drawScale.y,getAngle(),
+			canvas.draw(textureThree, Color.WHITE, origin.x+ xOffset3, origin.y+ yOffset3, x,y,rotation,
 					effect, 1.0f);
 		}
 
 		// Particle effects
+		float dustY = (getDrawY() - 0.5f*this.getHeight())*drawScale.y;
 		if (type) {
-			somniDust.render(getX()*drawScale.x, (getY() - 0.5f*this.getHeight())*drawScale.y, canvas.getBatch());
+			somniDust.render(x, dustY, canvas.getBatch());
 		}
 		else {
-			phobiaDust.render(getX()*drawScale.x, (getY() - 0.5f*this.getHeight())*drawScale.y, canvas.getBatch());
+			phobiaDust.render(x, dustY, canvas.getBatch());
 		}
 		if (this.isGrounded() && getMovement() != 0) {
-			somniDust.startParticles();
-			phobiaDust.startParticles();
+			if (type) {
+				somniDust.startParticles();
+			} else {
+				phobiaDust.startParticles();
+			}
 		}
 	}
 
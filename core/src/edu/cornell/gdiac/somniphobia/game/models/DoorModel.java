@@ -23,14 +23,13 @@ public class DoorModel extends BoxObstacle {
     public DoorModel(float gX, float gY, float gWidth, float gHeight){
         super(gX, gY, gWidth, gHeight);
 
-        this.flame = new ParticleModel();
-        flame.create("platform/doorParticleEmitter", "platform/");
+        this.flame = new ParticleModel(ParticleModel.DOOR);
         flame.scaleParticles(2);
     }
 
     public void draw(GameCanvas canvas) {
         flame.startParticles();
-        flame.render(getX()*drawScale.x, getY()*drawScale.y, canvas.getBatch(), 0.016f);
+        flame.render(getDrawX()*drawScale.x, getDrawY()*drawScale.y, canvas.getBatch(), 0.016f);
         super.draw(canvas);
     }
 
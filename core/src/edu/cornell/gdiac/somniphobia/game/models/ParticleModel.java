@@ -2,32 +2,70 @@ package edu.cornell.gdiac.somniphobia.game.models;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.*;
-import com.badlogic.gdx.math.*;
 import com.badlogic.gdx.graphics.*;
-import com.badlogic.gdx.physics.box2d.*;
 
-import com.badlogic.gdx.utils.JsonValue;
-import edu.cornell.gdiac.somniphobia.*;
-import edu.cornell.gdiac.somniphobia.obstacle.*;
-import edu.cornell.gdiac.util.FilmStrip;
+import com.badlogic.gdx.utils.ObjectMap;
+import edu.cornell.gdiac.assets.AssetDirectory;
 
 /**
  * Player running dust particles for the plaform game.
  *
+ * Each kind of effect is loaded once by the asset directory, and used as the prototype
+ * of a {@link ParticleEffectPool}.  A particle model only takes an effect from the pool
+ * when it is started, and gives it back once the effect is complete.  So a model that
+ * is never started allocates nothing.
  */
 
 public class ParticleModel {
+    /** Running dust for Somni */
+    public static final String DUST = "particles:dust";
+    /** Running dust for Phobia */
+    public static final String PHOBIA_DUST = "particles:phobia_dust";
+    /** Sparkles around the goal door */
+    public static final String DOOR = "particles:door";
+
+    /** The effects that may be pooled */
+    private static final String[] EFFECTS = { DUST, PHOBIA_DUST, DOOR };
+    /** The largest number of idle effects kept in each pool */
+    private static final int POOL_CAPACITY = 8;
+
+    /** The effect pools, keyed by asset name */
+    private static ObjectMap<String, ParticleEffectPool> pools = new ObjectMap<String, ParticleEffectPool>();
+
+    /** The pool for this model (null if the effect was not loaded) */
+    private ParticleEffectPool pool;
+    /** Effect object used for creating the particles (null if not started) */
+    private ParticleEffectPool.PooledEffect effect;
+    /** The factor to scale particles by */
+    private float scale;
 
-    /** Batch for drawing */
-    private SpriteBatch batch;
-    /** Effect object used for creating the particles */
-    private ParticleEffect effect;
+    /**
+     * Creates the effect pools from the prototypes in the given asset directory
+     *
+     * This should be called once the directory is loaded, and before any models are
+     * created.  Effects that are missing from the directory are left out; models of
+     * those effects draw nothing.
+     *
+     * @param directory Reference to global asset manager.
+     */
+    public static void gatherAssets(AssetDirectory directory) {
+        pools.clear();
+        for (String name : EFFECTS) {
+            if (directory.hasEntry(name, ParticleEffect.class)) {
+                ParticleEffect prototype = directory.getEntry(name, ParticleEffect.class);
+                pools.put(name, new ParticleEffectPool(prototype, 1, POOL_CAPACITY));
+            }
+        }
+    }
 
     /**
      * Constructor for the particle model
      *
+     * @param name the asset name of the effect
      */
-    public ParticleModel() {
+    public ParticleModel(String name) {
+        pool = pools.get(name);
+        scale = 1;
     }
 
     /**
@@ -38,11 +76,7 @@ public class ParticleModel {
      *
      */
     public void render(float x, float y, Batch batch) {
-        effect.setPosition(x, y);
-        effect.update(Gdx.graphics.getDeltaTime());
-//        System.out.println(Gdx.graphics.getDeltaTime());
-
-        effect.draw(batch);
+        render(x, y, batch, Gdx.graphics.getDeltaTime());
     }
 
     /**
@@ -53,62 +87,60 @@ public class ParticleModel {
      *
      */
     public void renderTint(float x, float y, Batch batch, Color tint) {
+        if (effect == null) {
+            return;
+        }
         batch.setColor(tint);
-        effect.setPosition(x, y);
-        effect.update(Gdx.graphics.getDeltaTime());
-
-        effect.draw(batch);
+        render(x, y, batch, Gdx.graphics.getDeltaTime());
         batch.setColor(Color.WHITE);
     }
 
     /**
      * Draws the particles onto the screen but you can add your own dt
      *
+     * Once the effect is complete, it is returned to its pool.
+     *
      * @param x the x coordinate for the particle origin
      * @param y the y coordinate for the particle origin
      * @param dt the time change
      *
      */
     public void render(float x, float y, Batch batch, float dt) {
+        if (effect == null) {
+            return;
+        }
         effect.setPosition(x, y);
         effect.update(dt);
 
         effect.draw(batch);
+        if (effect.isComplete()) {
+            hide();
+        }
     }
 
     /**
-     * Initializes the effect for particles
-     */
-    public void create() {
-        batch = new SpriteBatch();
-
-        effect = new ParticleEffect();
-        effect.load(Gdx.files.internal("platform/particleEmitter"),
-                Gdx.files.internal("platform/"));
-    }
-
-    /**
-     * Initializes the effect for particles by specifying the emitter
-     * and particle paths
-     */
-    public void create(String emitterPath, String particlePath) {
-        batch = new SpriteBatch();
-
-        effect = new ParticleEffect();
-        effect.load(Gdx.files.internal(emitterPath),
-                Gdx.files.internal(particlePath));
-    }
-
-    /**
-     * Removes the particles from the screen
+     * Removes the particles from the screen, returning the effect to its pool
      */
     public void hide() {
+        if (effect != null) {
+            effect.free();
+            effect = null;
+        }
     }
 
     /**
-     * Starts a particle effect
+     * Starts a particle effect, taking one from the pool if necessary
      */
     public void startParticles() {
+        if (pool == null) {
+            return;
+        } else if (effect == null) {
+            // Pooled effects come back with their scale reset
+            effect = pool.obtain();
+            if (scale != 1) {
+                effect.scaleEffect(scale);
+            }
+        }
         effect.start();
     }
 
@@ -119,18 +151,10 @@ public class ParticleModel {
      *
      */
     public void scaleParticles(float scaleFactor) {
-        effect.scaleEffect(scaleFactor);
+        scale *= scaleFactor;
+        if (effect != null) {
+            effect.scaleEffect(scaleFactor);
+        }
     }
 
-    /**
-     * Change size of particles
-     *
-     * @param duration the duration that the flame exists for
-     *
-     */
-    public void setDuration(int duration) {
-        effect.setDuration(duration);
-    }
-
-
 }
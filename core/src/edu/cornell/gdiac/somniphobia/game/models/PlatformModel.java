@@ -9,15 +9,14 @@ import com.badlogic.gdx.graphics.*;
 import com.badlogic.gdx.physics.box2d.*;
 
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.Pool;
 import edu.cornell.gdiac.somniphobia.*;
 import edu.cornell.gdiac.somniphobia.obstacle.*;
 import edu.cornell.gdiac.util.FilmStrip;
-import edu.cornell.gdiac.util.PooledList;
 
-import java.util.ArrayList;
 import java.util.List;
 
-public class PlatformModel extends BoxObstacle {
+public class PlatformModel extends BoxObstacle implements Pool.Poolable {
 
     /** Behavior tag constants */
     public final static int normal = 1;
@@ -75,7 +74,7 @@ public class PlatformModel extends BoxObstacle {
 
 
     /** Path for a moving obstacle **/
-    private PooledList<Vector2> paths;
+    private PlatformPath path;
 
     /** scale*/
     public float scale;
@@ -84,7 +83,7 @@ public class PlatformModel extends BoxObstacle {
     /** CURRENT image for this object. May change over time. */
     private FilmStrip animator;
     /** Reference to texture origin */
-    private Vector2 origin;
+    private Vector2 origin = new Vector2();
     /** The texture for the shape. */
     private TextureRegion texture;
     /** Radius of the object (used for collisions) */
@@ -101,23 +100,76 @@ public class PlatformModel extends BoxObstacle {
     private double entirePixelWidth;
     /** Pixel width of the current frame in the texture */
     private double framePixelWidth = 32;
+    /** Whether the texture is a strip of tiles (and not a single image like a sign) */
+    private boolean tiled = true;
     /** Original texture before specifying a textureRegion in LevelController */
     private Texture originalTexture;
     /** TextureRegion for crumbling animation */
     private TextureRegion crumbleTexture;
     /** Original TextureRegion */
     private TextureRegion normalTexture;
-    /** List for coordinates of individual tiles in this platform */
-    private ArrayList<Vector2> platformCoordinates = new ArrayList<>();
-    private ParticleModel flame;
     private float dt = 0;
 
+    /** Whether this moving platform is asleep (too far away to simulate) */
+    private boolean asleep;
+    /** The center x-coordinate when this platform fell asleep */
+    private float sleepX;
+    /** The center y-coordinate when this platform fell asleep */
+    private float sleepY;
+    /** The simulation time when this platform fell asleep */
+    private float sleepTime;
+
     Obstacle touching = null;
 
+    /**
+     * Creates a new, unconfigured platform for a pool.
+     *
+     * The platform must be configured with {@link #set} before it is used.
+     */
+    public PlatformModel() {
+        super(0, 0, 1, 1);
+    }
+
     public PlatformModel(float [] bounds, int type, int property, TextureRegion tr, Vector2 s, float d, float f , float r,
                          Texture originalTexture, TextureRegion crumbleTexture){
         super(bounds[0]+bounds[2]/2, bounds[1] + bounds[3]/2,
                 bounds[2], bounds[3]);
+        configure(bounds, type, property, tr, s, d, f, r, originalTexture, crumbleTexture);
+    }
+
+    /**
+     * Reconfigures this platform as if it were newly constructed with these arguments.
+     *
+     * This is how pooled platforms are reused between levels.  The body and fixture
+     * definitions and the collision shape are reused, so the only native call is to
+     * reshape the box (and only if the size changed).  The platform must not have a
+     * body when this is called.
+     *
+     * @param bounds            The platform bounds, as x,y,width,height
+     * @param type              The platform type (light, dark or shared)
+     * @param property          The platform behavior
+     * @param tr                The platform texture
+     * @param s                 The drawing scale
+     * @param d                 The density
+     * @param f                 The friction
+     * @param r                 The restitution
+     * @param originalTexture   The texture before taking a region (may be null)
+     * @param crumbleTexture    The texture for the crumble animation (may be null)
+     */
+    public void set(float [] bounds, int type, int property, TextureRegion tr, Vector2 s, float d, float f , float r,
+                    Texture originalTexture, TextureRegion crumbleTexture) {
+        resetPhysics(bounds[0]+bounds[2]/2, bounds[1] + bounds[3]/2);
+        if (getWidth() != bounds[2] || getHeight() != bounds[3]) {
+            setDimension(bounds[2], bounds[3]);
+        }
+        configure(bounds, type, property, tr, s, d, f, r, originalTexture, crumbleTexture);
+    }
+
+    /**
+     * Initializes the platform state shared by the constructor and {@link #set}
+     */
+    private void configure(float [] bounds, int type, int property, TextureRegion tr, Vector2 s, float d, float f ,
+                           float r, Texture originalTexture, TextureRegion crumbleTexture) {
         this.setBodyType(BodyDef.BodyType.StaticBody);
         this.setDensity(d);
         this.setFriction(f);
@@ -131,17 +183,41 @@ public class PlatformModel extends BoxObstacle {
         this.crumbleTexture = crumbleTexture;
         this.normalTexture = tr;
 
+        this.framePixelWidth = 32;
+        this.animationSpeed = 0.1f;
+        this.animeframe = 0;
         this.setTexture(tr);
 
         this.setTag(type);
         this.property = property;
         this.isCurrentlyRaining = false;
+        this.isCurrentlyRespawning = false;
+        this.rainingCooldown = PlatformController.rainingCooldown;
+        this.respawnCooldown = 0;
+        this.initialRainingCooldown = 0;
+        this.path = null;
+        this.velocity = 0;
+        this.asleep = false;
+        this.touching = null;
+    }
 
-        this.flame = new ParticleModel();
-        flame.create();
-        flame.setDuration(30000);
-        flame.scaleParticles(2);
-        flame.startParticles();
+    /**
+     * Clears this platform for its pool.
+     *
+     * The body is forgotten rather than destroyed, as platforms are only freed when
+     * their world is about to be disposed.  References to textures and paths are
+     * dropped so that the pool does not keep them alive.
+     */
+    public void reset() {
+        abandonPhysics();
+        clearPose();
+        texture = null;
+        normalTexture = null;
+        crumbleTexture = null;
+        originalTexture = null;
+        animator = null;
+        path = null;
+        touching = null;
     }
 
     public float getLeftX() {
@@ -152,6 +228,57 @@ public class PlatformModel extends BoxObstacle {
     }
 
 
+    /**
+     * Returns true if this moving platform is asleep
+     *
+     * A sleeping platform has an inactive body, and is not moved along its path until
+     * it comes back in range (see PlatformController).
+     *
+     * @return true if this moving platform is asleep
+     */
+    public boolean isAsleep() {
+        return asleep;
+    }
+
+    /**
+     * Puts this moving platform to sleep at the given simulation time
+     *
+     * The current position is remembered so that the platform can be advanced along
+     * its path when it wakes up.
+     *
+     * @param time  The current simulation time
+     */
+    public void sleep(float time) {
+        asleep = true;
+        sleepX = getX();
+        sleepY = getY();
+        sleepTime = time;
+        setActive(false);
+    }
+
+    /**
+     * Wakes this moving platform up, reactivating its body
+     */
+    public void wake() {
+        asleep = false;
+        setActive(true);
+    }
+
+    /** Returns the center x-coordinate when this platform fell asleep */
+    public float getSleepX() {
+        return sleepX;
+    }
+
+    /** Returns the center y-coordinate when this platform fell asleep */
+    public float getSleepY() {
+        return sleepY;
+    }
+
+    /** Returns the simulation time when this platform fell asleep */
+    public float getSleepTime() {
+        return sleepTime;
+    }
+
     /**
      * Sets whether platform is raining
      */
@@ -249,11 +376,11 @@ public class PlatformModel extends BoxObstacle {
 
 
     /**
-     * Sets the paths of this obstacle
-     * @param paths the paths
+     * Sets the path of this obstacle
+     * @param path the path
      */
-    public void setPaths(PooledList<Vector2> paths) {
-        this.paths = paths;
+    public void setPath(PlatformPath path) {
+        this.path = path;
     }
 
     /**
@@ -290,11 +417,11 @@ public class PlatformModel extends BoxObstacle {
     }
 
     /**
-     * Returns the paths
-     * @return the paths
+     * Returns the path
+     * @return the path
      */
-    public PooledList<Vector2> getPaths() {
-        return this.paths;
+    public PlatformPath getPath() {
+        return this.path;
     }
 
     /**
@@ -311,7 +438,8 @@ public class PlatformModel extends BoxObstacle {
             entirePixelWidth = framePixelWidth;
         }
 //         For something that is not a platform, make it only 1 animation frame
-        if (actualTexture.getHeight() > framePixelWidth*2) {
+        tiled = actualTexture.getHeight() <= framePixelWidth*2;
+        if (!tiled) {
             framePixelWidth = entirePixelWidth;
         }
 
@@ -321,7 +449,7 @@ public class PlatformModel extends BoxObstacle {
         if(animeframe > numAnimFrames) {
             animeframe -= numAnimFrames;
         }
-        origin = new Vector2(animator.getRegionWidth()/2.0f, animator.getRegionHeight()/2.0f);
+        origin.set(animator.getRegionWidth()/2.0f, animator.getRegionHeight()/2.0f);
         radius = animator.getRegionHeight() / 2.0f;
     }
 
@@ -333,26 +461,13 @@ public class PlatformModel extends BoxObstacle {
      */
     public void draw(GameCanvas canvas) {
 //        if (texture != null && !(rainingCooldown <= 0)) {
-            if (animeframe >= numAnimFrames) {
-                animeframe = 0;
+            float frame = getDrawAnimation(0, animeframe);
+            if (frame >= numAnimFrames) {
+                frame = 0;
             }
             FilmStrip tempAnimator = animator;
-            tempAnimator.setFrame((int)animeframe);
-            platformCoordinates.clear();
-            float startX = getX() - 0.5f*(width-1);
-            float startY = getY() - 0.5f*(height-1);
-            for (float x = startX; x < startX+width; x++) {
-                for (float y = startY; y < startY+height; y++) {
-                    platformCoordinates.add(new Vector2(x, y));
-                }
-            }
-            for (Vector2 coordinate : platformCoordinates) {
-                canvas.draw(tempAnimator, Color.WHITE, origin.x, origin.y,coordinate.x*drawScale.x,coordinate.y*drawScale.y,getAngle(),
-                        1.0f, 1.0f);
-//                if (this.property == 2) {
-//                    flame.render(coordinate.x*drawScale.x, coordinate.y*drawScale.y, canvas.getBatch(), 0.016f);
-//                }
-            }
+            tempAnimator.setFrame((int)frame);
+            drawFrame(canvas, tempAnimator, Color.WHITE);
 //        }
     }
 
@@ -365,30 +480,60 @@ public class PlatformModel extends BoxObstacle {
      */
     public void drawWithTint(GameCanvas canvas, Color tint) {
         if (texture != null && !(rainingCooldown <= 0)) {
-            if (animeframe >= numAnimFrames) {
-                animeframe = 0;
+            float frame = getDrawAnimation(0, animeframe);
+            if (frame >= numAnimFrames) {
+                frame = 0;
             }
             FilmStrip tempAnimator = animator;
-            tempAnimator.setFrame((int)animeframe);
-            platformCoordinates.clear();
-            float startX = getX() - 0.5f*(width-1);
-            float startY = getY() - 0.5f*(height-1);
-            for (float x = startX; x < startX+width; x++) {
-                for (float y = startY; y < startY+height; y++) {
-                    platformCoordinates.add(new Vector2(x, y));
-                }
-            }
-            for (Vector2 coordinate : platformCoordinates) {
-                canvas.draw(tempAnimator, tint, origin.x, origin.y,coordinate.x*drawScale.x,coordinate.y*drawScale.y,getAngle(),
+            tempAnimator.setFrame((int)frame);
+            drawFrame(canvas, tempAnimator, tint);
+        }
+    }
+
+    /**
+     * Draws the current animation frame over the platform.
+     *
+     * A tile strip is drawn as one quad, with a tile per unit of size.  Any other
+     * image (such as a sign) is drawn at its own size, once per unit of size.
+     *
+     * @param canvas    Drawing context
+     * @param frame     The animation frame to draw
+     * @param tint      Tint to apply
+     */
+    private void drawFrame(GameCanvas canvas, FilmStrip frame, Color tint) {
+        if (tiled) {
+            canvas.drawTiled(frame, tint, getDrawX()*drawScale.x, getDrawY()*drawScale.y,
+                    width*drawScale.x, height*drawScale.y, getDrawAngle(), width, height);
+            return;
+        }
+        float startX = getDrawX() - 0.5f*(width-1);
+        float startY = getDrawY() - 0.5f*(height-1);
+        for (float x = startX; x < startX+width; x++) {
+            for (float y = startY; y < startY+height; y++) {
+                canvas.draw(frame, tint, origin.x, origin.y, x*drawScale.x, y*drawScale.y, getDrawAngle(),
                         1.0f, 1.0f);
-//                if (this.property == 2) {
-//                    flame.render(coordinate.x*drawScale.x, coordinate.y*drawScale.y, canvas.getBatch(), 0.016f);
-//                }
             }
         }
     }
 
-    public void update(float dt) {
+    /**
+     * Stores the animation frame of this platform in a render snapshot.
+     *
+     * @param out       The snapshot animation array
+     * @param offset    The first index for this object
+     */
+    public void getAnimationState(float[] out, int offset) {
+        out[offset] = animeframe;
+    }
+
+    /**
+     * Advances the animation, swapping to the crumble strip while raining.
+     *
+     * This touches nothing but this platform, so it may run on a worker thread.
+     *
+     * @param dt    Number of seconds since last animation frame
+     */
+    public void animate(float dt) {
         // Increase animation frame
         animeframe += animationSpeed;
         if (animeframe >= numAnimFrames) {
@@ -404,8 +549,6 @@ public class PlatformModel extends BoxObstacle {
             texture = normalTexture;
             setTexture(normalTexture);
         }
-
-        super.update(dt);
     }
 
 }
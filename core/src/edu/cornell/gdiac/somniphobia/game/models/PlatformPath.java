@@ -0,0 +1,143 @@
+package edu.cornell.gdiac.somniphobia.game.models;
+
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * The route of a moving platform, as a function of time.
+ *
+ * A platform starts at its level position, moves to the first path point, and then
+ * loops through the path points forever at a constant speed.  The segments of the loop
+ * are stored in packed float arrays, together with their cumulative lengths and their
+ * velocities, so the position at any time is a search and a multiply.  This replaces
+ * the old approach of steering towards the next point and snapping on arrival.
+ *
+ * All positions are of the bottom left corner of the platform, as in the level file.
+ */
+public class PlatformPath {
+    /** The x-coordinate of the starting position */
+    private float startX;
+    /** The y-coordinate of the starting position */
+    private float startY;
+    /** The x-velocity from the start to the first point */
+    private float leadVX;
+    /** The y-velocity from the start to the first point */
+    private float leadVY;
+    /** The time to get from the start to the first point */
+    private float leadTime;
+
+    /** The path points, packed as x,y pairs */
+    private float[] points;
+    /** The velocity of the segment leaving each path point, packed as x,y pairs */
+    private float[] velocities;
+    /** The distance along the loop to each path point (the last entry is the loop length) */
+    private float[] lengths;
+    /** The number of path points */
+    private int count;
+    /** The time for one trip around the loop (0 if the loop has no length) */
+    private float lapTime;
+
+    /** The speed of the platform */
+    private float speed;
+    /** The current path time */
+    private float time;
+
+    /**
+     * Creates a path from the given start position and points
+     *
+     * @param startX    The x-coordinate of the starting position
+     * @param startY    The y-coordinate of the starting position
+     * @param path      The path points, packed as x,y pairs
+     * @param speed     The speed of the platform
+     */
+    public PlatformPath(float startX, float startY, float[] path, float speed) {
+        this.startX = startX;
+        this.startY = startY;
+        this.speed = Math.max(0, speed);
+        count = path.length / 2;
+        points = Arrays.copyOf(path, 2 * count);
+        velocities = new float[2 * count];
+        lengths = new float[count + 1];
+
+        float leadLength = count > 0 ? Vector2.dst(startX, startY, points[0], points[1]) : 0;
+        if (leadLength > 0 && this.speed > 0) {
+            leadTime = leadLength / this.speed;
+            leadVX = (points[0] - startX) / leadTime;
+            leadVY = (points[1] - startY) / leadTime;
+        }
+
+        for (int ii = 0; ii < count; ii++) {
+            int next = (ii + 1) % count;
+            float dx = points[2 * next] - points[2 * ii];
+            float dy = points[2 * next + 1] - points[2 * ii + 1];
+            float length = (float) Math.sqrt(dx * dx + dy * dy);
+            lengths[ii + 1] = lengths[ii] + length;
+            if (length > 0) {
+                velocities[2 * ii] = dx * this.speed / length;
+                velocities[2 * ii + 1] = dy * this.speed / length;
+            }
+        }
+        lapTime = this.speed > 0 ? lengths[count] / this.speed : 0;
+        time = 0;
+    }
+
+    /**
+     * Returns the speed of the platform
+     *
+     * @return the speed of the platform
+     */
+    public float getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Returns the current path time
+     *
+     * @return the current path time
+     */
+    public float getTime() {
+        return time;
+    }
+
+    /**
+     * Moves the path time forward
+     *
+     * Whole laps are removed from the time, so that it never loses precision.
+     *
+     * @param dt    The time to move forward
+     */
+    public void advance(float dt) {
+        time += dt;
+        if (lapTime > 0 && time >= leadTime + lapTime) {
+            time = leadTime + (time - leadTime) % lapTime;
+        }
+    }
+
+    /**
+     * Stores the position at the given path time in the vector
+     *
+     * @param t     The path time
+     * @param out   The vector to store the position
+     *
+     * @return the vector, for chaining
+     */
+    public Vector2 getPosition(float t, Vector2 out) {
+        if (count == 0 || speed == 0) {
+            return out.set(startX, startY);
+        } else if (t < leadTime) {
+            return out.set(startX + leadVX * t, startY + leadVY * t);
+        } else if (lapTime == 0) {
+            return out.set(points[0], points[1]);
+        }
+
+        float distance = ((t - leadTime) % lapTime) * speed;
+        int index = Arrays.binarySearch(lengths, 0, count, distance);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        float local = (distance - lengths[index]) / speed;
+        return out.set(points[2 * index] + velocities[2 * index] * local,
+                points[2 * index + 1] + velocities[2 * index + 1] * local);
+    }
+}
@@ -192,6 +192,13 @@ public class BoxObstacle extends SimpleObstacle {
 	    }
 	}
 
+	/**
+	 * Forgets the fixtures for this body without destroying them.
+	 */
+	protected void forgetFixtures() {
+	    geometry = null;
+	}
+
 	
 	/**
 	 * Draws the outline of the physics body.
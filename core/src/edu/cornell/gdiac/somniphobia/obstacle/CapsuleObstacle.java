@@ -489,6 +489,15 @@ public class CapsuleObstacle extends SimpleObstacle {
 	        cap2 = null;
 	    }
 	}
+
+	/**
+	 * Forgets the fixtures for this body without destroying them.
+	 */
+	protected void forgetFixtures() {
+	    core = null;
+	    cap1 = null;
+	    cap2 = null;
+	}
 	
 	/**
 	 * Draws the outline of the physics body.
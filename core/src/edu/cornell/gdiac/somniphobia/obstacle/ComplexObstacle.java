@@ -1028,6 +1028,20 @@ public abstract class ComplexObstacle extends Obstacle {
 			obj.update(delta);
 		}
 	}
+
+	/**
+	 * Updates the object's animation and other state that is local to this object.
+	 *
+	 * The components are animated in order on the calling thread.
+	 *
+	 * @param delta Timing values from parent loop
+	 */
+	public void animate(float delta) {
+		// Delegate to components
+		for(Obstacle obj : bodies) {
+			obj.animate(delta);
+		}
+	}
 	
 	/**
      * Sets the drawing scale for this physics object
@@ -69,6 +69,20 @@ public abstract class Obstacle {
 	/** A cache value for when the user wants to access the drawing scale */
 	protected Vector2 scaleCache = new Vector2();
 
+	/// Render snapshot state
+	/** The number of animation values an object may store in a render snapshot */
+	public static final int ANIMATION_CHANNELS = 4;
+	/** Whether to draw from the snapshot pose instead of the physics body */
+	private boolean posed;
+	/** The snapshot x-coordinate of this object */
+	private float poseX;
+	/** The snapshot y-coordinate of this object */
+	private float poseY;
+	/** The snapshot angle of this object */
+	private float poseAngle;
+	/** The snapshot animation state of this object */
+	private float[] poseAnimation = new float[ANIMATION_CHANNELS];
+
 
 	/// BodyDef Methods
 	/**
@@ -959,6 +973,141 @@ public abstract class Obstacle {
 		drawScale = new Vector2(1,1);
 	}
 
+	/**
+	 * Restores the physics settings of this object to those of a new object.
+	 *
+	 * The body, fixture and mass definitions are reset in place, so that an object can
+	 * be reused (e.g. from a pool) without allocating new ones.  The object must not
+	 * have a body when this is called.
+	 *
+	 * @param x Initial x position in world coordinates
+	 * @param y Initial y position in world coordinates
+	 */
+	protected void resetPhysics(float x, float y) {
+		toRemove = false;
+		isDirty = false;
+		posed = false;
+
+		bodyinfo.type = BodyType.DynamicBody;
+		bodyinfo.position.set(x,y);
+		bodyinfo.angle = 0;
+		bodyinfo.linearVelocity.setZero();
+		bodyinfo.angularVelocity = 0;
+		bodyinfo.linearDamping = 0;
+		bodyinfo.angularDamping = 0;
+		bodyinfo.allowSleep = true;
+		bodyinfo.awake = true;
+		bodyinfo.fixedRotation = false;
+		bodyinfo.bullet = false;
+		bodyinfo.active = false;
+		bodyinfo.gravityScale = 1.0f;
+
+		fixture.shape = null;
+		fixture.friction = 0.2f;
+		fixture.restitution = 0;
+		fixture.density = 0;
+		fixture.isSensor = false;
+		fixture.filter.categoryBits = 0x0001;
+		fixture.filter.maskBits = -1;
+		fixture.filter.groupIndex = 0;
+
+		masseffect = false;
+		massdata.mass = 0;
+		massdata.center.setZero();
+		massdata.I = 0;
+	}
+
+	/// Render Snapshot Methods
+	/**
+	 * Stores the animation state of this object in a render snapshot.
+	 *
+	 * This is called on the simulation thread at the end of a step.  Subclasses with
+	 * animation should write up to {@link #ANIMATION_CHANNELS} values starting at
+	 * offset.  The default object has no animation state.
+	 *
+	 * @param out		The snapshot animation array
+	 * @param offset	The first index for this object
+	 */
+	public void getAnimationState(float[] out, int offset) {
+	}
+
+	/**
+	 * Sets the pose to draw this object with.
+	 *
+	 * When a simulation thread is stepping the physics, the draw methods must not
+	 * read the bodies.  Instead the render thread poses every object from the latest
+	 * snapshot, and the draw methods use {@link #getDrawX}, {@link #getDrawY},
+	 * {@link #getDrawAngle} and {@link #getDrawAnimation}.
+	 *
+	 * @param x			The snapshot x-coordinate
+	 * @param y			The snapshot y-coordinate
+	 * @param angle		The snapshot angle
+	 * @param animation	The snapshot animation array
+	 * @param offset	The first animation index for this object
+	 */
+	public void setPose(float x, float y, float angle, float[] animation, int offset) {
+		posed = true;
+		poseX = x;
+		poseY = y;
+		poseAngle = angle;
+		System.arraycopy(animation, offset, poseAnimation, 0, ANIMATION_CHANNELS);
+	}
+
+	/**
+	 * Clears the pose of this object, so that it is drawn from its physics body.
+	 */
+	public void clearPose() {
+		posed = false;
+	}
+
+	/**
+	 * Returns true if this object is drawn from a snapshot pose
+	 *
+	 * @return true if this object is drawn from a snapshot pose
+	 */
+	public boolean isPosed() {
+		return posed;
+	}
+
+	/**
+	 * Returns the x-coordinate to draw this object at
+	 *
+	 * @return the x-coordinate to draw this object at
+	 */
+	public float getDrawX() {
+		return posed ? poseX : getX();
+	}
+
+	/**
+	 * Returns the y-coordinate to draw this object at
+	 *
+	 * @return the y-coordinate to draw this object at
+	 */
+	public float getDrawY() {
+		return posed ? poseY : getY();
+	}
+
+	/**
+	 * Returns the angle to draw this object at
+	 *
+	 * @return the angle to draw this object at
+	 */
+	public float getDrawAngle() {
+		return posed ? poseAngle : getAngle();
+	}
+
+	/**
+	 * Returns the animation value to draw this object with
+	 *
+	 * @param channel	The animation channel
+	 * @param live		The current (unposed) value of the channel
+	 *
+	 * @return the animation value to draw this object with
+	 */
+	protected float getDrawAnimation(int channel, float live) {
+		return posed ? poseAnimation[channel] : live;
+	}
+
 	/// Abstract Methods
 	/**
 	 * Creates the physics Body(s) for this object, adding them to the world.
@@ -993,6 +1142,19 @@ public abstract class Obstacle {
 	public void update(float delta) { 
 	}
 
+	/**
+	 * Updates the object's animation and other state that is local to this object.
+	 *
+	 * This method is called after the physics step, before {@link #update}.  It may
+	 * run on a worker thread at the same time as the other objects, so it must not
+	 * change the Box2D world or any other object.  Reading this object's body is fine.
+	 * Body changes belong in {@link #update}, which runs one object at a time.
+	 *
+	 * @param delta Timing values from parent loop
+	 */
+	public void animate(float delta) {
+	}
+
 	/**
 	 * Draws the texture physics object.
 	 *
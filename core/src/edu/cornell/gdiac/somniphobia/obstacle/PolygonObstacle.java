@@ -319,6 +319,15 @@ public class PolygonObstacle extends SimpleObstacle {
 		}
 	}
 
+	/**
+	 * Forgets the fixtures for this body without destroying them.
+	 */
+	protected void forgetFixtures() {
+		for(int ii = 0; ii < geoms.length; ii++) {
+			geoms[ii] = null;
+		}
+	}
+
 	/**
 	 * Sets the object texture for drawing purposes.
 	 *
@@ -373,7 +382,7 @@ public class PolygonObstacle extends SimpleObstacle {
 	 */
 	public void draw(GameCanvas canvas) {
 		if (region != null) {
-			canvas.draw(region,Color.WHITE,0,0,getX()*drawScale.x,getY()*drawScale.y,getAngle(),1,1);
+			canvas.draw(region,Color.WHITE,0,0,getDrawX()*drawScale.x,getDrawY()*drawScale.y,getDrawAngle(),1,1);
 		}
 	}
 
@@ -776,7 +776,7 @@ public abstract class SimpleObstacle extends Obstacle {
 	 */
 	public void draw(GameCanvas canvas) {
 		if (texture != null) {
-			canvas.draw(texture,Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.x,getAngle(),1,1);
+			canvas.draw(texture,Color.WHITE,origin.x,origin.y,getDrawX()*drawScale.x,getDrawY()*drawScale.x,getDrawAngle(),1,1);
 		}
 	}
 
@@ -788,7 +788,7 @@ public abstract class SimpleObstacle extends Obstacle {
 	 */
 	public void drawWithTint(GameCanvas canvas, Color tint) {
 		if (texture != null) {
-			canvas.draw(texture,tint,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.x,getAngle(),1,1);
+			canvas.draw(texture,tint,origin.x,origin.y,getDrawX()*drawScale.x,getDrawY()*drawScale.x,getDrawAngle(),1,1);
 		}
 	}
 
@@ -799,7 +799,7 @@ public abstract class SimpleObstacle extends Obstacle {
 	 */
 	public void draw(GameCanvas canvas, Color tint) {
 		if (texture != null) {
-			canvas.draw(texture,tint,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.x,getAngle(),1,1);
+			canvas.draw(texture,tint,origin.x,origin.y,getDrawX()*drawScale.x,getDrawY()*drawScale.x,getDrawAngle(),1,1);
 		}
 	}
 	
@@ -878,6 +878,22 @@ public abstract class SimpleObstacle extends Obstacle {
 		}
 	}
 
+	/**
+	 * Forgets the physics body of this object without destroying it.
+	 *
+	 * Destroying bodies one at a time is a native call (and a state snapshot) for each
+	 * of them.  When the whole world is about to be disposed, which destroys every body
+	 * at once, this may be called instead of {@link #deactivatePhysics}.  The object
+	 * must not be used with the old world afterwards.
+	 */
+	public void abandonPhysics() {
+		if (body != null) {
+			forgetFixtures();
+			body = null;
+			bodyinfo.active = false;
+		}
+	}
+
 	/**
 	 * Create new fixtures for this body, defining the shape
 	 *
@@ -891,6 +907,13 @@ public abstract class SimpleObstacle extends Obstacle {
      * This is the primary method to override for custom physics objects.
      */
 	protected abstract void releaseFixtures();
+
+	/**
+	 * Forgets the fixtures for this body without destroying them.
+	 *
+	 * This is used by {@link #abandonPhysics}, when the world is about to destroy them.
+	 */
+	protected abstract void forgetFixtures();
     
 	/**
 	 * Updates the object's physics state (NOT GAME LOGIC).
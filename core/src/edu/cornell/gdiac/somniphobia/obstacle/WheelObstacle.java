@@ -105,6 +105,13 @@ public class WheelObstacle extends SimpleObstacle {
 	        geometry = null;
 	    }
 	}
+
+	/**
+	 * Forgets the fixtures for this body without destroying them.
+	 */
+	protected void forgetFixtures() {
+	    geometry = null;
+	}
 	
 	/**
 	 * Draws the outline of the physics body.
@@ -0,0 +1,275 @@
+/*
+ * AllocationStats.java
+ *
+ * Garbage collection pauses show up as frame spikes, and the only way to avoid them
+ * is to stop allocating in the steady state.  This class measures how many bytes the
+ * game thread allocates in each frame, and in each phase of the frame (update, draw,
+ * audio).  The measurement itself is platform specific, so the backend supplies a
+ * counter of the bytes allocated by the current thread.  Without one, every method
+ * does nothing.
+ *
+ * In benchmark mode the allocation of each section is written to the log alongside
+ * its frame rate, together with the number of frames that went over the budget.
+ */
+package edu.cornell.gdiac.util;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * This class records the bytes allocated by the game thread per frame.
+ *
+ * Phases may nest (draw is part of render), but a phase may not nest in itself.  Only
+ * allocations on the calling thread are counted, so a simulation step running on a
+ * worker thread is not part of the frame.
+ */
+public class AllocationStats {
+    /** The singleton for this class */
+    static private AllocationStats singleton;
+
+    /** A source of the number of bytes allocated by the current thread */
+    public interface Counter {
+        /**
+         * Returns the total number of bytes allocated by the current thread
+         *
+         * @return the total number of bytes allocated by the current thread
+         */
+        public long getAllocatedBytes();
+    }
+
+    /** The phase for the whole screen render */
+    public static final int RENDER = 0;
+    /** The phase for the simulation update */
+    public static final int UPDATE = 1;
+    /** The phase for drawing */
+    public static final int DRAW = 2;
+    /** The phase for the audio buffers */
+    public static final int AUDIO = 3;
+    /** The names of the phases */
+    private static final String[] PHASES = { "render", "update", "draw", "audio" };
+
+    /** The log tag for the reports */
+    private static final String TAG = "Allocation";
+
+    /** The allocation counter (null if allocations are not measured) */
+    private volatile Counter counter;
+    /** The largest allocation in bytes allowed in a frame (negative for no budget) */
+    private long budget;
+
+    /** The counter value at the start of the current frame (negative if none) */
+    private long frameStart;
+    /** The counter value at the start of each open phase */
+    private long[] starts;
+    /** The bytes allocated in each phase of the current frame */
+    private long[] current;
+    /** The bytes allocated in each phase of the last frame */
+    private long[] last;
+    /** The bytes allocated in the last frame */
+    private long lastFrame;
+
+    /** The number of frames in this section */
+    private int frames;
+    /** The bytes allocated in this section */
+    private long total;
+    /** The most bytes allocated in a single frame of this section */
+    private long worst;
+    /** The number of frames in this section over the budget */
+    private int overBudget;
+
+    /**
+     * Creates a new allocation recorder with no counter
+     */
+    private AllocationStats() {
+        budget = -1;
+        frameStart = -1;
+        starts = new long[PHASES.length];
+        current = new long[PHASES.length];
+        last = new long[PHASES.length];
+    }
+
+    /**
+     * Returns the allocation recorder singleton
+     *
+     * This method constructs a new recorder if one did not previously exist.
+     *
+     * @return the allocation recorder singleton
+     */
+    public static AllocationStats get() {
+        if (singleton == null) {
+            singleton = new AllocationStats();
+        }
+        return singleton;
+    }
+
+    /**
+     * Sets the allocation counter of this recorder
+     *
+     * A null counter turns measurement off.
+     *
+     * @param counter   The allocation counter (may be null)
+     */
+    public void setCounter(Counter counter) {
+        this.counter = counter;
+        frameStart = -1;
+        clear();
+    }
+
+    /**
+     * Returns true if allocations are measured
+     *
+     * @return true if allocations are measured
+     */
+    public boolean isActive() {
+        return counter != null;
+    }
+
+    /**
+     * Sets the allocation budget per frame
+     *
+     * Frames that allocate more than the budget are counted in the section report.
+     * A budget of 0 demands a steady state with no allocation at all.
+     *
+     * @param bytes The largest allocation allowed in a frame (negative for no budget)
+     */
+    public void setBudget(long bytes) {
+        budget = bytes;
+    }
+
+    /**
+     * Returns the allocation budget per frame
+     *
+     * @return the allocation budget per frame (negative for no budget)
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    // #mark -
+    // #mark Measurement
+
+    /**
+     * Marks the start of a phase of the current frame
+     *
+     * @param phase The phase (RENDER, UPDATE, DRAW or AUDIO)
+     */
+    public void begin(int phase) {
+        Counter source = counter;
+        if (source != null) {
+            starts[phase] = source.getAllocatedBytes();
+        }
+    }
+
+    /**
+     * Marks the end of a phase of the current frame
+     *
+     * @param phase The phase (RENDER, UPDATE, DRAW or AUDIO)
+     */
+    public void end(int phase) {
+        Counter source = counter;
+        if (source != null) {
+            current[phase] += source.getAllocatedBytes()-starts[phase];
+        }
+    }
+
+    /**
+     * Marks the end of a rendered frame.
+     *
+     * This is called by the backend once per frame, after rendering and audio.
+     */
+    public void endFrame() {
+        Counter source = counter;
+        if (source == null) {
+            return;
+        }
+        long now = source.getAllocatedBytes();
+        if (frameStart >= 0) {
+            lastFrame = now-frameStart;
+            frames++;
+            total += lastFrame;
+            worst = Math.max( worst, lastFrame );
+            if (budget >= 0 && lastFrame > budget) {
+                overBudget++;
+            }
+        }
+        frameStart = now;
+
+        long[] swap = last;
+        last = current;
+        current = swap;
+        for(int ii = 0; ii < current.length; ii++) {
+            current[ii] = 0;
+        }
+    }
+
+    /**
+     * Returns the bytes allocated in the last frame
+     *
+     * @return the bytes allocated in the last frame
+     */
+    public long getFrameBytes() {
+        return lastFrame;
+    }
+
+    /**
+     * Returns the bytes allocated in a phase of the last frame
+     *
+     * @param phase The phase (RENDER, UPDATE, DRAW or AUDIO)
+     *
+     * @return the bytes allocated in a phase of the last frame
+     */
+    public long getPhaseBytes(int phase) {
+        return last[phase];
+    }
+
+    // #mark -
+    // #mark Reporting
+
+    /**
+     * Writes the allocation of the current section to the log, and resets it.
+     *
+     * The report has the average and largest allocation per frame.  If there is a
+     * budget, the frames over the budget are reported as an error.
+     *
+     * @param section   The name of the section
+     */
+    public void report(String section) {
+        if (counter == null || frames == 0) {
+            clear();
+            return;
+        }
+        Gdx.app.log( TAG, String.format( "%s: %d bytes/frame average, %d bytes worst",
+                                         section, total/frames, worst ) );
+        if (overBudget > 0) {
+            Gdx.app.error( TAG, String.format( "%s: %d of %d frames over the budget of %d bytes",
+                                               section, overBudget, frames, budget ) );
+        }
+        clear();
+    }
+
+    /**
+     * Discards the allocation totals of the current section.
+     */
+    public void clear() {
+        frames = 0;
+        total = 0;
+        worst = 0;
+        overBudget = 0;
+    }
+
+    /**
+     * Returns a one line summary of the last frame (for debug overlays)
+     *
+     * @return a one line summary of the last frame (for debug overlays)
+     */
+    public String toString() {
+        StringBuilder line = new StringBuilder();
+        line.append( lastFrame ).append( " B/frame (" );
+        for(int ii = 0; ii < PHASES.length; ii++) {
+            if (ii > 0) {
+                line.append( ", " );
+            }
+            line.append( PHASES[ii] ).append( ' ' ).append( last[ii] );
+        }
+        line.append( ')' );
+        return line.toString();
+    }
+}
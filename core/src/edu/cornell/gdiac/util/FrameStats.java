@@ -0,0 +1,175 @@
+/*
+ * FrameStats.java
+ *
+ * This class collects frame times for the benchmark mode of the desktop backend.
+ * The backend knows how long each frame took, but only the game knows which level
+ * was on screen.  So the game marks the start of each section (usually a level) and
+ * the backend adds the frame times.  When the section changes, the achievable frame
+ * rate of the previous section is written to the log, along with its allocation
+ * per frame (see AllocationStats).
+ */
+package edu.cornell.gdiac.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * This class records the frame times of each section of the game.
+ *
+ * Recording is off unless the backend is in benchmark mode (see GDXAppSettings).
+ * When it is off, marking a section and adding a frame do nothing, so the game can
+ * call this class unconditionally.
+ */
+public class FrameStats {
+    /** The singleton for this class */
+    static private FrameStats singleton;
+
+    /** The log tag for the reports */
+    private static final String TAG = "Benchmark";
+    /** The fraction of slowest frames averaged for the "low" frame rate */
+    private static final float LOW_FRACTION = 0.01f;
+
+    /** Whether frame times are being recorded */
+    private boolean active;
+    /** The name of the current section (may be null) */
+    private String section;
+    /** The frame times of the current section in seconds */
+    private FloatArray times;
+    /** The total time of the current section in seconds */
+    private double total;
+
+    /**
+     * Creates a new, inactive, frame recorder
+     */
+    private FrameStats() {
+        active = false;
+        times = new FloatArray( 4096 );
+    }
+
+    /**
+     * Returns the frame recorder singleton
+     *
+     * This method constructs a new recorder if one did not previously exist.
+     *
+     * @return the frame recorder singleton
+     */
+    public static FrameStats get() {
+        if (singleton == null) {
+            singleton = new FrameStats();
+        }
+        return singleton;
+    }
+
+    /**
+     * Toggles the active status of this recorder
+     *
+     * @param active    Whether to record frame times
+     */
+    public void setActive(boolean active) {
+        this.active = active;
+        if (!active) {
+            clear();
+        }
+    }
+
+    /**
+     * Returns the active status of this recorder
+     *
+     * @return the active status of this recorder
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Marks the start of a new section of the game.
+     *
+     * If the name differs from the current section, the current section is reported
+     * and the frame times are reset.  A null name stops attributing frames to any
+     * section.
+     *
+     * @param name  The name of the new section (may be null)
+     */
+    public void setSection(String name) {
+        if (!active || (name == null ? section == null : name.equals( section ))) {
+            return;
+        }
+        report();
+        clear();
+        section = name;
+    }
+
+    /**
+     * Returns the name of the current section
+     *
+     * @return the name of the current section
+     */
+    public String getSection() {
+        return section;
+    }
+
+    /**
+     * Adds the time of a rendered frame to the current section.
+     *
+     * @param seconds   The frame time in seconds
+     */
+    public void addFrame(float seconds) {
+        if (!active || section == null) {
+            return;
+        }
+        times.add( seconds );
+        total += seconds;
+    }
+
+    /**
+     * Returns the average frame rate of the current section
+     *
+     * @return the average frame rate of the current section
+     */
+    public float getAverageFPS() {
+        return total > 0 ? (float)(times.size/total) : 0;
+    }
+
+    /**
+     * Reports the current section without resetting it.
+     *
+     * This is called by the backend at shutdown so that the last level is reported.
+     */
+    public void flush() {
+        if (active) {
+            report();
+        }
+    }
+
+    /**
+     * Writes the frame rates of the current section to the log.
+     *
+     * The report has the average frame rate, the frame rate of the slowest one percent
+     * of frames, and the slowest frame time.
+     */
+    private void report() {
+        if (section == null || times.size == 0) {
+            return;
+        }
+        times.sort();
+        int count = Math.max( 1, (int)(times.size*LOW_FRACTION) );
+        double slow = 0;
+        for(int ii = times.size-count; ii < times.size; ii++) {
+            slow += times.get( ii );
+        }
+        float low = slow > 0 ? (float)(count/slow) : 0;
+        float worst = times.peek()*1000.0f;
+        Gdx.app.log( TAG, String.format( "%s: %d frames, %.1f fps average, %.1f fps 1%% low, %.2f ms worst",
+                                         section, times.size, getAverageFPS(), low, worst ) );
+        AllocationStats.get().report( section );
+    }
+
+    /**
+     * Discards all of the frame times of the current section.
+     */
+    private void clear() {
+        times.clear();
+        total = 0;
+        AllocationStats.get().clear();
+    }
+}
@@ -0,0 +1,434 @@
+/*
+ * GLResources.java
+ *
+ * Textures, frame buffers, batches, stages, meshes and shaders hold memory on the graphics card, and
+ * that memory is only returned when they are disposed.  Nothing complains when one is
+ * dropped instead, so a leak in code that runs per level only shows up as a slow climb
+ * in video memory.  This class is a registry of these objects for debugging.  Each one
+ * is recorded with its allocation site and estimated size when created, and removed
+ * when disposed.  The game reports the live objects at each screen transition, and a
+ * category that keeps growing at the same transition is flagged as a likely leak.
+ */
+package edu.cornell.gdiac.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * This class tracks the live GPU resources of the game.
+ *
+ * Tracking is off unless the backend turns it on (see GDXAppSettings).  When it is off,
+ * tracking, releasing and reporting do nothing, so the game can call this class
+ * unconditionally.  Objects created while tracking was off are never reported.
+ *
+ * Resources are normally created on the GL thread, but the asset loaders may finish
+ * a texture on another thread (and AssetManager.unload may be called from anywhere).
+ * The registry is therefore synchronized, and any thread may track, release or report.
+ */
+public class GLResources {
+    /** The singleton for this class */
+    static private GLResources singleton;
+
+    /** The category for textures */
+    public static final String TEXTURE = "Texture";
+    /** The category for frame buffers */
+    public static final String FRAME_BUFFER = "FrameBuffer";
+    /** The category for sprite batches */
+    public static final String BATCH = "Batch";
+    /** The category for stages */
+    public static final String STAGE = "Stage";
+    /** The category for meshes */
+    public static final String MESH = "Mesh";
+    /** The category for shaders */
+    public static final String SHADER = "Shader";
+
+    /** The log tag for the reports */
+    private static final String TAG = "GLResources";
+    /** The estimated size of a default sprite batch (1000 sprites of vertices and indices) */
+    private static final long BATCH_BYTES = 1000*(4*5*4+6*2);
+    /** The number of consecutive increases at one transition that are flagged */
+    private static final int GROWTH_REPORTS = 3;
+    /** The number of allocation sites listed for a flagged category */
+    private static final int MAX_SITES = 3;
+
+    /** A live resource */
+    private static class Record {
+        /** The resource category */
+        String category;
+        /** The estimated size in bytes */
+        long bytes;
+        /** The allocation site */
+        String site;
+    }
+
+    /** The live count and size of a category */
+    private static class Tally {
+        /** The number of live resources */
+        int count;
+        /** The estimated size in bytes */
+        long bytes;
+    }
+
+    /** Whether resources are being tracked */
+    private volatile boolean active;
+    /** The live resources (guarded by this registry) */
+    private IdentityMap<Object,Record> live;
+    /** The category counts at the last report of each transition */
+    private ObjectMap<String,ObjectIntMap<String>> previous;
+    /** The number of consecutive increases of each category at each transition */
+    private ObjectMap<String,ObjectIntMap<String>> growth;
+
+    /**
+     * Creates a new, inactive, resource registry
+     */
+    private GLResources() {
+        active = false;
+        live = new IdentityMap<Object,Record>();
+        previous = new ObjectMap<String,ObjectIntMap<String>>();
+        growth = new ObjectMap<String,ObjectIntMap<String>>();
+    }
+
+    /**
+     * Returns the resource registry singleton
+     *
+     * This method constructs a new registry if one did not previously exist.
+     *
+     * @return the resource registry singleton
+     */
+    public static synchronized GLResources get() {
+        if (singleton == null) {
+            singleton = new GLResources();
+        }
+        return singleton;
+    }
+
+    /**
+     * Toggles the active status of this registry
+     *
+     * @param active    Whether to track resources
+     */
+    public synchronized void setActive(boolean active) {
+        this.active = active;
+        if (!active) {
+            live.clear();
+            previous.clear();
+            growth.clear();
+        }
+    }
+
+    /**
+     * Returns the active status of this registry
+     *
+     * @return the active status of this registry
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    // #mark -
+    // #mark Tracking
+
+    /**
+     * Records a newly created resource.
+     *
+     * The allocation site is the caller of the track method.
+     *
+     * @param resource  The resource to track (may be null)
+     * @param category  The resource category
+     * @param bytes     The estimated size in bytes
+     *
+     * @return the resource, for chaining
+     */
+    public synchronized <T> T track(T resource, String category, long bytes) {
+        if (!active || resource == null) {
+            return resource;
+        }
+        Record record = new Record();
+        record.category = category;
+        record.bytes = bytes;
+        record.site = site();
+        live.put( resource, record );
+        return resource;
+    }
+
+    /**
+     * Records a newly created texture.
+     *
+     * @param texture   The texture to track (may be null)
+     *
+     * @return the texture, for chaining
+     */
+    public Texture track(Texture texture) {
+        if (!active || texture == null) {
+            return texture;
+        }
+        return track( texture, TEXTURE, textureBytes( texture ) );
+    }
+
+    /**
+     * Records a newly created frame buffer.
+     *
+     * Only the color buffer is counted.
+     *
+     * @param buffer    The frame buffer to track (may be null)
+     *
+     * @return the frame buffer, for chaining
+     */
+    public FrameBuffer track(FrameBuffer buffer) {
+        if (!active || buffer == null) {
+            return buffer;
+        }
+        return track( buffer, FRAME_BUFFER, textureBytes( buffer.getColorBufferTexture() ) );
+    }
+
+    /**
+     * Records a newly created sprite batch.
+     *
+     * The size is estimated for a batch of the default capacity.
+     *
+     * @param batch     The batch to track (may be null)
+     *
+     * @return the batch, for chaining
+     */
+    public <T extends Batch> T track(T batch) {
+        return track( batch, BATCH, BATCH_BYTES );
+    }
+
+    /**
+     * Records a newly created stage.
+     *
+     * The size is that of the batch the stage creates for itself.
+     *
+     * @param stage     The stage to track (may be null)
+     *
+     * @return the stage, for chaining
+     */
+    public Stage track(Stage stage) {
+        return track( stage, STAGE, BATCH_BYTES );
+    }
+
+    /**
+     * Records a newly created mesh.
+     *
+     * The size is that of the vertex and index buffers at full capacity.
+     *
+     * @param mesh      The mesh to track (may be null)
+     *
+     * @return the mesh, for chaining
+     */
+    public Mesh track(Mesh mesh) {
+        if (!active || mesh == null) {
+            return mesh;
+        }
+        long bytes = (long)mesh.getMaxVertices()*mesh.getVertexSize()+2L*mesh.getMaxIndices();
+        return track( mesh, MESH, bytes );
+    }
+
+    /**
+     * Records a newly compiled shader.
+     *
+     * Shaders are small, so only the count is of interest.
+     *
+     * @param shader    The shader to track (may be null)
+     *
+     * @return the shader, for chaining
+     */
+    public ShaderProgram track(ShaderProgram shader) {
+        return track( shader, SHADER, 0 );
+    }
+
+    /**
+     * Removes a resource that is about to be disposed.
+     *
+     * Resources that were never tracked are ignored.
+     *
+     * @param resource  The resource to release (may be null)
+     */
+    public synchronized void release(Object resource) {
+        if (active && resource != null) {
+            live.remove( resource );
+        }
+    }
+
+    // #mark -
+    // #mark Reporting
+
+    /**
+     * Writes the live resources of each category to the log.
+     *
+     * The counts are compared to the last report of the same transition.  A category
+     * that has grown at each of the last few reports is flagged as a likely leak, with
+     * the allocation sites of its live resources.
+     *
+     * @param transition    The name of the screen transition
+     */
+    public synchronized void report(String transition) {
+        if (!active) {
+            return;
+        }
+        ObjectMap<String,Tally> tallies = new ObjectMap<String,Tally>();
+        long total = 0;
+        for(Record record : live.values()) {
+            Tally tally = tallies.get( record.category );
+            if (tally == null) {
+                tally = new Tally();
+                tallies.put( record.category, tally );
+            }
+            tally.count++;
+            tally.bytes += record.bytes;
+            total += record.bytes;
+        }
+
+        StringBuilder line = new StringBuilder();
+        line.append( transition ).append( ": " ).append( live.size ).append( " live, " );
+        line.append( megabytes( total ) ).append( " MB" );
+        for(ObjectMap.Entry<String,Tally> entry : tallies.entries()) {
+            line.append( ", " ).append( entry.value.count ).append( ' ' ).append( entry.key );
+            line.append( " (" ).append( megabytes( entry.value.bytes ) ).append( " MB)" );
+        }
+        Gdx.app.log( TAG, line.toString() );
+
+        ObjectIntMap<String> counts = new ObjectIntMap<String>();
+        for(ObjectMap.Entry<String,Tally> entry : tallies.entries()) {
+            counts.put( entry.key, entry.value.count );
+        }
+        ObjectIntMap<String> last = previous.get( transition );
+        ObjectIntMap<String> streaks = growth.get( transition );
+        if (streaks == null) {
+            streaks = new ObjectIntMap<String>();
+            growth.put( transition, streaks );
+        }
+        for(ObjectIntMap.Entry<String> entry : counts.entries()) {
+            if (last == null || entry.value <= last.get( entry.key, 0 )) {
+                streaks.remove( entry.key, 0 );
+                continue;
+            }
+            int streak = streaks.getAndIncrement( entry.key, 0, 1 )+1;
+            if (streak >= GROWTH_REPORTS) {
+                Gdx.app.error( TAG, entry.key+" has grown at the last "+streak+" reports of "+
+                                    transition+"; allocated at "+sites( entry.key ) );
+            }
+        }
+        previous.put( transition, counts );
+    }
+
+    /**
+     * Returns the most common allocation sites of the given category
+     *
+     * @param category  The resource category
+     *
+     * @return the most common allocation sites of the given category
+     */
+    private String sites(String category) {
+        ObjectIntMap<String> counts = new ObjectIntMap<String>();
+        for(Record record : live.values()) {
+            if (record.category.equals( category )) {
+                counts.getAndIncrement( record.site, 0, 1 );
+            }
+        }
+        StringBuilder result = new StringBuilder();
+        for(int ii = 0; ii < MAX_SITES && counts.size > 0; ii++) {
+            String best = null;
+            int most = 0;
+            for(ObjectIntMap.Entry<String> entry : counts.entries()) {
+                if (entry.value > most) {
+                    best = entry.key;
+                    most = entry.value;
+                }
+            }
+            counts.remove( best, 0 );
+            if (ii > 0) {
+                result.append( ", " );
+            }
+            result.append( best ).append( " x" ).append( most );
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns the first stack frame outside of this class
+     *
+     * @return the first stack frame outside of this class
+     */
+    private static String site() {
+        StackTraceElement[] trace = new Throwable().getStackTrace();
+        for(StackTraceElement element : trace) {
+            if (!element.getClassName().equals( GLResources.class.getName() )) {
+                return element.toString();
+            }
+        }
+        return "unknown";
+    }
+
+    /**
+     * Returns the estimated size of a texture in bytes
+     *
+     * Mipmaps add a third to the size of the base image.  Compressed (custom) texture
+     * data has no pixmap format, and is counted at a byte per pixel (DXT5); this
+     * overstates DXT1 textures by half.
+     *
+     * @param texture   The texture
+     *
+     * @return the estimated size of a texture in bytes
+     */
+    private static long textureBytes(Texture texture) {
+        TextureData data = texture.getTextureData();
+        long bytes = (long)texture.getWidth()*texture.getHeight();
+        if (data == null) {
+            bytes *= 4;
+        } else if (data.getType() != TextureData.TextureDataType.Custom) {
+            bytes *= pixelBytes( data.getFormat() );
+        }
+        if (data != null && data.useMipMaps()) {
+            bytes += bytes/3;
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the number of bytes in a pixel of the given format
+     *
+     * @param format    The pixel format (may be null)
+     *
+     * @return the number of bytes in a pixel of the given format
+     */
+    private static int pixelBytes(Pixmap.Format format) {
+        if (format == null) {
+            return 4;
+        }
+        switch (format) {
+            case Alpha:
+            case Intensity:
+                return 1;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                return 2;
+            case RGB888:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    /**
+     * Returns the given size in megabytes, formatted for the log
+     *
+     * @param bytes The size in bytes
+     *
+     * @return the given size in megabytes, formatted for the log
+     */
+    private static String megabytes(long bytes) {
+        return String.format( "%.2f", bytes/(1024.0*1024.0) );
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * SaveData.java
+ *
+ * Flushing preferences writes the whole save file, and doing that on the render thread
+ * stalls the frame.  Some writes come in bursts (dragging the volume slider changes the
+ * volume every frame), so there is no need to write each one.  This class writes the
+ * save data on a background thread instead.  A save only marks the preferences as
+ * changed; the writer waits for the burst to end and then flushes once.
+ *
+ * The values themselves are changed in the preferences right away, so reads always
+ * see the latest values.  Only the disk write is delayed.
+ */
+package edu.cornell.gdiac.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * This class writes the save data of the game on a background thread.
+ *
+ * Changes made between two writes are coalesced into a single flush.  Disposing this
+ * service stops the thread and writes any pending changes before returning.
+ */
+public class SaveData implements Runnable, Disposable {
+    /** The singleton for this class */
+    static private SaveData singleton;
+
+    /** The log tag for write errors */
+    private static final String TAG = "SaveData";
+    /** How long to wait (in milliseconds) for more changes before writing */
+    private static final long COALESCE_MILLIS = 500;
+
+    /** The preferences to write */
+    private Preferences preferences;
+    /** The thread writing the preferences (created on first save) */
+    private Thread thread;
+    /** Whether there are changes that have not been written */
+    private boolean dirty;
+    /** The time (in milliseconds) of the last change */
+    private long changed;
+    /** Whether this service has been disposed */
+    private boolean stopped;
+
+    /**
+     * Creates a new save service with no preferences
+     */
+    private SaveData() {
+        dirty = false;
+        stopped = false;
+    }
+
+    /**
+     * Returns the save service singleton
+     *
+     * This method constructs a new service if one did not previously exist.
+     *
+     * @return the save service singleton
+     */
+    public static SaveData get() {
+        if (singleton == null) {
+            singleton = new SaveData();
+        }
+        return singleton;
+    }
+
+    /**
+     * Returns the preferences written by this service
+     *
+     * @return the preferences written by this service
+     */
+    public synchronized Preferences getPreferences() {
+        return preferences;
+    }
+
+    /**
+     * Sets the preferences written by this service
+     *
+     * @param prefs The preferences to write
+     */
+    public synchronized void setPreferences(Preferences prefs) {
+        preferences = prefs;
+    }
+
+    /**
+     * Marks the preferences as changed, so that they are written soon.
+     *
+     * Until this service is disposed, this never blocks on the disk.  It is safe to
+     * call from any thread.
+     */
+    public synchronized void save() {
+        if (preferences == null) {
+            return;
+        } else if (stopped) {
+            // Nothing is left to write it in the background
+            write();
+            return;
+        }
+        dirty = true;
+        changed = System.currentTimeMillis();
+        if (thread == null) {
+            thread = new Thread( this, "SaveData" );
+            thread.setDaemon( true );
+            thread.start();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Writes any pending changes now, on the calling thread.
+     */
+    public void flush() {
+        Preferences prefs;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            prefs = preferences;
+        }
+        write( prefs );
+    }
+
+    /**
+     * Stops the background thread and writes any pending changes.
+     *
+     * Any later save is written right away, on the calling thread.
+     */
+    public void dispose() {
+        Thread current;
+        synchronized (this) {
+            stopped = true;
+            current = thread;
+            thread = null;
+            notifyAll();
+        }
+        if (current != null) {
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Writes the changes requested by {@link #save}, once they stop coming.
+     */
+    public void run() {
+        while (true) {
+            Preferences prefs;
+            synchronized (this) {
+                try {
+                    while (!stopped) {
+                        if (!dirty) {
+                            wait();
+                        } else {
+                            long quiet = changed+COALESCE_MILLIS-System.currentTimeMillis();
+                            if (quiet <= 0) {
+                                break;
+                            }
+                            wait( quiet );
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (stopped) {
+                    // Dispose writes whatever is left
+                    return;
+                }
+                dirty = false;
+                prefs = preferences;
+            }
+            write( prefs );
+        }
+    }
+
+    /**
+     * Writes the current preferences (the caller must hold the lock).
+     */
+    private void write() {
+        dirty = false;
+        write( preferences );
+    }
+
+    /**
+     * Flushes the given preferences, logging any error.
+     *
+     * @param prefs The preferences to flush
+     */
+    private static void write(Preferences prefs) {
+        if (prefs == null) {
+            return;
+        }
+        try {
+            prefs.flush();
+        } catch (RuntimeException e) {
+            if (Gdx.app != null) {
+                Gdx.app.error( TAG, "Could not write save data", e );
+            }
+        }
+    }
+}
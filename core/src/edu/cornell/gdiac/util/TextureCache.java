@@ -0,0 +1,60 @@
+/*
+ * TextureCache.java
+ *
+ * A few screens load images by file path instead of through an asset directory.  A new
+ * texture for every use of the same file wastes video memory, and nothing disposes
+ * these textures unless the screen keeps track of them.  This class is that record.
+ * It loads each file once, registers the texture with GLResources, and disposes all of
+ * them together when the screen is done.
+ */
+package edu.cornell.gdiac.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * This class holds the textures a screen loads by file path.
+ *
+ * Each file is loaded the first time it is requested.  Disposing the cache disposes
+ * every texture in it, so it should be disposed with the screen that owns it.
+ */
+public class TextureCache implements Disposable {
+    /** The loaded textures, by file path */
+    private ObjectMap<String,Texture> textures;
+
+    /**
+     * Creates a new, empty texture cache
+     */
+    public TextureCache() {
+        textures = new ObjectMap<String,Texture>();
+    }
+
+    /**
+     * Returns the texture for the given internal file, loading it if necessary.
+     *
+     * @param file  The internal file path
+     *
+     * @return the texture for the given internal file
+     */
+    public Texture get(String file) {
+        Texture texture = textures.get( file );
+        if (texture == null) {
+            texture = GLResources.get().track( new Texture( Gdx.files.internal( file ) ) );
+            textures.put( file, texture );
+        }
+        return texture;
+    }
+
+    /**
+     * Disposes of every texture in this cache, leaving it empty.
+     */
+    public void dispose() {
+        for(Texture texture : textures.values()) {
+            GLResources.get().release( texture );
+            texture.dispose();
+        }
+        textures.clear();
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Trace.java
+ *
+ * Startup goes through many steps (asset directories, menus, controllers) on several
+ * threads (the GL thread, the asset manager, the image decoders).  Wall clock totals
+ * do not show which steps are on the critical path, or which ones overlap.  This class
+ * records begin and end events for named spans, with the thread that ran them, and
+ * writes them in the Chrome trace event format.  The file can be opened in any viewer
+ * for that format (such as chrome://tracing or Perfetto) as a timeline per thread.
+ *
+ * Recording is off by default, and every method does nothing until it is started.
+ */
+package edu.cornell.gdiac.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * This class records spans of work for a trace viewer.
+ *
+ * Spans started with {@link #begin} must be ended on the same thread, in reverse order.
+ * Spans that cross frames (such as loading a whole asset directory) should use
+ * {@link #beginAsync} instead, which may end anywhere.
+ */
+public class Trace {
+    /** The singleton for this class */
+    static private Trace singleton;
+
+    /** The log tag for errors */
+    private static final String TAG = "Trace";
+    /** The category of game spans */
+    private static final String GAME = "game";
+    /** The category of asset spans */
+    private static final String ASSET = "asset";
+    /** The process id written to the trace (there is only one) */
+    private static final int PID = 1;
+
+    /** A single trace event */
+    private static class Event {
+        /** The Chrome event phase (B, E, b, e or i) */
+        char phase;
+        /** The span name */
+        String name;
+        /** The asset name (may be null) */
+        String asset;
+        /** The thread id */
+        long thread;
+        /** The time in microseconds since recording started */
+        long micros;
+    }
+
+    /** Whether events are being recorded */
+    private volatile boolean active;
+    /** The file to write the trace to */
+    private String file;
+    /** The time in nanoseconds when recording started */
+    private long origin;
+    /** The recorded events */
+    private final Array<Event> events;
+    /** The names of the threads seen, by id */
+    private final LongMap<String> threads;
+
+    /**
+     * Creates a new, inactive, trace
+     */
+    private Trace() {
+        active = false;
+        events = new Array<Event>( false, 1024 );
+        threads = new LongMap<String>();
+    }
+
+    /**
+     * Returns the trace singleton
+     *
+     * This method constructs a new trace if one did not previously exist.
+     *
+     * @return the trace singleton
+     */
+    public static synchronized Trace get() {
+        if (singleton == null) {
+            singleton = new Trace();
+        }
+        return singleton;
+    }
+
+    /**
+     * Starts recording events, to be written to the given file on {@link #stop}.
+     *
+     * The file is relative to the local storage directory.
+     *
+     * @param file  The file to write the trace to
+     */
+    public synchronized void start(String file) {
+        this.file = file;
+        origin = System.nanoTime();
+        events.clear();
+        threads.clear();
+        active = true;
+    }
+
+    /**
+     * Returns true if events are being recorded
+     *
+     * @return true if events are being recorded
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    // #mark -
+    // #mark Events
+
+    /**
+     * Starts a span on the current thread
+     *
+     * @param name  The span name
+     */
+    public void begin(String name) {
+        if (active) {
+            record( 'B', name, null );
+        }
+    }
+
+    /**
+     * Starts a span for loading an asset on the current thread
+     *
+     * @param name  The span name
+     * @param asset The asset file name
+     */
+    public void begin(String name, String asset) {
+        if (active) {
+            record( 'B', name, asset );
+        }
+    }
+
+    /**
+     * Ends the innermost span on the current thread
+     *
+     * @param name  The span name
+     */
+    public void end(String name) {
+        if (active) {
+            record( 'E', name, null );
+        }
+    }
+
+    /**
+     * Starts a span that may end on another frame or thread
+     *
+     * The name identifies the span, so it must be unique among open async spans.
+     *
+     * @param name  The span name
+     */
+    public void beginAsync(String name) {
+        if (active) {
+            record( 'b', name, null );
+        }
+    }
+
+    /**
+     * Ends a span started by {@link #beginAsync}
+     *
+     * @param name  The span name
+     */
+    public void endAsync(String name) {
+        if (active) {
+            record( 'e', name, null );
+        }
+    }
+
+    /**
+     * Records a point in time, such as the first interactive frame
+     *
+     * @param name  The event name
+     */
+    public void mark(String name) {
+        if (active) {
+            record( 'i', name, null );
+        }
+    }
+
+    /**
+     * Adds an event for the current thread
+     *
+     * @param phase The Chrome event phase
+     * @param name  The event name
+     * @param asset The asset file name (may be null)
+     */
+    private void record(char phase, String name, String asset) {
+        Event event = new Event();
+        event.phase = phase;
+        event.name = name;
+        event.asset = asset;
+        Thread thread = Thread.currentThread();
+        event.thread = thread.getId();
+        synchronized (this) {
+            if (!active) {
+                return;
+            }
+            event.micros = (System.nanoTime()-origin)/1000;
+            events.add( event );
+            if (!threads.containsKey( event.thread )) {
+                threads.put( event.thread, thread.getName() );
+            }
+        }
+    }
+
+    // #mark -
+    // #mark Output
+
+    /**
+     * Stops recording and writes the trace file.
+     *
+     * This does nothing if the trace was not started, so it is safe to call more than
+     * once (for example, at the end of startup and again at shutdown).
+     */
+    public void stop() {
+        String json;
+        String target;
+        synchronized (this) {
+            if (!active) {
+                return;
+            }
+            active = false;
+            json = toJson();
+            target = file;
+            events.clear();
+            threads.clear();
+        }
+        try {
+            Gdx.files.local( target ).writeString( json, false );
+            Gdx.app.log( TAG, "Wrote "+target );
+        } catch (RuntimeException e) {
+            Gdx.app.error( TAG, "Could not write "+target, e );
+        }
+    }
+
+    /**
+     * Returns the recorded events in the Chrome trace event format
+     *
+     * @return the recorded events in the Chrome trace event format
+     */
+    private String toJson() {
+        StringBuilder out = new StringBuilder( 128*(events.size+threads.size) );
+        out.append( "{\"traceEvents\":[\n" );
+        boolean first = true;
+        for(LongMap.Entry<String> entry : threads.entries()) {
+            if (!first) {
+                out.append( ",\n" );
+            }
+            first = false;
+            out.append( "{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":" ).append( PID );
+            out.append( ",\"tid\":" ).append( entry.key ).append( ",\"args\":{\"name\":" );
+            quote( out, entry.value ).append( "}}" );
+        }
+        for(Event event : events) {
+            if (!first) {
+                out.append( ",\n" );
+            }
+            first = false;
+            out.append( "{\"ph\":\"" ).append( event.phase ).append( "\",\"name\":" );
+            quote( out, event.name );
+            out.append( ",\"cat\":\"" ).append( event.asset == null ? GAME : ASSET ).append( '"' );
+            out.append( ",\"ts\":" ).append( event.micros );
+            out.append( ",\"pid\":" ).append( PID ).append( ",\"tid\":" ).append( event.thread );
+            if (event.phase == 'b' || event.phase == 'e') {
+                out.append( ",\"id\":" );
+                quote( out, event.name );
+            } else if (event.phase == 'i') {
+                out.append( ",\"s\":\"p\"" );
+            }
+            if (event.asset != null) {
+                out.append( ",\"args\":{\"asset\":" );
+                quote( out, event.asset ).append( '}' );
+            }
+            out.append( '}' );
+        }
+        out.append( "\n]}\n" );
+        return out.toString();
+    }
+
+    /**
+     * Appends the given string as a JSON string literal
+     *
+     * @param out   The output buffer
+     * @param value The string to quote
+     *
+     * @return the output buffer, for chaining
+     */
+    private static StringBuilder quote(StringBuilder out, String value) {
+        out.append( '"' );
+        for(int ii = 0; ii < value.length(); ii++) {
+            char c = value.charAt( ii );
+            if (c == '"' || c == '\\') {
+                out.append( '\\' ).append( c );
+            } else if (c < ' ') {
+                out.append( String.format( "\\u%04x", (int)c ) );
+            } else {
+                out.append( c );
+            }
+        }
+        return out.append( '"' );
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * SpriteBenchmark.java
+ *
+ * Most of the sprites in a level are drawn unrotated, and GameCanvas draws these as
+ * plain rectangles instead of building an affine transform.  This harness measures how many sprites per millisecond each path can
+ * submit, so that the two can be compared on the same machine.  The baseline is the
+ * draw as it was before that change: an affine transform and a batch color change
+ * for every sprite.
+ *
+ * It runs without a window, on the headless backend.  That backend has no OpenGL, so
+ * the harness installs a stub that accepts every call (and reports every shader as
+ * compiled).  This means only the CPU side of drawing is timed: packing the vertices
+ * and batching them.  That is the part the fast path changes.  The GPU work is the
+ * same for both paths.
+ */
+package edu.cornell.gdiac.somniphobia.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Affine2;
+import edu.cornell.gdiac.somniphobia.GameCanvas;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * The headless benchmark of the sprite drawing paths in GameCanvas.
+ */
+public class SpriteBenchmark extends ApplicationAdapter {
+	/** The number of frames drawn before timing, so that the JIT has compiled both paths */
+	private static final int WARMUP_FRAMES = 200;
+	/** The number of frames timed for each path in a round */
+	private static final int TIMED_FRAMES = 500;
+	/** The number of rounds of each path */
+	private static final int ROUNDS = 3;
+	/** The size of the sprite texture (in pixels) */
+	private static final int SPRITE_SIZE = 32;
+	/** The number of sprites in a row of the grid */
+	private static final int COLUMNS = 100;
+	/** The scale of each sprite (the level sprites are all scaled) */
+	private static final float SCALE = 0.5f;
+
+	/** The number of sprites drawn each frame */
+	private int sprites;
+	/** The canvas being measured */
+	private GameCanvas canvas;
+	/** The sprite texture */
+	private Texture texture;
+	/** The sprite region */
+	private TextureRegion region;
+	/** The transform of the baseline path */
+	private Affine2 transform;
+
+	/**
+	 * Runs the benchmark, and exits when it is done.
+	 *
+	 * @param sprites	The number of sprites drawn each frame
+	 */
+	public static void run(int sprites) {
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		new HeadlessApplication(new SpriteBenchmark(sprites), config);
+	}
+
+	/**
+	 * Creates a benchmark that draws the given number of sprites each frame
+	 *
+	 * @param sprites	The number of sprites drawn each frame
+	 */
+	public SpriteBenchmark(int sprites) {
+		this.sprites = sprites;
+	}
+
+	/**
+	 * Measures both paths and writes the results to the log.
+	 */
+	@Override
+	public void create() {
+		Gdx.gl = Gdx.gl20 = stubGL();
+		canvas = new GameCanvas();
+		Pixmap pixmap = new Pixmap(SPRITE_SIZE, SPRITE_SIZE, Pixmap.Format.RGBA8888);
+		texture = new Texture(pixmap);
+		pixmap.dispose();
+		region = new TextureRegion(texture);
+		transform = new Affine2();
+
+		// Interleave the paths, so that neither is favored by running first
+		double before = 0;
+		double after = 0;
+		for (int ii = 0; ii < ROUNDS; ii++) {
+			before += measure(true);
+			after += measure(false);
+		}
+		before /= ROUNDS;
+		after /= ROUNDS;
+
+		System.out.println(String.format("%d sprites per frame, %d frames per path", sprites, ROUNDS*TIMED_FRAMES));
+		System.out.println(String.format("Before (affine, setColor): %.1f sprites/ms", before));
+		System.out.println(String.format("After (direct quad):       %.1f sprites/ms (%.2fx)", after, after/before));
+		Gdx.app.exit();
+	}
+
+	/**
+	 * Disposes of the canvas and the sprite texture.
+	 */
+	@Override
+	public void dispose() {
+		if (canvas != null) {
+			canvas.dispose();
+			canvas = null;
+		}
+		if (texture != null) {
+			texture.dispose();
+			texture = null;
+		}
+	}
+
+	/**
+	 * Returns the sprites per millisecond of one of the drawing paths
+	 *
+	 * @param before	Whether to draw as before the fast path (instead of a quad)
+	 *
+	 * @return the sprites per millisecond of one of the drawing paths
+	 */
+	private double measure(boolean before) {
+		for (int ii = 0; ii < WARMUP_FRAMES; ii++) {
+			drawFrame(before);
+		}
+		long start = System.nanoTime();
+		for (int ii = 0; ii < TIMED_FRAMES; ii++) {
+			drawFrame(before);
+		}
+		double millis = (System.nanoTime()-start)/1000000.0;
+		return (double)sprites*TIMED_FRAMES/millis;
+	}
+
+	/**
+	 * Draws a grid of white sprites through one of the drawing paths
+	 *
+	 * The baseline goes straight to the sprite batch with the code of the unrotated
+	 * draw before the fast path: the transform of computeTransform, then setColor and
+	 * an affine draw for every sprite.  The other path is the current canvas draw.
+	 *
+	 * @param before	Whether to draw as before the fast path (instead of a quad)
+	 */
+	private void drawFrame(boolean before) {
+		float ox = SPRITE_SIZE/2.0f;
+		float oy = SPRITE_SIZE/2.0f;
+		Color tint = Color.WHITE;
+		canvas.begin();
+		Batch batch = canvas.getBatch();
+		for (int ii = 0; ii < sprites; ii++) {
+			float x = (ii % COLUMNS)*SPRITE_SIZE*SCALE;
+			float y = (ii / COLUMNS)*SPRITE_SIZE*SCALE;
+			if (before) {
+				transform.setToTranslation(x, y);
+				transform.rotate(0);
+				transform.scale(SCALE, SCALE);
+				transform.translate(-ox, -oy);
+				batch.setColor(tint);
+				batch.draw(region, region.getRegionWidth(), region.getRegionHeight(), transform);
+			} else {
+				canvas.draw(region, tint, ox, oy, x, y, 0, SCALE, SCALE);
+			}
+		}
+		canvas.end();
+	}
+
+	/**
+	 * Returns an OpenGL stub that accepts every call.
+	 *
+	 * Every object creation returns a valid name, and every shader and program reports
+	 * that it compiled and linked (with no attributes or uniforms to fetch).  Any other
+	 * query returns zero.
+	 *
+	 * @return an OpenGL stub that accepts every call
+	 */
+	private static GL20 stubGL() {
+		InvocationHandler handler = new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				String name = method.getName();
+				if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+					int pname = (Integer)args[1];
+					boolean count = pname == GL20.GL_ACTIVE_ATTRIBUTES || pname == GL20.GL_ACTIVE_UNIFORMS;
+					((IntBuffer)args[2]).put(0, count ? 0 : 1);
+					return null;
+				} else if (name.startsWith("glCreate") || name.startsWith("glGen")) {
+					return 1;
+				} else if (name.equals("glCheckFramebufferStatus")) {
+					return GL20.GL_FRAMEBUFFER_COMPLETE;
+				}
+
+				Class<?> type = method.getReturnType();
+				if (type == String.class) {
+					return "";
+				} else if (type == boolean.class) {
+					return false;
+				} else if (type == int.class) {
+					return 0;
+				} else if (type == float.class) {
+					return 0.0f;
+				}
+				return null;
+			}
+		};
+		return (GL20)Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class }, handler);
+	}
+}
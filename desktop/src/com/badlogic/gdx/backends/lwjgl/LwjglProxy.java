@@ -26,6 +26,7 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.LifecycleListener;
 import com.badlogic.gdx.Net;
 import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Clipboard;
 import com.badlogic.gdx.utils.GdxRuntimeException;
@@ -168,6 +169,48 @@ public class LwjglProxy implements Application {
      */
     protected void disposeResources() {}
 
+    // #mark -
+    // #mark Frame Hooks
+    /**
+     * Returns the frame time to pass to the application listener.
+     *
+     * This allows a subclass to smooth or clamp the measured frame time.
+     *
+     * @param dt    The measured frame time in seconds
+     *
+     * @return the frame time to pass to the application listener.
+     */
+    protected float smoothFrameTime(float dt) {
+        return dt;
+    }
+
+    /**
+     * Waits until it is time for the next frame.
+     *
+     * This allows a subclass to replace the default frame limiter.
+     *
+     * @param frameRate The target frame rate (0 or less to not wait)
+     * @param rendered  Whether a frame was rendered this iteration
+     */
+    protected void syncFrame(int frameRate, boolean rendered) {
+        if (frameRate > 0) { Display.sync( frameRate ); }
+    }
+
+    // #mark -
+    // #mark Preference Hooks
+    /**
+     * Returns the preferences stored in the given file.
+     *
+     * This allows a subclass to change how preferences are written.
+     *
+     * @param file  The preference file
+     *
+     * @return the preferences stored in the given file.
+     */
+    protected Preferences createPreferences(FileHandle file) {
+        return new LwjglPreferences( file );
+    }
+
     // #mark -
     // Return to the LwjglApplication methods
     private static LwjglApplicationConfiguration createConfig (String title, int width, int height) {
@@ -305,6 +348,7 @@ public class LwjglProxy implements Application {
                 int frameRate = isBackground ? graphics.config.backgroundFPS : graphics.config.foregroundFPS;
                 if (shouldRender) {
                     graphics.updateTime();
+                    graphics.deltaTime = smoothFrameTime( graphics.deltaTime );
                     graphics.frameId++;
                     listener.render();
                     try {
@@ -319,7 +363,7 @@ public class LwjglProxy implements Application {
                     if (frameRate == 0) frameRate = graphics.config.backgroundFPS;
                     if (frameRate == 0) frameRate = 30;
                 }
-                if (frameRate > 0) Display.sync( frameRate );
+                syncFrame( frameRate, shouldRender );
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -429,7 +473,7 @@ public class LwjglProxy implements Application {
         if (preferences.containsKey(name)) {
             return preferences.get(name);
         } else {
-            Preferences prefs = new LwjglPreferences(new LwjglFileHandle(new File(preferencesdir, name), preferencesFileType));
+            Preferences prefs = createPreferences(new LwjglFileHandle(new File(preferencesdir, name), preferencesFileType));
             preferences.put(name, prefs);
             return prefs;
         }
@@ -0,0 +1,80 @@
+/*
+ * AllocationCounter.java
+ *
+ * HotSpot keeps a running total of the bytes allocated by each thread, and exposes it
+ * through its extension of the thread MX bean.  This class reads that total for the
+ * allocation statistics of the game.  Reading the total may itself allocate a little
+ * (older JVMs wrap the thread id in an array), so that overhead is measured once and
+ * subtracted from every reading.
+ */
+package edu.cornell.gdiac.backend;
+
+import edu.cornell.gdiac.util.AllocationStats;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * This class counts the bytes allocated by the current thread on a HotSpot JVM.
+ */
+public class AllocationCounter implements AllocationStats.Counter {
+    /** The number of readings used to measure the overhead of a reading */
+    private static final int CALIBRATION = 16;
+
+    /** The thread bean of the JVM */
+    private final com.sun.management.ThreadMXBean bean;
+    /** The bytes allocated by a single reading */
+    private long overhead;
+    /** The number of readings so far */
+    private long readings;
+
+    /**
+     * Returns a counter for this JVM, or null if it cannot count allocations
+     *
+     * @return a counter for this JVM, or null if it cannot count allocations
+     */
+    public static AllocationCounter create() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+                return null;
+            }
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean)bean;
+            if (!sun.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            sun.setThreadAllocatedMemoryEnabled( true );
+            return new AllocationCounter( sun );
+        } catch (Throwable t) {
+            // Not a HotSpot JVM (or no management classes at all)
+            return null;
+        }
+    }
+
+    /**
+     * Creates a counter for the given bean, measuring the overhead of a reading
+     *
+     * @param bean  The thread bean of the JVM
+     */
+    private AllocationCounter(com.sun.management.ThreadMXBean bean) {
+        this.bean = bean;
+        long id = Thread.currentThread().getId();
+        long start = bean.getThreadAllocatedBytes( id );
+        long end = start;
+        for(int ii = 0; ii < CALIBRATION; ii++) {
+            end = bean.getThreadAllocatedBytes( id );
+        }
+        overhead = Math.max( 0, (end-start)/CALIBRATION );
+    }
+
+    /**
+     * Returns the total number of bytes allocated by the current thread
+     *
+     * The allocation of the readings themselves is left out.
+     *
+     * @return the total number of bytes allocated by the current thread
+     */
+    public long getAllocatedBytes() {
+        readings++;
+        return bean.getThreadAllocatedBytes( Thread.currentThread().getId() )-overhead*readings;
+    }
+}
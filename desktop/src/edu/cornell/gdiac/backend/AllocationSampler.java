@@ -0,0 +1,202 @@
+/*
+ * AllocationSampler.java
+ *
+ * The per-frame allocation statistics say how much the game allocates, but not where.
+ * This class is a sampling profiler for that.  A background thread wakes up every few
+ * milliseconds, reads how many bytes the game thread has allocated since the last
+ * sample, and charges them to the game method the thread is in right now.  Over a
+ * recorded run, the methods that allocate the most collect the most bytes.
+ *
+ * This is statistical.  Bytes are charged to where the thread is at the sample, not
+ * where the allocation happened, so short allocating calls may be charged to their
+ * neighbors.  It is meant to point at hot sites, not to account for every byte.
+ */
+package edu.cornell.gdiac.backend;
+
+import com.badlogic.gdx.Gdx;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class attributes the allocations of a thread to call sites by sampling.
+ */
+public class AllocationSampler implements Runnable {
+    /** The log tag for the reports */
+    private static final String TAG = "Allocation";
+    /** The time between samples in milliseconds */
+    private static final long SAMPLE_MILLIS = 2;
+    /** The number of sites in the report */
+    private static final int REPORT_SITES = 10;
+    /** The package prefix of game (and backend) code */
+    private static final String GAME_PACKAGE = "edu.cornell.gdiac.";
+
+    /** The thread bean of the JVM */
+    private final com.sun.management.ThreadMXBean bean;
+    /** The thread being sampled */
+    private final Thread target;
+    /** The sampling thread (null if stopped) */
+    private Thread thread;
+    /** The bytes charged to each site */
+    private final Map<String,long[]> sites;
+    /** The bytes allocated by the target at the last sample */
+    private long lastBytes;
+
+    /**
+     * Returns a sampler for the given thread, or null if this JVM cannot count allocations
+     *
+     * @param target    The thread to sample
+     *
+     * @return a sampler for the given thread, or null if this JVM cannot count allocations
+     */
+    public static AllocationSampler create(Thread target) {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (target == null || !(bean instanceof com.sun.management.ThreadMXBean)) {
+                return null;
+            }
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean)bean;
+            if (!sun.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            sun.setThreadAllocatedMemoryEnabled( true );
+            return new AllocationSampler( sun, target );
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a sampler for the given thread
+     *
+     * @param bean      The thread bean of the JVM
+     * @param target    The thread to sample
+     */
+    private AllocationSampler(com.sun.management.ThreadMXBean bean, Thread target) {
+        this.bean = bean;
+        this.target = target;
+        sites = new HashMap<String,long[]>();
+        lastBytes = -1;
+    }
+
+    /**
+     * Starts sampling on a background thread
+     */
+    public synchronized void start() {
+        if (thread == null) {
+            thread = new Thread( this, "AllocationSampler" );
+            thread.setDaemon( true );
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops sampling, and writes the sites that allocated the most to the log
+     */
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            current = thread;
+            thread = null;
+        }
+        if (current == null) {
+            return;
+        }
+        current.interrupt();
+        try {
+            current.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        report();
+    }
+
+    /**
+     * Samples the target thread until stopped
+     */
+    public void run() {
+        while (!Thread.currentThread().isInterrupted() && target.isAlive()) {
+            sample();
+            try {
+                Thread.sleep( SAMPLE_MILLIS );
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Charges the bytes allocated since the last sample to the current site
+     */
+    private void sample() {
+        long bytes = bean.getThreadAllocatedBytes( target.getId() );
+        if (bytes < 0) {
+            return;
+        }
+        long delta = lastBytes < 0 ? 0 : bytes-lastBytes;
+        lastBytes = bytes;
+        if (delta <= 0) {
+            return;
+        }
+        String site = site( target.getStackTrace() );
+        synchronized (sites) {
+            long[] total = sites.get( site );
+            if (total == null) {
+                total = new long[1];
+                sites.put( site, total );
+            }
+            total[0] += delta;
+        }
+    }
+
+    /**
+     * Returns the innermost game frame of the stack trace
+     *
+     * Library frames (the JDK, libGDX) are skipped, so that an allocation in a library
+     * is charged to the game code that called it.
+     *
+     * @param trace The stack trace of the target thread
+     *
+     * @return the innermost game frame of the stack trace
+     */
+    private static String site(StackTraceElement[] trace) {
+        for(StackTraceElement element : trace) {
+            if (element.getClassName().startsWith( GAME_PACKAGE )) {
+                return element.toString();
+            }
+        }
+        return trace.length > 0 ? trace[0].toString() : "unknown";
+    }
+
+    /**
+     * Writes the sites that allocated the most to the log
+     */
+    public void report() {
+        List<Map.Entry<String,long[]>> entries;
+        long total = 0;
+        synchronized (sites) {
+            entries = new ArrayList<Map.Entry<String,long[]>>( sites.entrySet() );
+        }
+        for(Map.Entry<String,long[]> entry : entries) {
+            total += entry.getValue()[0];
+        }
+        Collections.sort( entries, new Comparator<Map.Entry<String,long[]>>() {
+            public int compare(Map.Entry<String,long[]> a, Map.Entry<String,long[]> b) {
+                return Long.compare( b.getValue()[0], a.getValue()[0] );
+            }
+        } );
+
+        Gdx.app.log( TAG, "Sampled "+total+" bytes at "+entries.size()+" sites" );
+        for(int ii = 0; ii < entries.size() && ii < REPORT_SITES; ii++) {
+            Map.Entry<String,long[]> entry = entries.get( ii );
+            long bytes = entry.getValue()[0];
+            Gdx.app.log( TAG, String.format( "%5.1f%% %12d bytes  %s",
+                                             100.0*bytes/Math.max( 1, total ), bytes, entry.getKey() ) );
+        }
+    }
+}
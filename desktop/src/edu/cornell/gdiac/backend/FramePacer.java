@@ -0,0 +1,181 @@
+/*
+ * FramePacer.java
+ *
+ * The default LWJGL frame limiter (Display.sync) sleeps in whole milliseconds and then
+ * corrects itself over several frames.  On most operating systems a sleep can wake up
+ * a millisecond or two late, so the frame times jitter around the target.  This class
+ * replaces it with a limiter that sleeps until just before the deadline and then spins
+ * the rest of the way.  The spin window adapts to how late the sleeps actually wake.
+ *
+ * It also supports an uncapped benchmark mode and smoothing of the frame time that
+ * is handed to the game.
+ */
+package edu.cornell.gdiac.backend;
+
+import edu.cornell.gdiac.util.FrameStats;
+
+/**
+ * This class paces the frames of a {@link GDXApp}.
+ *
+ * The pacer has three jobs.  It waits for the next frame deadline, using a sleep
+ * followed by a spin.  It smooths the delta time passed to the application listener,
+ * so that a single slow frame does not cause a jump in the simulation.  And in
+ * benchmark mode it does not wait at all, but instead records the frame times in
+ * {@link FrameStats} so that the achievable frame rate of each level is reported.
+ */
+public class FramePacer {
+    /** The number of nanoseconds in a second */
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    /** The number of nanoseconds in a millisecond */
+    private static final long NANOS_PER_MILLI = 1000000L;
+    /** The weight of a new oversleep measurement in the spin window */
+    private static final float SPIN_ADAPT = 0.1f;
+    /** The extra margin added to the measured oversleep */
+    private static final long SPIN_MARGIN = 250000L;
+
+    /** Whether to run uncapped and record frame times */
+    private boolean benchmark;
+    /** The smallest spin window in nanoseconds */
+    private long minSpin;
+    /** The largest spin window in nanoseconds */
+    private long maxSpin;
+    /** The current (adaptive) spin window in nanoseconds */
+    private long spin;
+    /** The weight of a new frame in the smoothed delta time (1 for no smoothing) */
+    private float smoothing;
+    /** The largest delta time passed to the application in seconds */
+    private float maxDelta;
+    /** The smoothed delta time in seconds (negative if there is none yet) */
+    private float smoothed;
+    /** The deadline of the next frame in nanoseconds (0 if not yet started) */
+    private long deadline;
+    /** The start of the last rendered frame in nanoseconds (0 if none) */
+    private long lastFrame;
+
+    /**
+     * Creates a frame pacer from the given settings.
+     *
+     * @param settings  The application settings
+     */
+    public FramePacer(GDXAppSettings settings) {
+        benchmark = settings.benchmark;
+        minSpin = Math.max( 0, settings.frameSpinMicros )*1000L;
+        maxSpin = Math.max( minSpin, 4*NANOS_PER_MILLI );
+        spin = minSpin;
+        smoothing = Math.max( 0.0f, Math.min( 1.0f, settings.frameSmoothing ) );
+        maxDelta = settings.maxFrameTime;
+        smoothed = -1;
+        deadline = 0;
+        lastFrame = 0;
+    }
+
+    /**
+     * Returns true if this pacer is in benchmark mode.
+     *
+     * @return true if this pacer is in benchmark mode.
+     */
+    public boolean isBenchmark() {
+        return benchmark;
+    }
+
+    /**
+     * Returns the current spin window in nanoseconds.
+     *
+     * @return the current spin window in nanoseconds.
+     */
+    public long getSpinWindow() {
+        return spin;
+    }
+
+    /**
+     * Returns the smoothed version of the given frame time.
+     *
+     * The frame time is first clamped to the maximum frame time (so that a stall, like
+     * a window drag, does not cause a huge step).  It is then blended with the previous
+     * frames using an exponential moving average.
+     *
+     * @param dt    The measured frame time in seconds
+     *
+     * @return the smoothed version of the given frame time.
+     */
+    public float smooth(float dt) {
+        if (maxDelta > 0 && dt > maxDelta) {
+            dt = maxDelta;
+        }
+        if (smoothed < 0 || smoothing >= 1.0f) {
+            smoothed = dt;
+        } else {
+            smoothed += (dt-smoothed)*smoothing;
+        }
+        return smoothed;
+    }
+
+    /**
+     * Waits until the next frame deadline for the given frame rate.
+     *
+     * In benchmark mode, this does not wait.  Instead it records the time since the
+     * last rendered frame.  A frame rate of 0 or less does not wait either.
+     *
+     * @param frameRate The target frame rate
+     * @param rendered  Whether a frame was rendered this iteration
+     */
+    public void sync(int frameRate, boolean rendered) {
+        long now = System.nanoTime();
+        if (rendered) {
+            if (lastFrame != 0) {
+                FrameStats.get().addFrame( (now-lastFrame)/(float)NANOS_PER_SECOND );
+            }
+            lastFrame = now;
+        } else {
+            lastFrame = 0;
+        }
+
+        if ((benchmark && rendered) || frameRate <= 0) {
+            deadline = 0;
+            return;
+        }
+
+        long period = NANOS_PER_SECOND/frameRate;
+        if (deadline == 0 || now-deadline > period) {
+            // We fell more than a frame behind; do not try to catch up
+            deadline = now;
+        }
+        deadline += period;
+        waitUntil( deadline );
+        if (rendered) {
+            // Frame time is measured from the end of the wait, not the start
+            lastFrame = System.nanoTime();
+        }
+    }
+
+    /**
+     * Waits until the given time, sleeping for as much of it as is safe.
+     *
+     * The thread sleeps until the spin window before the deadline, and then yields
+     * until the deadline passes.  Every sleep measures how late it woke, and the
+     * spin window moves towards that lateness (plus a small margin).
+     *
+     * @param target    The time to wait for in nanoseconds
+     */
+    private void waitUntil(long target) {
+        long remain = target-System.nanoTime();
+        while (remain > spin) {
+            long request = remain-spin;
+            long start = System.nanoTime();
+            try {
+                Thread.sleep( request/NANOS_PER_MILLI, (int)(request%NANOS_PER_MILLI) );
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long over = (System.nanoTime()-start)-request;
+            long window = Math.max( 0, over )+SPIN_MARGIN;
+            spin += (long)((window-spin)*SPIN_ADAPT);
+            spin = Math.max( minSpin, Math.min( maxSpin, spin ) );
+            remain = target-System.nanoTime();
+        }
+        while (System.nanoTime() < target) {
+            Thread.yield();
+        }
+    }
+}
@@ -11,11 +11,17 @@ package edu.cornell.gdiac.backend;
 
 import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.Audio;
+import com.badlogic.gdx.Preferences;
 import com.badlogic.gdx.backends.lwjgl.*;
 import com.badlogic.gdx.backends.lwjgl.audio.OpenALLwjglAudio;
+import com.badlogic.gdx.files.FileHandle;
 
 import edu.cornell.gdiac.assets.ResourceManager;
+import edu.cornell.gdiac.util.AllocationStats;
 import edu.cornell.gdiac.util.Controllers;
+import edu.cornell.gdiac.util.FrameStats;
+import edu.cornell.gdiac.util.GLResources;
+import edu.cornell.gdiac.util.Trace;
 /**
  * This class represents a desktop game application using Lwjgl.
  *
@@ -30,6 +36,12 @@ public class GDXApp extends LwjglProxy {
     /** The replacement audio engine */
     protected GDXAudio engine;
 
+    /** The frame limiter (set after the main loop starts, so it may briefly be null) */
+    protected volatile FramePacer pacer;
+
+    /** The allocation sampler (null unless sampling) */
+    protected AllocationSampler sampler;
+
     /**
      * Creates a game application with the given listener and settings.
      *
@@ -40,14 +52,44 @@ public class GDXApp extends LwjglProxy {
      * @param config    The game settings
      */
     public GDXApp(ApplicationListener listener, GDXAppSettings config) {
-        super( listener, config.getLwjglConfiguration() );
+        super( listener, prepare( config ) );
         this.config = config;
+        this.pacer = new FramePacer( config );
+        FrameStats.get().setActive( config.benchmark );
+        AllocationStats.get().setCounter( AllocationCounter.create() );
+        AllocationStats.get().setBudget( config.allocationBudget );
+        if (config.allocationSampling) {
+            sampler = AllocationSampler.create( mainLoopThread );
+            if (sampler != null) {
+                sampler.start();
+            }
+        }
 
         // Bootup the resource and the controller manager
         ResourceManager.get();
         Controllers.get().setActive(config.useControllers);
     }
 
+    /**
+     * Returns the LWJGL configuration, after starting the services needed at launch
+     *
+     * The main loop starts in the parent constructor, before the body of ours, so the
+     * startup trace must be started here to see the first frames.  The same is true of
+     * the resource registry, as the game creates its first textures in create().
+     *
+     * @param config    The game settings
+     *
+     * @return the LWJGL configuration for the given settings
+     */
+    private static LwjglApplicationConfiguration prepare(GDXAppSettings config) {
+        GLResources.get().setActive( config.trackResources );
+        if (config.traceFile != null) {
+            Trace.get().start( config.traceFile );
+            Trace.get().mark( "launch" );
+        }
+        return config.getLwjglConfiguration();
+    }
+
     /**
      * Returns the settings for this application
      *
@@ -140,17 +182,78 @@ public class GDXApp extends LwjglProxy {
      */
     @Override
     protected void updateAudio() {
+        AllocationStats.get().begin( AllocationStats.AUDIO );
         if (engine != null) {
             engine.update();
         } else if (audio != null) {
             audio.update();
         }
+        AllocationStats.get().end( AllocationStats.AUDIO );
+    }
+
+    /**
+     * Returns the frame time to pass to the application listener.
+     *
+     * The frame time is clamped and smoothed according to the settings.
+     *
+     * @param dt    The measured frame time in seconds
+     *
+     * @return the frame time to pass to the application listener.
+     */
+    @Override
+    protected float smoothFrameTime(float dt) {
+        FramePacer current = pacer;
+        return current == null ? dt : current.smooth( dt );
+    }
+
+    /**
+     * Waits until it is time for the next frame.
+     *
+     * This uses a {@link FramePacer} instead of the default LWJGL limiter.  It also
+     * marks the end of each rendered frame for the {@link AllocationStats}.
+     *
+     * @param frameRate The target frame rate (0 or less to not wait)
+     * @param rendered  Whether a frame was rendered this iteration
+     */
+    @Override
+    protected void syncFrame(int frameRate, boolean rendered) {
+        if (rendered) {
+            AllocationStats.get().endFrame();
+        }
+        FramePacer current = pacer;
+        if (current == null) {
+            super.syncFrame( frameRate, rendered );
+        } else {
+            current.sync( frameRate, rendered );
+        }
+    }
+
+    /**
+     * Returns the preferences stored in the given file.
+     *
+     * These preferences write a temporary file and rename it, so that save data is
+     * never left half written.
+     *
+     * @param file  The preference file
+     *
+     * @return the preferences stored in the given file.
+     */
+    @Override
+    protected Preferences createPreferences(FileHandle file) {
+        return new GDXPreferences( file );
     }
 
     /**
      * Dispose any additional resources in the final cleanup phase.
      */
     protected void disposeResources() {
+        FrameStats.get().flush();
+        GLResources.get().report( "shutdown" );
+        Trace.get().stop();
+        if (sampler != null) {
+            sampler.stop();
+            sampler = null;
+        }
         ResourceManager.dispose();
     }
 
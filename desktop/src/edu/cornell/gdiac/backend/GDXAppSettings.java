@@ -90,6 +90,65 @@ public class GDXAppSettings {
      * not the foreground window, use backgroundFPS -1.
      */
     public boolean pauseWhenBackground = false;
+
+    /**
+     * Whether to run in benchmark mode
+     *
+     * In benchmark mode, vsync and the foreground frame limit are ignored.  The game
+     * runs as fast as it can, and the achievable frame rate of each level is written
+     * to the log when the level changes.
+     */
+    public boolean benchmark = false;
+    /**
+     * Whether to track GPU resources
+     *
+     * When tracking, every texture, frame buffer, batch and stage created by the game
+     * is recorded with its allocation site.  The live counts and estimated memory are
+     * written to the log at each screen transition.
+     */
+    public boolean trackResources = false;
+    /**
+     * The largest allocation in bytes allowed in a frame (negative for no budget)
+     *
+     * In benchmark mode, the frames of each level that allocate more than this are
+     * reported as an error.  A budget of 0 demands no allocation in the steady state.
+     */
+    public long allocationBudget = -1;
+    /**
+     * Whether to attribute allocations to call sites by sampling
+     *
+     * The sites that allocated the most are written to the log at shutdown.
+     */
+    public boolean allocationSampling = false;
+    /**
+     * The file to write a startup trace to (null for no trace)
+     *
+     * The trace records the spans of startup work on each thread, from the launch to
+     * the first interactive menu, in the Chrome trace event format.  The file is
+     * relative to the local storage directory.
+     */
+    public String traceFile = null;
+    /**
+     * The smallest time (in microseconds) to spin before a frame deadline
+     *
+     * The frame limiter sleeps until shortly before each deadline and then spins.
+     * The spin window grows past this value if sleeps on this machine wake up late.
+     */
+    public int frameSpinMicros = 1000;
+    /**
+     * The weight of the newest frame in the frame time passed to the game
+     *
+     * The delta time is an exponential moving average of the measured frame times.
+     * Use 1 to pass the measured frame time unchanged.
+     */
+    public float frameSmoothing = 0.2f;
+    /**
+     * The largest frame time (in seconds) passed to the game
+     *
+     * Longer frames (such as from a window drag) are clamped to this value. Use 0
+     * for no limit.
+     */
+    public float maxFrameTime = 0.1f;
     
     /**
      * Whether to support game controllers
@@ -113,7 +172,7 @@ public class GDXAppSettings {
         config.x = x;
         config.y = y;
         config.fullscreen = fullscreen;
-        config.vSyncEnabled = vSyncEnabled;
+        config.vSyncEnabled = vSyncEnabled && !benchmark;
         config.useHDPI = useHDPI;
         config.samples = samples;
         config.useGL30 = false;
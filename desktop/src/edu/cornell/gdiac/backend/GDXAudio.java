@@ -87,6 +87,10 @@ public class GDXAudio implements AudioEngine {
     
     /** A float buffer to query OpenAL */
     private FloatBuffer floatdata;
+    /** A pooled direct buffer for decoding sound effects */
+    private ByteBuffer decodeBuffer;
+    /** The health statistics for this engine */
+    private AudioMetrics metrics;
     
     /**
      * Creates an audio engine with the default settings.
@@ -123,6 +127,7 @@ public class GDXAudio implements AudioEngine {
         registerFormat("ogg", OggSource.class);
         registerFormat("wav", WavSource.class);
         registerFormat("mp3", Mp3Source.class);
+        metrics = new AudioMetrics( simultaneousSources );
 
         try {
             allSources = new IntArray( false, simultaneousSources );
@@ -427,6 +432,19 @@ public class GDXAudio implements AudioEngine {
         return buffers.length;
     }
 
+    /**
+     * Returns the health statistics for this audio engine.
+     *
+     * These statistics include buffer underruns and queue depth per source, decode 
+     * time per refill, active voices, and decode throughput. Collection is disabled
+     * by default; call {@link AudioMetrics#setEnabled} to turn it on.
+     *
+     * @return the health statistics for this audio engine.
+     */
+    public AudioMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Pauses all sound instances associated with this audio engine.
      *
@@ -468,6 +486,26 @@ public class GDXAudio implements AudioEngine {
         globalPause = false;
     }
     
+    /**
+     * Returns the pooled direct buffer for decoding, with at least the given capacity.
+     *
+     * The buffer is cleared and its limit is set to the requested size. It is only
+     * reallocated when a larger size is needed, so that loading many sound effects
+     * does not allocate a native buffer per sound.
+     *
+     * @param size  The number of bytes required
+     *
+     * @return the pooled direct buffer for decoding
+     */
+    private ByteBuffer obtainDecodeBuffer(int size) {
+        if (decodeBuffer == null || decodeBuffer.capacity() < size) {
+            decodeBuffer = BufferUtils.createByteBuffer( size );
+        }
+        ((java.nio.Buffer)decodeBuffer).clear();
+        ((java.nio.Buffer)decodeBuffer).limit( size );
+        return decodeBuffer;
+    }
+
     // #mark OpenAL Source Controls
     /**
      * Returns (and claims) a new OpenAL source for this buffer.
@@ -802,6 +840,28 @@ public class GDXAudio implements AudioEngine {
                 buffers[ii].update( indexToSource.get(ii, -1) );
             }
         }
+        if (metrics.isEnabled()) {
+            updateMetrics();
+        }
+    }
+
+    /**
+     * Samples the voice count and queue depth of every source for the metrics.
+     */
+    private void updateMetrics() {
+        int active = 0;
+        for(int ii = 0; ii < buffers.length; ii++) {
+            int depth = 0;
+            if (buffers[ii] != null) {
+                int sourceId = indexToSource.get(ii, -1);
+                if (getSourceState( sourceId ) == AL10.AL_PLAYING) {
+                    active++;
+                }
+                depth = AL10.alGetSourcei( sourceId, AL10.AL_BUFFERS_QUEUED );
+            }
+            metrics.recordQueue( ii, depth );
+        }
+        metrics.recordVoices( active );
     }
 
     // #mark -
@@ -845,14 +905,24 @@ public class GDXAudio implements AudioEngine {
         public SoundHandle(AudioSource sample) {
             super(null);
             this.sample = sample;
-            ByteBuffer buffer = sample.getData();
-            int bytesize = buffer.limit();
             
-            // Generate an OpenAL buffer
+            // Decode into the pooled buffer and generate an OpenAL buffer
             if (!noDevice) {
+                long start = metrics.isEnabled() ? System.nanoTime() : 0;
+                AudioStream stream = sample.getStream();
+                ByteBuffer buffer = obtainDecodeBuffer( (int)stream.getByteSize() );
+                while (buffer.hasRemaining() && stream.read( buffer ) > 0) {
+                    // Keep decoding
+                }
+                stream.reset();
+                ((java.nio.Buffer)buffer).flip();
+                if (metrics.isEnabled()) {
+                    metrics.recordLoad( buffer.limit(), System.nanoTime()-start );
+                }
+                
                 bufferId = AL10.alGenBuffers();
                 int format = sample.getChannels() > 1 ? AL10.AL_FORMAT_STEREO16 : AL10.AL_FORMAT_MONO16;
-                AL10.alBufferData(bufferId, format, buffer.asShortBuffer(), sample.getSampleRate());
+                AL10.alBufferData(bufferId, format, buffer, sample.getSampleRate());
             }
                         
             // Track simultaneous plays
@@ -1463,9 +1533,7 @@ public class GDXAudio implements AudioEngine {
         private final int bufferCount = 3;
         /** The number of bytes per sample (fixed in OpenAL) */
         private final int bytesPerSample = 2;
-        /** An array for reading bytes from the stream */
-        private final byte[] tempBytes  = new byte[bufferSize];
-        /** A native buffer for sending data to OpenAL */
+        /** A native buffer for decoding streams and sending data to OpenAL */
         private final ByteBuffer tempBuffer = BufferUtils.createByteBuffer( bufferSize );
         
         /** The current locked source id (or -1 for none) */
@@ -1871,11 +1939,11 @@ public class GDXAudio implements AudioEngine {
             boolean filled = false;
             if (position < streams.size) {
                 int length = 0;
-                length = streams.get( position ).seek(byteOffs, tempBytes );
+                ((java.nio.Buffer)tempBuffer).clear();
+                length = streams.get( position ).seek(byteOffs, tempBuffer );
                 if (length > 0) {
                     int bufferId = obtainBuffer();
-                    ((java.nio.Buffer)tempBuffer).clear();
-                    tempBuffer.put( tempBytes, 0, length ).flip();
+                    ((java.nio.Buffer)tempBuffer).flip();
                     AL10.alBufferData( bufferId, format, tempBuffer, sampleRate );
                     AL10.alSourceQueueBuffers( sourceId, bufferId );
                     
@@ -2425,6 +2493,9 @@ public class GDXAudio implements AudioEngine {
                 } else if (isPlaying && AL10.alGetSourcei( sourceId, AL10.AL_SOURCE_STATE ) != AL10.AL_PLAYING) {
                     if (!globalPause) {
                         // A buffer underflow will cause the source to stop.
+                        if (metrics.isEnabled()) {
+                            metrics.recordUnderrun( sourceToIndex.get( sourceId, -1 ) );
+                        }
                         AL10.alSourcePlay( sourceId );
                     }
                 }
@@ -2478,22 +2549,22 @@ public class GDXAudio implements AudioEngine {
         public synchronized int read(byte[] buffer) {
             int length = 0;
             if (position >= 0 && position < streams.size) {
-                length = streams.get(position).read( tempBytes );
+                length = streams.get(position).read( buffer );
                 int previous = position;
                 if (length <= 0 && isLooping && loopLocal) {
                     streams.get(position).reset();
-                    length =  streams.get(position).read( tempBytes );
+                    length =  streams.get(position).read( buffer );
                 }
                 while (length <= 0 && position < streams.size-1) {
                     position++;
-                    length = streams.get(position).read( tempBytes );
+                    length = streams.get(position).read( buffer );
                 }
                 if (length <= 0 && isLooping) {
                     reset();
                     position = -1;
                     while (length <= 0 && position <= previous) {
                         position++;
-                        length = streams.get(position).read( tempBytes );
+                        length = streams.get(position).read( buffer );
                     }
                 }
             }
@@ -2537,6 +2608,7 @@ public class GDXAudio implements AudioEngine {
          * @param bufferID  The OpenAL buffer to fill
          */
         private boolean fill(int bufferID) {
+            long start = metrics.isEnabled() ? System.nanoTime() : 0;
             ((java.nio.Buffer)tempBuffer).clear();
             int length = 0;
             if (orphaned != null) {
@@ -2546,19 +2618,19 @@ public class GDXAudio implements AudioEngine {
             }
             
             if (position >= 0 && position < streams.size) {
-                length = streams.get(position).read( tempBytes );
+                length = streams.get(position).read( tempBuffer );
                 int previous = position;
                 if (length <= 0 && isLooping && loopLocal) {
                     streams.get(position).reset();
                     leaving[bufferID-bufferStart]  = null;
                     arriving[bufferID-bufferStart] = samples.get( position );
-                    length =  streams.get(position).read( tempBytes );
+                    length =  streams.get(position).read( tempBuffer );
                 }
                 while (length <= 0 && position < streams.size-1) {
                     position++;
                     leaving[bufferID-bufferStart]  = samples.get( previous );
                     arriving[bufferID-bufferStart] = samples.get( position );
-                    length = streams.get(position).read( tempBytes );
+                    length = streams.get(position).read( tempBuffer );
                 }
                 if (length <= 0 && isLooping) {
                     reset();
@@ -2567,7 +2639,7 @@ public class GDXAudio implements AudioEngine {
                         position++;
                         leaving[bufferID-bufferStart]  = null;
                         arriving[bufferID-bufferStart] = samples.get( position );
-                        length = streams.get(position).read( tempBytes );
+                        length = streams.get(position).read( tempBuffer );
                     }
                 }
             }
@@ -2584,7 +2656,10 @@ public class GDXAudio implements AudioEngine {
             }
             byteoffs[bufferID-bufferStart] = totalbytes + streams.get(position).getByteOffset();
 
-            tempBuffer.put( tempBytes, 0, length ).flip();
+            ((java.nio.Buffer)tempBuffer).flip();
+            if (metrics.isEnabled()) {
+                metrics.recordRefill( length, System.nanoTime()-start );
+            }
             AL10.alBufferData( bufferID, format, tempBuffer, sampleRate );
             return true;
         }
@@ -0,0 +1,233 @@
+/*
+ * GDXPreferences.java
+ *
+ * The default desktop preferences (LwjglPreferences) write straight over the old file.
+ * If the game is killed part way through a write, the save data is lost.  This class
+ * is the same XML property file, except that a flush writes a temporary file first and
+ * then renames it over the old one.  A reader sees either the old file or the new one.
+ *
+ * The values are kept in a synchronized table, and a flush writes a copy of them, so
+ * a flush may run on a background thread while the game keeps changing values.
+ */
+package edu.cornell.gdiac.backend;
+
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * This class is a desktop implementation of {@link Preferences} with atomic writes.
+ */
+public class GDXPreferences implements Preferences {
+    /** The suffix of the temporary file written by a flush */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /** The preference values (as strings) */
+    private final Properties properties = new Properties();
+    /** The preference file */
+    private final FileHandle file;
+
+    /**
+     * Creates the preferences stored in the given file, loading it if it exists.
+     *
+     * @param file  The preference file
+     */
+    public GDXPreferences(FileHandle file) {
+        this.file = file;
+        if (!file.exists()) {
+            return;
+        }
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream( file.read() );
+            properties.loadFromXML( in );
+        } catch (Throwable t) {
+            t.printStackTrace();
+        } finally {
+            StreamUtils.closeQuietly( in );
+        }
+    }
+
+    // #mark -
+    // #mark Setters
+
+    @Override
+    public Preferences putBoolean(String key, boolean val) {
+        properties.put( key, Boolean.toString( val ) );
+        return this;
+    }
+
+    @Override
+    public Preferences putInteger(String key, int val) {
+        properties.put( key, Integer.toString( val ) );
+        return this;
+    }
+
+    @Override
+    public Preferences putLong(String key, long val) {
+        properties.put( key, Long.toString( val ) );
+        return this;
+    }
+
+    @Override
+    public Preferences putFloat(String key, float val) {
+        properties.put( key, Float.toString( val ) );
+        return this;
+    }
+
+    @Override
+    public Preferences putString(String key, String val) {
+        properties.put( key, val );
+        return this;
+    }
+
+    @Override
+    public Preferences put(Map<String, ?> vals) {
+        for (Map.Entry<String, ?> val : vals.entrySet()) {
+            Object value = val.getValue();
+            if (value instanceof Boolean) {
+                putBoolean( val.getKey(), (Boolean)value );
+            } else if (value instanceof Integer) {
+                putInteger( val.getKey(), (Integer)value );
+            } else if (value instanceof Long) {
+                putLong( val.getKey(), (Long)value );
+            } else if (value instanceof String) {
+                putString( val.getKey(), (String)value );
+            } else if (value instanceof Float) {
+                putFloat( val.getKey(), (Float)value );
+            }
+        }
+        return this;
+    }
+
+    // #mark -
+    // #mark Getters
+
+    @Override
+    public boolean getBoolean(String key) {
+        return getBoolean( key, false );
+    }
+
+    @Override
+    public int getInteger(String key) {
+        return getInteger( key, 0 );
+    }
+
+    @Override
+    public long getLong(String key) {
+        return getLong( key, 0 );
+    }
+
+    @Override
+    public float getFloat(String key) {
+        return getFloat( key, 0 );
+    }
+
+    @Override
+    public String getString(String key) {
+        return getString( key, "" );
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defValue) {
+        return Boolean.parseBoolean( properties.getProperty( key, Boolean.toString( defValue ) ) );
+    }
+
+    @Override
+    public int getInteger(String key, int defValue) {
+        return Integer.parseInt( properties.getProperty( key, Integer.toString( defValue ) ) );
+    }
+
+    @Override
+    public long getLong(String key, long defValue) {
+        return Long.parseLong( properties.getProperty( key, Long.toString( defValue ) ) );
+    }
+
+    @Override
+    public float getFloat(String key, float defValue) {
+        return Float.parseFloat( properties.getProperty( key, Float.toString( defValue ) ) );
+    }
+
+    @Override
+    public String getString(String key, String defValue) {
+        return properties.getProperty( key, defValue );
+    }
+
+    @Override
+    public Map<String, ?> get() {
+        Map<String, Object> map = new HashMap<String, Object>();
+        for (String key : properties.stringPropertyNames()) {
+            map.put( key, properties.getProperty( key ) );
+        }
+        return map;
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return properties.containsKey( key );
+    }
+
+    @Override
+    public void clear() {
+        properties.clear();
+    }
+
+    @Override
+    public void remove(String key) {
+        properties.remove( key );
+    }
+
+    // #mark -
+    // #mark Writing
+
+    /**
+     * Writes the preferences to disk.
+     *
+     * A copy of the values is written to a temporary file, which is synced and then
+     * renamed over the preference file.  Only one flush runs at a time.
+     */
+    @Override
+    public synchronized void flush() {
+        Properties copy = (Properties)properties.clone();
+        File target = file.file();
+        File temp = new File( target.getPath()+TEMP_SUFFIX );
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+
+        FileOutputStream out = null;
+        try {
+            out = new FileOutputStream( temp );
+            BufferedOutputStream buffer = new BufferedOutputStream( out );
+            copy.storeToXML( buffer, null );
+            buffer.flush();
+            out.getFD().sync();
+        } catch (IOException ex) {
+            StreamUtils.closeQuietly( out );
+            temp.delete();
+            throw new GdxRuntimeException( "Error writing preferences: "+file, ex );
+        }
+        StreamUtils.closeQuietly( out );
+
+        try {
+            try {
+                Files.move( temp.toPath(), target.toPath(),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move( temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING );
+            }
+        } catch (IOException ex) {
+            throw new GdxRuntimeException( "Error writing preferences: "+file, ex );
+        }
+    }
+}
@@ -15,7 +15,6 @@ import com.badlogic.gdx.utils.GdxRuntimeException;
 import edu.cornell.gdiac.audio.*;
 import javazoom.jl.decoder.*;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
@@ -185,15 +184,16 @@ public class Mp3Source implements AudioSource {
      */
     @Override
     public ByteBuffer getData() {
-        ByteArrayOutputStream output = new ByteArrayOutputStream(4096);
         Bitstream bitstream = new Bitstream(source.read());
         MP3Decoder decoder = new MP3Decoder();
         ByteBuffer result = null;
 
         try {
+            result = ByteBuffer.allocateDirect((int)byteSize);
+            result.order( ByteOrder.nativeOrder());
             OutputBuffer outputBuffer = null;
             int channels = -1;
-            while (true) {
+            while (result.hasRemaining()) {
                 Header header = bitstream.readFrame();
                 if (header == null) break;
                 if (outputBuffer == null) {
@@ -207,12 +207,10 @@ public class Mp3Source implements AudioSource {
                     // JLayer's decoder throws ArrayIndexOutOfBoundsException sometimes!?
                 }
                 bitstream.closeFrame();
-                output.write(outputBuffer.getBuffer(), 0, outputBuffer.reset());
+                int length = Math.min(outputBuffer.reset(), result.remaining());
+                result.put(outputBuffer.getBuffer(), 0, length);
             }
             bitstream.close();
-            result = ByteBuffer.allocateDirect((int)byteSize);
-            result.order( ByteOrder.nativeOrder());
-            result.put(output.toByteArray(), 0, (int)byteSize);
             ((java.nio.Buffer)result).flip();
         } catch (Throwable ex) {
             throw new GdxRuntimeException("Error reading audio data.", ex);
@@ -248,21 +246,25 @@ public class Mp3Source implements AudioSource {
         private long byteOffs;
         /** A byte array for grabbing data for sample queries */
         private byte[] tempBytes;
+        /** The start of the decoded data not yet delivered from the output buffer */
+        private int pendOffs;
+        /** The amount of decoded data not yet delivered from the output buffer */
+        private int pendSize;
         
         /**
          * Creates a new MP3 stream
          *
+         * The header is validated immediately, but the stream is not opened for 
+         * decoding until the first read. That way the first frame is not lost.
+         *
          * @throw GdxRuntimeException if the stream could not be initialized
          */
         public Stream() {
-            bitstream = new Bitstream(source.read());
-            decoder = new MP3Decoder();
+            Bitstream probe = new Bitstream(source.read());
             try {
-                Header header = bitstream.readFrame();
+                Header header = probe.readFrame();
                 if (header == null) throw new GdxRuntimeException("Empty MP3");
-                int channels = header.mode() == Header.SINGLE_CHANNEL ? 1 : 2;
-                outputBuffer = new OutputBuffer(channels, false);
-                decoder.setOutputBuffer(outputBuffer);
+                probe.close();
                 byteOffs = 0;
             } catch (BitstreamException e) {
                 throw new GdxRuntimeException("error while preloading mp3", e);
@@ -358,35 +360,52 @@ public class Mp3Source implements AudioSource {
         @Override
         public int read (byte[] buffer) {
             try {
-                boolean setup = bitstream == null;
-                if (setup) {
-                    bitstream = new Bitstream(source.read());
-                    decoder = new MP3Decoder();
-                }
-                
-                int totalLength = 0;
+                int totalLength = drain( buffer );
                 int minRequiredLength = buffer.length - OutputBuffer.BUFFERSIZE * 2;
                 while (totalLength <= minRequiredLength) {
-                    Header header = bitstream.readFrame();
-                    if (header == null) break;
-                    if (setup) {
-                        int channels = header.mode() == Header.SINGLE_CHANNEL ? 1 : 2;
-                        outputBuffer = new OutputBuffer(channels, false);
-                        decoder.setOutputBuffer(outputBuffer);
-                        setup = false;
-                    }
-                    try {
-                        decoder.decodeFrame(header, bitstream);
-                    } catch (Exception ignored) {
-                        // JLayer's decoder throws ArrayIndexOutOfBoundsException sometimes!?
-                    }
-                    bitstream.closeFrame();
-                    
-                    int length = outputBuffer.reset();
+                    int length = decodeFrame();
+                    if (length < 0) break;
                     System.arraycopy(outputBuffer.getBuffer(), 0, buffer, totalLength, length);
                     totalLength += length;
-                    byteOffs += length;
                 }
+                byteOffs += totalLength;
+                return totalLength;
+            } catch (Throwable ex) {
+                reset();
+                throw new GdxRuntimeException("Error reading audio data.", ex);
+            }
+        }
+        
+        /**
+         * Reads the next page of bytes directly into the given buffer.
+         *
+         * This method decodes straight into the buffer, starting at its current position
+         * and stopping at its limit. The position is advanced by the number of bytes read,
+         * but the buffer is not flipped. This is the preferred way to stream audio, as a 
+         * caller can reuse (or pool) a single direct buffer and hand it to the audio 
+         * device without any intermediate heap arrays.
+         *
+         * Unlike {@link #read(byte[])}, this method fills the buffer exactly. Any part
+         * of a frame that does not fit is held back for the next read.
+         *
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of bytes read (<= 0 at the end of the stream)
+         */
+        @Override
+        public int read(ByteBuffer buffer) {
+            try {
+                int totalLength = drain( buffer );
+                while (buffer.hasRemaining()) {
+                    int length = decodeFrame();
+                    if (length < 0) break;
+                    int amount = Math.min( length, buffer.remaining() );
+                    buffer.put( outputBuffer.getBuffer(), 0, amount );
+                    pendOffs = amount;
+                    pendSize = length-amount;
+                    totalLength += amount;
+                }
+                byteOffs += totalLength;
                 return totalLength;
             } catch (Throwable ex) {
                 reset();
@@ -490,55 +509,35 @@ public class Mp3Source implements AudioSource {
             if (pos <= 0 || buffer.length <= 1) {
                 throw new IllegalArgumentException( "Illegal seek parameters" );
             }
-            byte[] temp = new byte[buffer.length/2];
-            if (pos < byteOffs) {
-                reset();
+            if (!skipTo( pos )) {
+                return 0;
             }
-            
-            try {
-                boolean setup = bitstream == null;
-                if (setup) {
-                    bitstream = new Bitstream(source.read());
-                    decoder = new MP3Decoder();
-                }
-                
-                int chunk = 1;
-                while (chunk > 0 && byteOffs < pos) {
-                    Header header = bitstream.readFrame();
-                    if (header == null) break;
-                    if (setup) {
-                        int channels = header.mode() == Header.SINGLE_CHANNEL ? 1 : 2;
-                        outputBuffer = new OutputBuffer(channels, false);
-                        decoder.setOutputBuffer(outputBuffer);
-                        setup = false;
-                    }
-                    try {
-                        decoder.decodeFrame(header, bitstream);
-                    } catch (Exception ignored) {
-                        // JLayer's decoder throws ArrayIndexOutOfBoundsException sometimes!?
-                    }
-                    bitstream.closeFrame();
-                    chunk = outputBuffer.reset();
-                    byteOffs += chunk;
-                }
-                
-                if (byteOffs < pos) {
-                    reset();
-                    return 0;
-                }
-                
-                System.arraycopy(outputBuffer.getBuffer(), 0, temp, 0, chunk);
-                int mark = (int)(byteOffs-pos);
-                System.arraycopy( temp, mark, buffer,0,chunk-mark );
-                mark = chunk-mark;
-                chunk = read( temp );
-                System.arraycopy( temp,0, buffer, mark, chunk );
-                
-                return chunk+mark;
-            } catch (Throwable ex) {
-                reset();
-                throw new GdxRuntimeException("Error reading audio data.", ex);
+            return read( buffer );
+        }
+        
+        /**
+         * Seeks to the given byte position, reading the results into the provided buffer
+         *
+         * Provided the position sought is found, the data at that position will be
+         * written to the buffer starting at its current position, which is advanced by
+         * the number of bytes read. The buffer is not flipped. The value returned is the 
+         * number of bytes written to buffer (including this position). So a value of 0 
+         * means that the seek failed.
+         *
+         * @param pos       The position to seek to
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of bytes read
+         */
+        @Override
+        public int seek(long pos, ByteBuffer buffer) {
+            if (pos <= 0 || buffer.remaining() <= 1) {
+                throw new IllegalArgumentException( "Illegal seek parameters" );
+            }
+            if (!skipTo( pos )) {
+                return 0;
             }
+            return read( buffer );
         }
         
         /**
@@ -632,6 +631,121 @@ public class Mp3Source implements AudioSource {
             }
             bitstream = null;
             byteOffs = 0;
+            pendOffs = 0;
+            pendSize = 0;
+        }
+        
+        // #mark Internal Methods
+        /**
+         * Decodes the next MP3 frame into the output buffer.
+         *
+         * If the stream has been reset, this method reopens the file first. The 
+         * decoded data is always at the start of the output buffer.
+         *
+         * @return the number of bytes decoded, or -1 at the end of the stream
+         */
+        private int decodeFrame() throws BitstreamException {
+            boolean setup = bitstream == null;
+            if (setup) {
+                bitstream = new Bitstream(source.read());
+                decoder = new MP3Decoder();
+            }
+            
+            Header header = bitstream.readFrame();
+            if (header == null) return -1;
+            if (setup) {
+                int channels = header.mode() == Header.SINGLE_CHANNEL ? 1 : 2;
+                outputBuffer = new OutputBuffer(channels, false);
+                decoder.setOutputBuffer(outputBuffer);
+            }
+            try {
+                decoder.decodeFrame(header, bitstream);
+            } catch (Exception ignored) {
+                // JLayer's decoder throws ArrayIndexOutOfBoundsException sometimes!?
+            }
+            bitstream.closeFrame();
+            pendOffs = 0;
+            pendSize = 0;
+            return outputBuffer.reset();
+        }
+        
+        /**
+         * Copies any held back data from the last frame into the given array.
+         *
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of bytes copied
+         */
+        private int drain(byte[] buffer) {
+            int amount = Math.min( pendSize, buffer.length );
+            if (amount > 0) {
+                System.arraycopy( outputBuffer.getBuffer(), pendOffs, buffer, 0, amount );
+                pendOffs += amount;
+                pendSize -= amount;
+            }
+            return amount;
+        }
+        
+        /**
+         * Copies any held back data from the last frame into the given buffer.
+         *
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of bytes copied
+         */
+        private int drain(ByteBuffer buffer) {
+            int amount = Math.min( pendSize, buffer.remaining() );
+            if (amount > 0) {
+                buffer.put( outputBuffer.getBuffer(), pendOffs, amount );
+                pendOffs += amount;
+                pendSize -= amount;
+            }
+            return amount;
+        }
+        
+        /**
+         * Advances the decoder to the given byte position.
+         *
+         * The frame containing the position is held back, so that the next read
+         * starts exactly at that position. If the position is beyond the end of the
+         * stream, the stream is reset.
+         *
+         * @param pos       The position to seek to
+         *
+         * @return true if the position was found
+         */
+        private boolean skipTo(long pos) {
+            if (pos < byteOffs) {
+                reset();
+            }
+            
+            try {
+                int amount = (int)Math.min( pendSize, pos-byteOffs );
+                pendOffs += amount;
+                pendSize -= amount;
+                byteOffs += amount;
+                
+                while (byteOffs < pos) {
+                    int chunk = decodeFrame();
+                    if (chunk < 0) break;
+                    if (byteOffs+chunk > pos) {
+                        pendOffs = (int)(pos-byteOffs);
+                        pendSize = chunk-pendOffs;
+                        byteOffs = pos;
+                    } else {
+                        byteOffs += chunk;
+                    }
+                }
+                
+                if (byteOffs < pos) {
+                    reset();
+                    return false;
+                }
+                return true;
+            } catch (Throwable ex) {
+                reset();
+                throw new GdxRuntimeException("Error reading audio data.", ex);
+            }
         }
         
         /**
@@ -26,6 +26,7 @@ package edu.cornell.gdiac.backend.audio;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import com.badlogic.gdx.Gdx;
@@ -470,6 +471,59 @@ public class OggInputStream extends InputStream {
         return read(b, 0, b.length);
     }
 
+    /**
+     * Reads decoded PCM data directly into the given buffer.
+     *
+     * Data is copied in bulk from the decoded page, starting at the position of the
+     * buffer and stopping at its limit.  The buffer position is advanced but it is
+     * not flipped.
+     *
+     * @param b The buffer to receive the PCM data
+     *
+     * @return the number of bytes read, or -1 at the end of the stream
+     */
+    public int read (ByteBuffer b) {
+        int start = b.position();
+        while (b.hasRemaining()) {
+            if (readIndex >= outIndex) {
+                outIndex = 0;
+                readPCM();
+                readIndex = 0;
+                if (outIndex == 0) break;
+            }
+            int amount = Math.min(outIndex - readIndex, b.remaining());
+            b.put(outBuffer, readIndex, amount);
+            readIndex += amount;
+        }
+        int total = b.position() - start;
+        return total == 0 ? -1 : total;
+    }
+
+    /**
+     * Skips over the given number of decoded PCM bytes.
+     *
+     * This decodes the skipped pages, but never copies them out of the decoder.
+     *
+     * @param n The number of bytes to skip
+     *
+     * @return the number of bytes actually skipped
+     */
+    public long skip (long n) {
+        long skipped = 0;
+        while (skipped < n) {
+            if (readIndex >= outIndex) {
+                outIndex = 0;
+                readPCM();
+                readIndex = 0;
+                if (outIndex == 0) break;
+            }
+            int amount = (int)Math.min(outIndex - readIndex, n - skipped);
+            readIndex += amount;
+            skipped += amount;
+        }
+        return skipped;
+    }
+
     public void close () {
         StreamUtils.closeQuietly(input);
     }
@@ -15,7 +15,6 @@ import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.StreamUtils;
 import edu.cornell.gdiac.audio.*;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.*;
 
 /**
@@ -182,16 +181,11 @@ public class OggSource implements AudioSource {
         try {
             reader = new OggInputStream(source.read(),input);
             input = reader;
-            ByteArrayOutputStream output = new ByteArrayOutputStream(4096);
-            byte[] buffer = new byte[2048];
-            while (!input.atEnd()) {
-                int length = input.read(buffer);
-                if (length == -1) break;
-                output.write(buffer, 0, length);
-            }
             result = ByteBuffer.allocateDirect((int)byteSize);
             result.order( ByteOrder.nativeOrder());
-            result.put(output.toByteArray(), 0, (int)byteSize);
+            while (result.hasRemaining() && !input.atEnd()) {
+                if (input.read(result) == -1) break;
+            }
             ((java.nio.Buffer)result).flip();
         } finally {
             StreamUtils.closeQuietly(input);
@@ -332,6 +326,32 @@ public class OggSource implements AudioSource {
             byteOffs += chunk;
             return chunk;
         }
+
+        /**
+         * Reads the next page of bytes directly into the given buffer.
+         *
+         * This method decodes straight into the buffer, starting at its current position
+         * and stopping at its limit. The position is advanced by the number of bytes read,
+         * but the buffer is not flipped. This is the preferred way to stream audio, as a 
+         * caller can reuse (or pool) a single direct buffer and hand it to the audio 
+         * device without any intermediate heap arrays.
+         *
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of bytes read (<= 0 at the end of the stream)
+         */
+        @Override
+        public int read(ByteBuffer buffer) {
+            if (input == null) {
+                input = new OggInputStream(source.read(), previous);
+                previous = null; // release this reference
+            }
+            int chunk = input.read(buffer);
+            if (chunk > 0) {
+                byteOffs += chunk;
+            }
+            return chunk;
+        }
         
         /**
          * Reads the next page of audio samples into the given buffer.
@@ -429,8 +449,50 @@ public class OggSource implements AudioSource {
             if (pos <= 0 || buffer.length <= 1) {
                 throw new IllegalArgumentException( "Illegal seek parameters" );
             }
-            byte[] temp = new byte[buffer.length/2];
+            if (!skipTo( pos )) {
+                return 0;
+            }
+            int chunk = read( buffer );
+            return Math.max( chunk, 0 );
+        }
 
+        /**
+         * Seeks to the given byte position, reading the results into the provided buffer
+         *
+         * Provided the position sought is found, the data at that position will be
+         * written to the buffer starting at its current position, which is advanced by
+         * the number of bytes read. The buffer is not flipped. The value returned is the 
+         * number of bytes written to buffer (including this position). So a value of 0 
+         * means that the seek failed.
+         *
+         * @param pos       The position to seek to
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of bytes read
+         */
+        @Override
+        public int seek(long pos, ByteBuffer buffer) {
+            if (pos <= 0 || buffer.remaining() <= 1) {
+                throw new IllegalArgumentException( "Illegal seek parameters" );
+            }
+            if (!skipTo( pos )) {
+                return 0;
+            }
+            int chunk = read( buffer );
+            return Math.max( chunk, 0 );
+        }
+
+        /**
+         * Advances the decoder to the given byte position.
+         *
+         * The skipped audio is decoded, but it is never copied out of the decoder.
+         * If the position is beyond the end of the stream, the stream is reset.
+         *
+         * @param pos       The position to seek to
+         *
+         * @return true if the position was found
+         */
+        private boolean skipTo(long pos) {
             if (pos < byteOffs) {
                 StreamUtils.closeQuietly( input );
                 input = new OggInputStream( source.read(), input );
@@ -441,24 +503,12 @@ public class OggSource implements AudioSource {
                 previous = null; // release this reference
             }
 
-            int chunk = 1;
-            while (chunk > 0 && byteOffs < pos) {
-                chunk = input.read(temp,0,temp.length);
-                byteOffs += chunk;
-            }
-            
+            byteOffs += input.skip( pos-byteOffs );
             if (byteOffs < pos) {
                 reset();
-                return 0;
+                return false;
             }
-            
-            int mark = (int)(byteOffs-pos);
-            System.arraycopy( temp, mark, buffer,0,chunk-mark );
-            mark = chunk-mark;
-            chunk = input.read( temp,0, temp.length );
-            System.arraycopy( temp,0, buffer, mark, chunk );
-
-            return chunk+mark;
+            return true;
         }
         
         /**
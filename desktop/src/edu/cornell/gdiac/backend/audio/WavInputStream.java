@@ -23,6 +23,7 @@ import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.StreamUtils;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 
 /**
  * Input Stream to read WAV Files
@@ -128,4 +129,48 @@ public class WavInputStream extends FilterInputStream {
         return offset;
     }
 
+    /**
+     * Reads PCM data into the given buffer, staging it through the scratch array.
+     *
+     * Reading from a file stream always requires a heap array, so the caller should
+     * provide one that it reuses across reads. The buffer is filled from its position
+     * to its limit, but it is not flipped.
+     *
+     * @param buffer    The buffer to receive the PCM data
+     * @param scratch   A reusable staging array
+     *
+     * @return the number of bytes read, or -1 at the end of the data
+     */
+    public int read (ByteBuffer buffer, byte[] scratch) throws IOException {
+        if (dataRemaining == 0) return -1;
+        int total = 0;
+        while (buffer.hasRemaining() && dataRemaining > 0) {
+            int request = Math.min(Math.min(scratch.length, buffer.remaining()), dataRemaining);
+            int length = super.read(scratch, 0, request);
+            if (length == -1) break;
+            buffer.put(scratch, 0, length);
+            dataRemaining -= length;
+            total += length;
+        }
+        return total == 0 ? -1 : total;
+    }
+
+    /**
+     * Skips over the given number of PCM bytes, never leaving the data chunk.
+     *
+     * @param count The number of bytes to skip
+     *
+     * @return the number of bytes actually skipped
+     */
+    public long skip (long count) throws IOException {
+        long skipped = 0;
+        while (skipped < count && dataRemaining > 0) {
+            long amount = in.skip(Math.min(count - skipped, dataRemaining));
+            if (amount <= 0) break;
+            dataRemaining -= amount;
+            skipped += amount;
+        }
+        return skipped;
+    }
+
 }
\ No newline at end of file
@@ -195,6 +195,8 @@ public class WavSource implements AudioSource {
         private long byteOffs;
         /** A byte array for grabbing data for sample queries */
         private byte[] tempBytes;
+        /** A reusable staging array for reading into direct buffers */
+        private final byte[] scratch = new byte[4096];
         
         /**
          * Creates a new WAV stream
@@ -305,6 +307,34 @@ public class WavSource implements AudioSource {
                 throw new GdxRuntimeException("Error reading WAV file: " + source, ex);
             }
         }
+
+        /**
+         * Reads the next page of bytes directly into the given buffer.
+         *
+         * This method fills the buffer starting at its current position and stopping 
+         * at its limit. The position is advanced by the number of bytes read, but the
+         * buffer is not flipped. A file stream always requires a heap array, so WAV 
+         * files stage the data through a single array owned by this stream.
+         *
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of bytes read (<= 0 at the end of the stream)
+         */
+        @Override
+        public int read(ByteBuffer buffer) {
+            if (input == null) {
+                input = new WavInputStream( source );
+            }
+            try {
+                int chunk = input.read(buffer, scratch);
+                if (chunk > 0) {
+                    byteOffs += chunk;
+                }
+                return chunk;
+            } catch (IOException ex) {
+                throw new GdxRuntimeException("Error reading WAV file: " + source, ex);
+            }
+        }
         
         /**
          * Reads the next page of audio samples into the given buffer.
@@ -402,38 +432,77 @@ public class WavSource implements AudioSource {
             if (pos <= 0 || buffer.length <= 1) {
                 throw new IllegalArgumentException( "Illegal seek parameters" );
             }
-            byte[] temp = new byte[buffer.length/2];
-            
-            if (pos < byteOffs) {
-                StreamUtils.closeQuietly( input );
-                input = new WavInputStream( source );
-                byteOffs = 0;
-            }
-            
             try {
-                int chunk = 1;
-                while (chunk > 0 && byteOffs < pos) {
-                    chunk = input.read(temp);
+                if (!skipTo( pos )) {
+                    return 0;
+                }
+                int chunk = input.read( buffer );
+                if (chunk > 0) {
                     byteOffs += chunk;
                 }
-                
-                if (byteOffs < pos) {
-                    reset();
+                return Math.max( chunk, 0 );
+            } catch (Exception e) {
+                reset();
+                return 0;
+            }
+        }
+
+        /**
+         * Seeks to the given byte position, reading the results into the provided buffer
+         *
+         * Provided the position sought is found, the data at that position will be
+         * written to the buffer starting at its current position, which is advanced by
+         * the number of bytes read. The buffer is not flipped. The value returned is the 
+         * number of bytes written to buffer (including this position). So a value of 0 
+         * means that the seek failed.
+         *
+         * @param pos       The position to seek to
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of bytes read
+         */
+        @Override
+        public int seek(long pos, ByteBuffer buffer) {
+            if (pos <= 0 || buffer.remaining() <= 1) {
+                throw new IllegalArgumentException( "Illegal seek parameters" );
+            }
+            try {
+                if (!skipTo( pos )) {
                     return 0;
                 }
-                
-                int mark = (int)(byteOffs-pos);
-                System.arraycopy( temp, mark, buffer,0,chunk-mark );
-                mark = chunk-mark;
-                chunk = input.read( temp );
-                System.arraycopy( temp,0, buffer, mark, chunk );
-                
-                return chunk+mark;
+                return Math.max( read( buffer ), 0 );
             } catch (Exception e) {
                 reset();
                 return 0;
             }
         }
+
+        /**
+         * Advances the file to the given byte position without reading the data.
+         *
+         * If the position is beyond the end of the stream, the stream is reset.
+         *
+         * @param pos       The position to seek to
+         *
+         * @return true if the position was found
+         */
+        private boolean skipTo(long pos) throws IOException {
+            if (pos < byteOffs) {
+                StreamUtils.closeQuietly( input );
+                input = null;
+                byteOffs = 0;
+            }
+            if (input == null) {
+                input = new WavInputStream( source );
+            }
+            
+            byteOffs += input.skip( pos-byteOffs );
+            if (byteOffs < pos) {
+                reset();
+                return false;
+            }
+            return true;
+        }
         
         /**
          * Seeks to the given audio sample, reading the results into the provided buffer
@@ -12,8 +12,10 @@
  */
 package edu.cornell.gdiac.somniphobia.desktop;
 
+import com.badlogic.gdx.files.FileHandle;
 import edu.cornell.gdiac.backend.*;
 import edu.cornell.gdiac.somniphobia.GDXRoot;
+import edu.cornell.gdiac.somniphobia.game.controllers.LevelGenerator;
 
 /**
  * The main class of the game.
@@ -22,6 +24,29 @@ import edu.cornell.gdiac.somniphobia.GDXRoot;
  * the window size, you should almost never need to modify this class.
  */
 public class DesktopLauncher {
+	/** The argument to write the benchmark levels instead of starting the game */
+	private static final String GENERATE = "--generate-levels";
+	/** The argument to measure the sprite drawing paths instead of starting the game */
+	private static final String BENCHMARK_SPRITES = "--benchmark-sprites";
+	/** The sprite benchmark, which is only on the classpath of the benchmark source set */
+	private static final String SPRITE_BENCHMARK = "edu.cornell.gdiac.somniphobia.desktop.SpriteBenchmark";
+	/** The default number of sprites drawn each frame of the sprite benchmark */
+	private static final int DEFAULT_SPRITES = 10000;
+	/** The default directory for the benchmark levels (relative to the assets) */
+	private static final String GENERATED_LEVELS = "levels/generated";
+	/** The command line options, for the usage message */
+	private static final String USAGE = "Usage: DesktopLauncher [options]\n" +
+			"       DesktopLauncher "+GENERATE+" [directory]\n" +
+			"       DesktopLauncher "+BENCHMARK_SPRITES+" [sprites per frame]\n" +
+			"Options:\n" +
+			"  --benchmark                 Run uncapped and log the frame rate of each level\n" +
+			"  --frame-spin MICROS         Smallest spin before each frame deadline\n" +
+			"  --frame-smoothing WEIGHT    Weight of the newest frame in the delta time\n" +
+			"  --max-frame-time SECONDS    Largest delta time passed to the game (0 for none)\n" +
+			"  --track-resources           Track GPU resources and log them per screen\n" +
+			"  --allocation-budget BYTES   Report frames allocating more than this\n" +
+			"  --allocation-sampling       Log the sites that allocated the most at exit\n" +
+			"  --trace FILE                Write a startup trace to the given file";
 	
 	/**
 	 * Classic main method that all Java programmers know.
@@ -29,14 +54,123 @@ public class DesktopLauncher {
 	 * This method simply exists to start a new LwjglApplication.  For desktop games,
 	 * LibGDX is built on top of LWJGL (this is not the case for Android).
 	 * 
+	 * With the argument --generate-levels [directory], this writes the synthetic
+	 * benchmark levels (see {@link LevelGenerator}) and exits without a window.  They
+	 * can then be opened in the level editor as generated/scale_N.
+	 *
+	 * With the argument --benchmark-sprites [count], this measures the sprites per
+	 * millisecond of the canvas drawing paths without a window, and exits.  The
+	 * benchmark is not part of the game, so this only works when it is run from the
+	 * benchmark source set (gradle desktop:benchmarkSprites).
+	 *
+	 * Any other arguments are options for the diagnostic settings in
+	 * {@link GDXAppSettings} (see {@link #USAGE}).
+	 *
 	 * @param arg Command line arguments
 	 */
 	public static void main (String[] arg) {
+		if (arg.length > 0 && arg[0].equals(GENERATE)) {
+			FileHandle directory = new FileHandle(arg.length > 1 ? arg[1] : GENERATED_LEVELS);
+			LevelGenerator.writePresets(directory);
+			System.out.println("Wrote benchmark levels to "+directory.file().getAbsolutePath());
+			return;
+		}
+		if (arg.length > 0 && arg[0].equals(BENCHMARK_SPRITES)) {
+			try {
+				int sprites = arg.length > 1 ? Integer.parseInt(arg[1]) : DEFAULT_SPRITES;
+				Class.forName(SPRITE_BENCHMARK).getMethod("run", int.class).invoke(null, sprites);
+			} catch (NumberFormatException e) {
+				System.err.println("Bad value for "+BENCHMARK_SPRITES+": "+arg[1]);
+				System.err.println(USAGE);
+				System.exit(1);
+			} catch (ClassNotFoundException e) {
+				System.err.println("The benchmark is not in this build; run gradle desktop:benchmarkSprites");
+				System.exit(1);
+			} catch (ReflectiveOperationException e) {
+				throw new RuntimeException(e);
+			}
+			return;
+		}
 		GDXAppSettings config = new GDXAppSettings();
 		config.width  = 1024;
 		config.height = 576;
 		config.resizable = false;
 		config.title = "SomniPhobia";
+		try {
+			parseOptions(arg, config);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			System.exit(1);
+		}
 		new GDXApp(new GDXRoot(), config);
 	}
+
+	/**
+	 * Applies the command line options to the given settings
+	 *
+	 * @param arg		Command line arguments
+	 * @param config	The settings to modify
+	 *
+	 * @throws IllegalArgumentException if an option is unknown or has a bad value
+	 */
+	private static void parseOptions(String[] arg, GDXAppSettings config) {
+		for (int ii = 0; ii < arg.length; ii++) {
+			String option = arg[ii];
+			try {
+				ii = parseOption(arg, ii, config);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Bad value for "+option+": "+arg[ii+1]);
+			}
+		}
+	}
+
+	/**
+	 * Applies a single command line option to the given settings
+	 *
+	 * @param arg		Command line arguments
+	 * @param ii		The index of the option
+	 * @param config	The settings to modify
+	 *
+	 * @return the index of the last argument used by the option
+	 */
+	private static int parseOption(String[] arg, int ii, GDXAppSettings config) {
+		String option = arg[ii];
+		if (option.equals("--benchmark")) {
+			config.benchmark = true;
+		} else if (option.equals("--frame-spin")) {
+			config.frameSpinMicros = Integer.parseInt(value(arg, ++ii, option));
+		} else if (option.equals("--frame-smoothing")) {
+			config.frameSmoothing = Float.parseFloat(value(arg, ++ii, option));
+		} else if (option.equals("--max-frame-time")) {
+			config.maxFrameTime = Float.parseFloat(value(arg, ++ii, option));
+		} else if (option.equals("--track-resources")) {
+			config.trackResources = true;
+		} else if (option.equals("--allocation-budget")) {
+			config.allocationBudget = Long.parseLong(value(arg, ++ii, option));
+		} else if (option.equals("--allocation-sampling")) {
+			config.allocationSampling = true;
+		} else if (option.equals("--trace")) {
+			config.traceFile = value(arg, ++ii, option);
+		} else {
+			throw new IllegalArgumentException("Unknown option "+option);
+		}
+		return ii;
+	}
+
+	/**
+	 * Returns the value of an option
+	 *
+	 * @param arg		Command line arguments
+	 * @param index		The index of the value
+	 * @param option	The option name (for the error message)
+	 *
+	 * @return the value of an option
+	 */
+	private static String value(String[] arg, int index, String option) {
+		if (index >= arg.length) {
+			throw new IllegalArgumentException("Missing value for "+option);
+		}
+		return arg[index];
+	}
 }
\ No newline at end of file
@@ -0,0 +1,317 @@
+/*
+ * TextureCompressor.java
+ *
+ * The backgrounds and menu screens are full HD images, and as RGBA8888 textures each
+ * one takes 8MB of video memory.  Desktop GPUs can sample block compressed (S3TC)
+ * textures directly, at a half (DXT1) or a quarter (DXT5) of a byte per pixel.  This
+ * tool is the build step that makes those copies.  It writes a KTX file beside every
+ * large image, which TextureParser loads instead of the image when the GPU supports
+ * it.  Opaque images become DXT1 (8x smaller) and images with alpha become DXT5 (4x
+ * smaller).
+ *
+ * This only uses the JDK, so that the build can run it before the game is compiled
+ * against libGDX.  The encoder is the fast bounding box method (as in van Waveren,
+ * "Real-Time DXT Compression"), which is good enough for painted backgrounds.
+ */
+package edu.cornell.gdiac.somniphobia.desktop;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The build step that converts large images to block compressed KTX files.
+ */
+public class TextureCompressor {
+	/** The smallest image (in pixels) worth compressing */
+	public static final int DEFAULT_MIN_PIXELS = 1000000;
+
+	/** The KTX 1.1 file identifier */
+	private static final byte[] KTX_IDENTIFIER = {
+		(byte)0xAB, 'K', 'T', 'X', ' ', '1', '1', (byte)0xBB, '\r', '\n', 0x1A, '\n'
+	};
+	/** The KTX header size (after the identifier) */
+	private static final int KTX_HEADER = 13*4;
+	/** The GL internal format for DXT1 */
+	private static final int GL_COMPRESSED_RGB_S3TC_DXT1 = 0x83F0;
+	/** The GL internal format for DXT5 */
+	private static final int GL_COMPRESSED_RGBA_S3TC_DXT5 = 0x83F3;
+	/** The GL base format for opaque images */
+	private static final int GL_RGB = 0x1907;
+	/** The GL base format for images with alpha */
+	private static final int GL_RGBA = 0x1908;
+
+	/**
+	 * Converts the large images in the given directory.
+	 *
+	 * Usage: TextureCompressor directory [min pixels]
+	 *
+	 * Images are skipped if their KTX file is newer, so this is cheap to run on every
+	 * build.
+	 *
+	 * @param arg Command line arguments
+	 */
+	public static void main(String[] arg) throws IOException {
+		if (arg.length < 1) {
+			System.err.println("Usage: TextureCompressor directory [min pixels]");
+			System.exit(1);
+		}
+		int minPixels = arg.length > 1 ? Integer.parseInt(arg[1]) : DEFAULT_MIN_PIXELS;
+		long[] totals = new long[2];
+		compressAll(new File(arg[0]), minPixels, totals);
+		System.out.println(String.format("Compressed %.1f MB of RGBA textures to %.1f MB",
+			totals[0]/(1024.0*1024.0), totals[1]/(1024.0*1024.0)));
+	}
+
+	/**
+	 * Converts the large images in the given directory and its subdirectories.
+	 *
+	 * @param directory	The directory to search
+	 * @param minPixels	The smallest image (in pixels) to convert
+	 * @param totals	The uncompressed and compressed sizes so far (updated)
+	 */
+	private static void compressAll(File directory, int minPixels, long[] totals) throws IOException {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			if (file.isDirectory()) {
+				compressAll(file, minPixels, totals);
+			} else if (file.getName().toLowerCase().endsWith(".png")) {
+				File target = new File(file.getParentFile(), ktxName(file.getName()));
+				if (target.exists() && target.lastModified() >= file.lastModified()) {
+					continue;
+				}
+				BufferedImage image = ImageIO.read(file);
+				if (image == null || (long)image.getWidth()*image.getHeight() < minPixels) {
+					continue;
+				}
+				long size = compress(image, target);
+				totals[0] += 4L*image.getWidth()*image.getHeight();
+				totals[1] += size;
+				System.out.println(target.getPath());
+			}
+		}
+	}
+
+	/**
+	 * Returns the name of the KTX file for the given image
+	 *
+	 * @param name	The image file name
+	 *
+	 * @return the name of the KTX file for the given image
+	 */
+	public static String ktxName(String name) {
+		int dot = name.lastIndexOf('.');
+		return (dot < 0 ? name : name.substring(0, dot))+".ktx";
+	}
+
+	/**
+	 * Writes the given image as a block compressed KTX file
+	 *
+	 * @param image	The image to compress
+	 * @param file	The KTX file to write
+	 *
+	 * @return the size of the compressed image data in bytes
+	 */
+	public static long compress(BufferedImage image, File file) throws IOException {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int[] argb = image.getRGB(0, 0, width, height, null, 0, width);
+		boolean alpha = false;
+		for (int ii = 0; ii < argb.length && !alpha; ii++) {
+			alpha = (argb[ii] >>> 24) != 0xFF;
+		}
+
+		int blocksX = (width+3)/4;
+		int blocksY = (height+3)/4;
+		int blockBytes = alpha ? 16 : 8;
+		ByteBuffer data = ByteBuffer.allocate(blocksX*blocksY*blockBytes).order(ByteOrder.LITTLE_ENDIAN);
+		int[] block = new int[16];
+		for (int by = 0; by < blocksY; by++) {
+			for (int bx = 0; bx < blocksX; bx++) {
+				// Edge blocks repeat the last row and column
+				for (int ii = 0; ii < 16; ii++) {
+					int x = Math.min(bx*4+(ii & 3), width-1);
+					int y = Math.min(by*4+(ii >> 2), height-1);
+					block[ii] = argb[y*width+x];
+				}
+				if (alpha) {
+					encodeAlpha(block, data);
+				}
+				encodeColor(block, data);
+			}
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(KTX_IDENTIFIER.length+KTX_HEADER+4).order(ByteOrder.LITTLE_ENDIAN);
+		header.put(KTX_IDENTIFIER);
+		header.putInt(0x04030201);	// endianness
+		header.putInt(0);			// glType (compressed)
+		header.putInt(1);			// glTypeSize
+		header.putInt(0);			// glFormat (compressed)
+		header.putInt(alpha ? GL_COMPRESSED_RGBA_S3TC_DXT5 : GL_COMPRESSED_RGB_S3TC_DXT1);
+		header.putInt(alpha ? GL_RGBA : GL_RGB);
+		header.putInt(width);
+		header.putInt(height);
+		header.putInt(0);			// pixel depth
+		header.putInt(0);			// array elements
+		header.putInt(1);			// faces
+		header.putInt(1);			// mipmap levels
+		header.putInt(0);			// key value data
+		header.putInt(data.capacity());
+
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+		try {
+			out.write(header.array());
+			out.write(data.array());
+		} finally {
+			out.close();
+		}
+		return data.capacity();
+	}
+
+	/**
+	 * Encodes the color of a 4x4 block as DXT1
+	 *
+	 * The end points are the corners of the color bounding box, inset slightly to
+	 * reduce the error of the outliers.  Each pixel takes the closest of the four
+	 * palette colors.
+	 *
+	 * @param block	The block pixels (ARGB)
+	 * @param out	The output buffer
+	 */
+	private static void encodeColor(int[] block, ByteBuffer out) {
+		int[] min = {255, 255, 255};
+		int[] max = {0, 0, 0};
+		for (int pixel : block) {
+			for (int ch = 0; ch < 3; ch++) {
+				int value = (pixel >> (16-8*ch)) & 0xFF;
+				min[ch] = Math.min(min[ch], value);
+				max[ch] = Math.max(max[ch], value);
+			}
+		}
+		for (int ch = 0; ch < 3; ch++) {
+			int inset = (max[ch]-min[ch]) >> 4;
+			min[ch] = Math.min(255, min[ch]+inset);
+			max[ch] = Math.max(0, max[ch]-inset);
+		}
+
+		int c0 = to565(max);
+		int c1 = to565(min);
+		if (c0 < c1) {
+			int swap = c0;
+			c0 = c1;
+			c1 = swap;
+		}
+		int[][] palette = new int[4][];
+		palette[0] = from565(c0);
+		palette[1] = from565(c1);
+		palette[2] = new int[3];
+		palette[3] = new int[3];
+		for (int ch = 0; ch < 3; ch++) {
+			palette[2][ch] = (2*palette[0][ch]+palette[1][ch])/3;
+			palette[3][ch] = (palette[0][ch]+2*palette[1][ch])/3;
+		}
+
+		int indices = 0;
+		if (c0 != c1) {
+			for (int ii = 0; ii < 16; ii++) {
+				int pixel = block[ii];
+				int best = 0;
+				int bestError = Integer.MAX_VALUE;
+				for (int jj = 0; jj < 4; jj++) {
+					int error = 0;
+					for (int ch = 0; ch < 3; ch++) {
+						int diff = ((pixel >> (16-8*ch)) & 0xFF)-palette[jj][ch];
+						error += diff*diff;
+					}
+					if (error < bestError) {
+						bestError = error;
+						best = jj;
+					}
+				}
+				indices |= best << (2*ii);
+			}
+		}
+		out.putShort((short)c0);
+		out.putShort((short)c1);
+		out.putInt(indices);
+	}
+
+	/**
+	 * Encodes the alpha of a 4x4 block as a DXT5 alpha block
+	 *
+	 * @param block	The block pixels (ARGB)
+	 * @param out	The output buffer
+	 */
+	private static void encodeAlpha(int[] block, ByteBuffer out) {
+		int min = 255;
+		int max = 0;
+		for (int pixel : block) {
+			int value = pixel >>> 24;
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+		// The eight value mode (a0 > a1) interpolates six values between the ends
+		int[] palette = new int[8];
+		palette[0] = max;
+		palette[1] = min;
+		for (int ii = 1; ii < 7; ii++) {
+			palette[ii+1] = ((7-ii)*max+ii*min)/7;
+		}
+
+		long indices = 0;
+		if (max != min) {
+			for (int ii = 0; ii < 16; ii++) {
+				int value = block[ii] >>> 24;
+				int best = 0;
+				int bestError = Integer.MAX_VALUE;
+				for (int jj = 0; jj < 8; jj++) {
+					int error = Math.abs(value-palette[jj]);
+					if (error < bestError) {
+						bestError = error;
+						best = jj;
+					}
+				}
+				indices |= (long)best << (3*ii);
+			}
+		}
+		out.put((byte)max);
+		out.put((byte)min);
+		for (int ii = 0; ii < 6; ii++) {
+			out.put((byte)(indices >> (8*ii)));
+		}
+	}
+
+	/**
+	 * Returns the given color as RGB565
+	 *
+	 * @param rgb	The color channels (0-255)
+	 *
+	 * @return the given color as RGB565
+	 */
+	private static int to565(int[] rgb) {
+		return ((rgb[0]*31+127)/255) << 11 | ((rgb[1]*63+127)/255) << 5 | ((rgb[2]*31+127)/255);
+	}
+
+	/**
+	 * Returns the channels (0-255) of the given RGB565 color
+	 *
+	 * @param color	The RGB565 color
+	 *
+	 * @return the channels (0-255) of the given RGB565 color
+	 */
+	private static int[] from565(int color) {
+		int r = (color >> 11) & 0x1F;
+		int g = (color >> 5) & 0x3F;
+		int b = color & 0x1F;
+		return new int[] {(r << 3) | (r >> 2), (g << 2) | (g >> 4), (b << 3) | (b >> 2)};
+	}
+}